@@ -0,0 +1,82 @@
+/*
+Copyright 2025 Pablo Lozano Hernández
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+either express or implied. See the License for the specific
+language governing permissions and limitations under the
+License.
+*/
+
+package com.aplicacion.benchmarks;
+
+import java.util.Random;
+
+/**
+ * Generadores de listas de aristas sintéticas para las pruebas de rendimiento.
+ */
+public final class GrafosSinteticos {
+
+    /**
+     * Forma del grafo generado.
+     */
+    public enum Forma {
+        /** Camino 0 → 1 → ... → n-1. */
+        CADENA,
+        /** Grafo aleatorio de Erdős–Rényi con grado medio 4. */
+        ALEATORIO,
+        /** Grafo de Barabási–Albert: cada vértice nuevo se une a 4 existentes con probabilidad proporcional a su grado. */
+        LEY_POTENCIA
+    }
+
+    private static final int GRADO_MEDIO = 4;
+
+    private GrafosSinteticos() {
+    }
+
+    /**
+     * Genera las aristas de un grafo de 'vertices' vértices numerados desde 0.
+     *
+     * @return Array de pares {origen, destino}.
+     */
+    public static int[][] generar(Forma forma, int vertices, long semilla) {
+        Random random = new Random(semilla);
+        switch (forma) {
+            case CADENA: {
+                int[][] aristas = new int[vertices - 1][];
+                for (int i = 0; i + 1 < vertices; i++) {
+                    aristas[i] = new int[]{i, i + 1};
+                }
+                return aristas;
+            }
+            case ALEATORIO: {
+                int[][] aristas = new int[vertices * GRADO_MEDIO][];
+                for (int i = 0; i < aristas.length; i++) {
+                    aristas[i] = new int[]{random.nextInt(vertices), random.nextInt(vertices)};
+                }
+                return aristas;
+            }
+            default: {
+                // Cada extremo de arista se guarda en 'extremos'; elegir uno al azar equivale a elegir
+                // un vértice con probabilidad proporcional a su grado.
+                int[][] aristas = new int[(vertices - 1) * GRADO_MEDIO][];
+                int[] extremos = new int[aristas.length * 2 + 1];
+                int numExtremos = 1;
+                int numAristas = 0;
+                for (int v = 1; v < vertices; v++) {
+                    for (int k = 0; k < GRADO_MEDIO; k++) {
+                        int destino = extremos[random.nextInt(numExtremos)];
+                        aristas[numAristas++] = new int[]{v, destino};
+                        extremos[numExtremos++] = destino;
+                    }
+                    extremos[numExtremos++] = v;
+                }
+                return aristas;
+            }
+        }
+    }
+}
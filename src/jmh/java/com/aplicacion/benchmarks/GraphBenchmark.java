@@ -0,0 +1,120 @@
+/*
+Copyright 2025 Pablo Lozano Hernández
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+either express or implied. See the License for the specific
+language governing permissions and limitations under the
+License.
+*/
+
+package com.aplicacion.benchmarks;
+
+import com.aplicacion.pr2.EdgeListLoader;
+import com.aplicacion.pr2.Graph;
+import com.aplicacion.pr2.GraphSnapshot;
+import com.aplicacion.pr2.ParallelBfs;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendimiento de las operaciones de {@link Graph} sobre grafos sintéticos de distinto tamaño y forma.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GraphBenchmark {
+
+    @Param({"1000", "100000"})
+    public int vertices;
+
+    @Param({"CADENA", "ALEATORIO", "LEY_POTENCIA"})
+    public GrafosSinteticos.Forma forma;
+
+    private int[][] aristas;
+    private byte[] aristasBinarias;
+    private Graph<Integer> grafo;
+    private GraphSnapshot<Integer> vista;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        aristas = GrafosSinteticos.generar(forma, vertices, 42L);
+        grafo = new Graph<>();
+        for (int[] arista : aristas) {
+            grafo.addEdge(arista[0], arista[1]);
+        }
+        vista = grafo.snapshot();
+        ByteBuffer buffer = ByteBuffer.allocate(aristas.length * 16);
+        for (int[] arista : aristas) {
+            buffer.putLong(arista[0]).putLong(arista[1]);
+        }
+        aristasBinarias = buffer.array();
+        random = new Random(7L);
+    }
+
+    /**
+     * Construcción completa del grafo arista a arista.
+     */
+    @Benchmark
+    public Graph<Integer> addEdge() {
+        Graph<Integer> g = new Graph<>();
+        for (int[] arista : aristas) {
+            g.addEdge(arista[0], arista[1]);
+        }
+        return g;
+    }
+
+    /**
+     * Construcción completa del grafo con la carga masiva desde pares binarios en memoria.
+     */
+    @Benchmark
+    public Graph<Long> bulkLoad() throws IOException {
+        Graph<Long> g = new Graph<>();
+        new EdgeListLoader().load(new ByteArrayInputStream(aristasBinarias), EdgeListLoader.Format.BINARY, g);
+        return g;
+    }
+
+    @Benchmark
+    public Object onePath() {
+        return grafo.onePath(random.nextInt(vertices), random.nextInt(vertices));
+    }
+
+    @Benchmark
+    public Set<Integer> obtainAdjacents() throws Exception {
+        return grafo.obtainAdjacents(random.nextInt(vertices));
+    }
+
+    /**
+     * Alcanzabilidad completa desde un vértice con la búsqueda en anchura paralela.
+     */
+    @Benchmark
+    public int reachableFrom() {
+        return ParallelBfs.search(vista, List.of(random.nextInt(vertices))).getReachedCount();
+    }
+}
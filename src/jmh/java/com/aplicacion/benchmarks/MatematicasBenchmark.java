@@ -0,0 +1,54 @@
+/*
+Copyright 2025 Pablo Lozano Hernández
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+either express or implied. See the License for the specific
+language governing permissions and limitations under the
+License.
+*/
+
+package com.aplicacion.benchmarks;
+
+import com.aplicacion.mates.Matematicas;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendimiento de la aproximación de PI por Montecarlo según el número de puntos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatematicasBenchmark {
+
+    @Param({"100000", "1000000", "10000000"})
+    public long pasos;
+
+    @Benchmark
+    public double generarNumeroPi() {
+        return Matematicas.generarNumeroPi(pasos);
+    }
+
+    @Benchmark
+    public double generarNumeroPiParalelo() {
+        return Matematicas.generarNumeroPiParalelo(pasos, 42L, Runtime.getRuntime().availableProcessors());
+    }
+}
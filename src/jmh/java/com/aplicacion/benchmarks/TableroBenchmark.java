@@ -0,0 +1,98 @@
+/*
+Copyright 2025 Pablo Lozano Hernández
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+either express or implied. See the License for the specific
+language governing permissions and limitations under the
+License.
+*/
+
+package com.aplicacion.benchmarks;
+
+import com.aplicacion.dominio.MatrizBits;
+import com.aplicacion.dominio.ReglaVida;
+import com.aplicacion.dominio.Tablero;
+import com.aplicacion.dominio.Topologia;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendimiento de una transición de generación del tablero según su tamaño y la densidad inicial de células
+ * vivas, con el núcleo por defecto (regla vacía) o con la tabla compilada de una regla. Cada invocación parte
+ * de una copia del tablero inicial y avanza un lote fijo de {@link #LOTE} generaciones, de modo que todas
+ * miden la misma evolución de la sopa inicial, antes de que se estabilice. El tiempo se informa por generación.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TableroBenchmark {
+
+    /**
+     * Generaciones que se avanzan en cada invocación; bastan para que la preparación del tablero sea
+     * despreciable frente a la medida y son pocas para que la sopa aleatoria se estabilice.
+     */
+    static final int LOTE = 64;
+
+    @Param({"30", "256", "2048"})
+    public int lado;
+
+    @Param({"0.1", "0.5"})
+    public double densidad;
+
+    @Param({"", "B3/S23"})
+    public String regla;
+
+    private Tablero tablero;
+    private MatrizBits inicial;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Random random = new Random(42L);
+        inicial = new MatrizBits(lado, lado);
+        for (int i = 0; i < lado; i++) {
+            for (int j = 0; j < lado; j++) {
+                inicial.set(i, j, random.nextDouble() < densidad);
+            }
+        }
+        tablero = new Tablero(lado, lado);
+        if (!regla.isEmpty()) {
+            tablero.configurarRegla(ReglaVida.analizar(regla), Topologia.FIJA);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void reiniciar() {
+        tablero.cargarEstado(inicial);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOTE)
+    public Tablero transitarAlEstadoSiguiente() {
+        for (int generacion = 0; generacion < LOTE; generacion++) {
+            tablero.transitarAlEstadoSiguiente();
+        }
+        return tablero;
+    }
+}
@@ -0,0 +1,191 @@
+package com.aplicacion;
+
+import com.aplicacion.dominio.ReglaVida;
+import com.aplicacion.dominio.Topologia;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+/**
+ * Opciones de línea de órdenes de {@link Principal}, con la forma {@code --nombre=valor}.
+ * <p>
+ * Sin la opción {@code --modo} (o con {@code --modo=interactivo}) se muestra el menú de siempre; con
+ * {@code --modo=vida} o {@code --modo=pi} se ejecuta la simulación correspondiente sin pedir nada por teclado.
+ * </p>
+ */
+final class OpcionesEjecucion {
+
+    enum Modo { INTERACTIVO, VIDA, PI, ENSAYOS }
+
+    enum Motor { SECUENCIAL, PARALELO, TESELAS, HASHLIFE }
+
+    static final String USO = String.join(System.lineSeparator(),
+            "Uso: java --add-modules jdk.incubator.vector -cp target/classes com.aplicacion.Principal [opciones]",
+            "  --modo=interactivo|vida|pi|ensayos",
+            "                               Modo de ejecución (por defecto, interactivo). Con ensayos se",
+            "                               simulan muchos tableros aleatorios hasta que se estabilizan",
+            "  --origen=aleatorio|RUTA      Tablero aleatorio o leído de un fichero (.txt, .rle, .cells)",
+            "  --tamano=N                   Ancho y alto del tablero (por defecto 30)",
+            "  --ancho=N, --alto=N          Ancho y alto por separado",
+            "  --densidad=D                 Probabilidad de célula viva en el tablero aleatorio (0.5)",
+            "  --semilla=S                  Semilla del tablero aleatorio y de PI",
+            "  --generaciones=N             Generaciones que se simulan (100); en los ensayos, el máximo (10000)",
+            "  --ensayos=N                  Número de tableros aleatorios del modo ensayos (1000)",
+            "  --motor=secuencial|paralelo|teselas|hashlife",
+            "                               Motor de la simulación (secuencial). HashLife no tiene bordes,",
+            "                               así que solo coincide con el resto mientras el patrón no los toque",
+            "  --regla=B…/S…                Regla del autómata, p. ej. B36/S23 (B3/S23 con el núcleo por defecto)",
+            "  --topologia=fija|toroidal    Bordes muertos o tablero cerrado sobre sí mismo (fija)",
+            "  --hilos=N                    Hilos del motor paralelo y de PI (todos los procesadores)",
+            "  --ciclos=K                   Detecta ciclos de periodo hasta K y salta las generaciones",
+            "                               restantes en cuanto aparece uno (0, desactivado)",
+            "  --mostrar-cada=N             Muestra uno de cada N tableros; 0 muestra solo el final (0)",
+            "  --muestras=N                 Puntos para la aproximación de PI (10000000)",
+            "  --metricas                   Al terminar, muestra las métricas de tiempos y contadores",
+            "  --ayuda                      Muestra este mensaje");
+
+    Modo modo = Modo.INTERACTIVO;
+    Path origen;
+    int ancho = 30;
+    int alto = 30;
+    double densidad = 0.5;
+    Long semilla;
+    long generaciones = 100;
+    boolean generacionesIndicadas;
+    Motor motor = Motor.SECUENCIAL;
+    ReglaVida regla;
+    Topologia topologia = Topologia.FIJA;
+    int hilos = Runtime.getRuntime().availableProcessors();
+    long mostrarCada;
+    int periodoMaximo;
+    long muestras = 10_000_000L;
+    long ensayos = 1000;
+    boolean metricas;
+    boolean ayuda;
+
+    /**
+     * Analiza los argumentos del programa.
+     *
+     * @param args Argumentos de la línea de órdenes.
+     * @return Las opciones leídas; las que no aparecen conservan su valor por defecto.
+     * @throws IllegalArgumentException si alguna opción no existe o su valor no es válido.
+     */
+    static OpcionesEjecucion analizar(String[] args) {
+        OpcionesEjecucion opciones = new OpcionesEjecucion();
+        for (String arg : args) {
+            if (arg.equals("--ayuda") || arg.equals("-h") || arg.equals("--help")) {
+                opciones.ayuda = true;
+                continue;
+            }
+            if (arg.equals("--metricas")) {
+                opciones.metricas = true;
+                continue;
+            }
+            int igual = arg.indexOf('=');
+            if (!arg.startsWith("--") || igual < 0) {
+                throw new IllegalArgumentException("Opción no válida: " + arg);
+            }
+            String nombre = arg.substring(2, igual);
+            String valor = arg.substring(igual + 1);
+            switch (nombre) {
+                case "modo":
+                    opciones.modo = enumerado(Modo.class, nombre, valor);
+                    break;
+                case "origen":
+                    opciones.origen = valor.equalsIgnoreCase("aleatorio") ? null : Paths.get(valor);
+                    break;
+                case "tamano":
+                    opciones.ancho = (int) positivo(nombre, valor, Integer.MAX_VALUE);
+                    opciones.alto = opciones.ancho;
+                    break;
+                case "ancho":
+                    opciones.ancho = (int) positivo(nombre, valor, Integer.MAX_VALUE);
+                    break;
+                case "alto":
+                    opciones.alto = (int) positivo(nombre, valor, Integer.MAX_VALUE);
+                    break;
+                case "densidad":
+                    opciones.densidad = decimal(nombre, valor);
+                    break;
+                case "semilla":
+                    opciones.semilla = entero(nombre, valor);
+                    break;
+                case "generaciones":
+                    opciones.generaciones = noNegativo(nombre, valor);
+                    opciones.generacionesIndicadas = true;
+                    break;
+                case "motor":
+                    opciones.motor = enumerado(Motor.class, nombre, valor);
+                    break;
+                case "regla":
+                    opciones.regla = ReglaVida.analizar(valor);
+                    break;
+                case "topologia":
+                    opciones.topologia = enumerado(Topologia.class, nombre, valor);
+                    break;
+                case "hilos":
+                    opciones.hilos = (int) positivo(nombre, valor, Short.MAX_VALUE);
+                    break;
+                case "ciclos":
+                    opciones.periodoMaximo = valor.equals("0") ? 0 : (int) positivo(nombre, valor, 1 << 16);
+                    break;
+                case "mostrar-cada":
+                    opciones.mostrarCada = noNegativo(nombre, valor);
+                    break;
+                case "ensayos":
+                    opciones.ensayos = positivo(nombre, valor, Long.MAX_VALUE);
+                    break;
+                case "muestras":
+                    opciones.muestras = positivo(nombre, valor, Long.MAX_VALUE);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Opción desconocida: --" + nombre);
+            }
+        }
+        return opciones;
+    }
+
+    private static <E extends Enum<E>> E enumerado(Class<E> tipo, String nombre, String valor) {
+        try {
+            return Enum.valueOf(tipo, valor.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Valor no válido para --" + nombre + ": " + valor);
+        }
+    }
+
+    private static long entero(String nombre, String valor) {
+        try {
+            return Long.parseLong(valor.replace("_", ""));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--" + nombre + " debe ser un número entero: " + valor);
+        }
+    }
+
+    private static long noNegativo(String nombre, String valor) {
+        long numero = entero(nombre, valor);
+        if (numero < 0) {
+            throw new IllegalArgumentException("--" + nombre + " no puede ser negativo: " + valor);
+        }
+        return numero;
+    }
+
+    private static long positivo(String nombre, String valor, long maximo) {
+        long numero = entero(nombre, valor);
+        if (numero <= 0 || numero > maximo) {
+            throw new IllegalArgumentException("--" + nombre + " debe estar entre 1 y " + maximo + ": " + valor);
+        }
+        return numero;
+    }
+
+    private static double decimal(String nombre, String valor) {
+        try {
+            double numero = Double.parseDouble(valor);
+            if (numero >= 0 && numero <= 1) {
+                return numero;
+            }
+        } catch (NumberFormatException e) {
+            // Se informa abajo con el mismo mensaje
+        }
+        throw new IllegalArgumentException("--" + nombre + " debe ser un número entre 0 y 1: " + valor);
+    }
+}
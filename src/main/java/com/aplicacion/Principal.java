@@ -1,12 +1,251 @@
 package com.aplicacion;
 
+import com.aplicacion.dominio.ExperimentoVida;
+import com.aplicacion.dominio.HashLife;
+import com.aplicacion.dominio.LectorTablero;
+import com.aplicacion.dominio.ReglaVida;
+import com.aplicacion.dominio.RenderizadorAsincrono;
 import com.aplicacion.dominio.Tablero;
+import com.aplicacion.dominio.Topologia;
 import com.aplicacion.mates.Matematicas;
+import com.aplicacion.metricas.Metricas;
+import com.aplicacion.metricas.RegistroEnMemoria;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.Locale;
 import java.util.Scanner;
 import java.util.concurrent.TimeUnit;
 
 public class Principal {
     public static void main(String[] args) {
+        OpcionesEjecucion opciones;
+        try {
+            opciones = OpcionesEjecucion.analizar(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(OpcionesEjecucion.USO);
+            System.exit(2);
+            return;
+        }
+        if (opciones.ayuda) {
+            System.out.println(OpcionesEjecucion.USO);
+            return;
+        }
+        RegistroEnMemoria registro = null;
+        if (opciones.metricas) {
+            registro = new RegistroEnMemoria();
+            Metricas.configurar(registro);
+        }
+        switch (opciones.modo) {
+            case VIDA:
+                try {
+                    ejecutarVida(opciones);
+                } catch (IOException | IllegalArgumentException e) {
+                    System.err.println("No se puede preparar el tablero: " + e);
+                    System.exit(1);
+                }
+                break;
+            case PI:
+                ejecutarPi(opciones);
+                break;
+            case ENSAYOS:
+                ejecutarEnsayos(opciones);
+                break;
+            default:
+                menuInteractivo(opciones);
+        }
+        if (registro != null) {
+            System.out.println("Métricas:");
+            System.out.print(registro);
+        }
+    }
+
+    /**
+     * Simulación sin interfaz: las generaciones se calculan seguidas, sin pausas, y solo se muestra uno de
+     * cada N tableros (o solo el final). Los tableros se escriben desde otro hilo con un
+     * {@link RenderizadorAsincrono}, así que la simulación no espera a la consola; si esta no da abasto, se
+     * omiten tableros intermedios. Al terminar se muestran las generaciones y células por segundo, contando
+     * solo el tiempo de cálculo y solo las generaciones simuladas una a una: las que se saltan al conocer el
+     * ciclo se indican aparte, y con HashLife, que siempre avanza a saltos, el ritmo se indica como efectivo.
+     */
+    private static void ejecutarVida(OpcionesEjecucion opciones) throws IOException {
+        Tablero tablero;
+        if (opciones.origen != null) {
+            tablero = LectorTablero.leerTablero(opciones.origen);
+        } else {
+            long semilla = opciones.semilla != null ? opciones.semilla : System.nanoTime();
+            tablero = new Tablero(opciones.ancho, opciones.alto);
+            tablero.generarEstadoActualPorMontecarlo(semilla, opciones.densidad);
+            System.out.println("Tablero aleatorio de " + opciones.ancho + "x" + opciones.alto + " con semilla "
+                    + semilla);
+        }
+        HashLife hashLife = null;
+        switch (opciones.motor) {
+            case PARALELO:
+                tablero.configurarParalelismo(opciones.hilos);
+                break;
+            case TESELAS:
+                tablero.configurarSeguimientoDeActividad(true);
+                break;
+            case HASHLIFE:
+                hashLife = new HashLife();
+                hashLife.importar(tablero);
+                break;
+            default:
+        }
+        // La regla y la topología de las opciones sustituyen a las que pueda traer el fichero
+        if (opciones.regla != null || opciones.topologia != Topologia.FIJA) {
+            tablero.configurarRegla(opciones.regla != null ? opciones.regla : ReglaVida.CONWAY, opciones.topologia);
+        }
+        if (hashLife != null && (!tablero.getRegla().equals(ReglaVida.CONWAY)
+                || tablero.getTopologia() != Topologia.FIJA)) {
+            throw new IllegalArgumentException("HashLife solo admite B3/S23 con bordes fijos");
+        }
+
+        // Los tableros se escriben desde otro hilo directamente en la salida estándar; el canal no se cierra
+        System.out.flush();
+        FileChannel salida = new FileOutputStream(FileDescriptor.out).getChannel();
+        Simulacion simulacion;
+        try (RenderizadorAsincrono renderizador = new RenderizadorAsincrono(salida, 4)) {
+            simulacion = simularVida(opciones, tablero, hashLife, renderizador);
+        }
+        // El aviso se escribe cuando el renderizador ya ha terminado, para no mezclarlo con los tableros
+        if (tablero.hayCiclo()) {
+            System.out.println("Ciclo de periodo " + tablero.getPeriodoCiclo() + " desde la generación "
+                    + tablero.getInicioCiclo() + "; el resto de generaciones no se simula");
+        }
+        // Libera los hilos del motor paralelo
+        tablero.configurarParalelismo(1);
+
+        long saltadas = opciones.generaciones - simulacion.simuladas;
+        long medidas = hashLife != null ? opciones.generaciones : simulacion.simuladas;
+        String ritmo = hashLife != null ? "efectivas" : "simuladas";
+        double segundos = simulacion.nanos / 1e9;
+        double celulas = (double) medidas * tablero.getAncho() * tablero.getAlto();
+        System.out.println(String.format(Locale.ROOT,
+                "%d generaciones de %dx%d con el motor %s en %.3f s%s: %.1f generaciones %s/s, %.3e células/s, "
+                        + "%d células vivas al final",
+                opciones.generaciones, tablero.getAncho(), tablero.getAlto(),
+                opciones.motor.name().toLowerCase(Locale.ROOT), segundos,
+                hashLife == null && saltadas > 0 ? " (" + saltadas + " saltadas al detectar el ciclo)" : "",
+                segundos > 0 ? medidas / segundos : 0, ritmo, segundos > 0 ? celulas / segundos : 0,
+                tablero.contarVivas()));
+    }
+
+    /**
+     * Tiempo de cálculo de una simulación y número de generaciones calculadas una a una.
+     */
+    private static final class Simulacion {
+        final long nanos;
+        final long simuladas;
+
+        Simulacion(long nanos, long simuladas) {
+            this.nanos = nanos;
+            this.simuladas = simuladas;
+        }
+    }
+
+    /**
+     * Simula todas las generaciones y publica los tableros que hay que mostrar, sin escribir nada en la consola.
+     *
+     * @return El tiempo de cálculo y las generaciones calculadas una a una, sin contar los saltos.
+     */
+    private static Simulacion simularVida(OpcionesEjecucion opciones, Tablero tablero, HashLife hashLife,
+                                     RenderizadorAsincrono renderizador) {
+        long mostrarCada = opciones.mostrarCada;
+        if (mostrarCada > 0) {
+            renderizador.publicar(tablero, 0);
+        }
+        long nanos = 0;
+        long generacion = 0;
+        long simuladas = 0;
+        if (hashLife == null && opciones.periodoMaximo > 0) {
+            tablero.configurarDeteccionDeCiclos(opciones.periodoMaximo);
+        }
+        while (generacion < opciones.generaciones) {
+            // Con HashLife, o cuando ya se conoce el ciclo, se salta de golpe hasta el próximo tablero que hay
+            // que mostrar
+            boolean salto = hashLife != null || tablero.hayCiclo();
+            long paso = !salto ? 1 : Math.min(opciones.generaciones - generacion,
+                    mostrarCada > 0 ? mostrarCada - generacion % mostrarCada : Long.MAX_VALUE);
+            long inicio = System.nanoTime();
+            if (hashLife != null) {
+                hashLife.avanzar(paso);
+            } else if (salto) {
+                tablero.avanzarGeneraciones(paso);
+            } else {
+                tablero.transitarAlEstadoSiguiente();
+                simuladas++;
+            }
+            nanos += System.nanoTime() - inicio;
+            generacion += paso;
+            if (mostrarCada > 0 && generacion % mostrarCada == 0 && generacion < opciones.generaciones) {
+                if (hashLife != null) {
+                    hashLife.exportar(tablero);
+                }
+                renderizador.publicar(tablero, generacion);
+            }
+        }
+        if (hashLife != null) {
+            hashLife.exportar(tablero);
+        }
+        renderizador.publicarFinal(tablero, generacion);
+        return new Simulacion(nanos, simuladas);
+    }
+
+    /**
+     * Ensayos con tableros aleatorios del tamaño y la densidad de las opciones, repartidos entre los hilos de
+     * las opciones. Cada ensayo termina al detectar un ciclo de periodo hasta --ciclos (16 si no se indica) o
+     * al llegar a --generaciones (el máximo por defecto del experimento si no se indica); el resumen se muestra
+     * cada décima parte de los ensayos.
+     */
+    private static void ejecutarEnsayos(OpcionesEjecucion opciones) {
+        ExperimentoVida experimento = new ExperimentoVida(opciones.ancho, opciones.alto, opciones.ensayos);
+        long semilla = opciones.semilla != null ? opciones.semilla : System.nanoTime();
+        experimento.configurarSemilla(semilla);
+        experimento.configurarDensidad(opciones.densidad);
+        experimento.configurarHilos(opciones.hilos);
+        if (opciones.generacionesIndicadas) {
+            experimento.configurarGeneracionesMaximas(opciones.generaciones);
+        }
+        if (opciones.periodoMaximo > 0) {
+            experimento.configurarPeriodoMaximo(opciones.periodoMaximo);
+        }
+        experimento.configurarRegla(opciones.regla, opciones.topologia);
+        System.out.println(opciones.ensayos + " ensayos de " + opciones.ancho + "x" + opciones.alto
+                + " con densidad " + opciones.densidad + " y semilla " + semilla);
+        long cada = Math.max(1, opciones.ensayos / 10);
+        ExperimentoVida.Resumen resumen = experimento.ejecutar((ensayo, parcial) -> {
+            if (parcial.getEnsayos() % cada == 0 && parcial.getEnsayos() < opciones.ensayos) {
+                System.out.println(parcial);
+            }
+        });
+        System.out.println(resumen);
+    }
+
+    /**
+     * Aproximación de PI sin interfaz, con el número de puntos, la semilla y los hilos de las opciones.
+     */
+    private static void ejecutarPi(OpcionesEjecucion opciones) {
+        long inicio = System.nanoTime();
+        double pi = aproximarPi(opciones);
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        System.out.println("El número PI es " + pi);
+        System.out.println(String.format(Locale.ROOT, "%d puntos en %.3f s: %.3e puntos/s", opciones.muestras,
+                segundos, segundos > 0 ? opciones.muestras / segundos : 0));
+    }
+
+    private static double aproximarPi(OpcionesEjecucion opciones) {
+        if (opciones.semilla == null && opciones.hilos == 1) {
+            return Matematicas.generarNumeroPi(opciones.muestras);
+        }
+        long semilla = opciones.semilla != null ? opciones.semilla : System.nanoTime();
+        return Matematicas.generarNumeroPiParalelo(opciones.muestras, semilla, opciones.hilos);
+    }
+
+    private static void menuInteractivo(OpcionesEjecucion opciones) {
         Scanner sc = new Scanner(System.in);
         int opcion = -1;
 
@@ -35,7 +274,7 @@ public class Principal {
 
             switch (opcion) {
                 case 1:
-                    System.out.println("El número PI es " + Matematicas.generarNumeroPi(Integer.parseInt(args[0])));
+                    System.out.println("El número PI es " + aproximarPi(opciones));
                     break;
                 case 2:
                     try {
@@ -0,0 +1,228 @@
+/*
+Copyright 2025 Pablo Lozano Hernández
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+either express or implied. See the License for the specific
+language governing permissions and limitations under the
+License.
+*/
+
+package com.aplicacion.dominio;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Detección de vidas estáticas y osciladores mediante un hash incremental del tablero.
+ * <p>
+ * Cada célula tiene una clave de 64 bits derivada de su posición con la función de mezcla de SplitMix64, y
+ * el hash del tablero es el XOR de las claves de sus células vivas (hash de Zobrist). Al pasar de una
+ * generación a la siguiente solo cambian las claves de las células que cambian de estado, que se localizan
+ * con el XOR palabra a palabra de los dos estados; con seguimiento de actividad, solo en las teselas que han
+ * cambiado.
+ * </p>
+ * <p>
+ * Se guardan los hashes de las últimas {@code periodoMaximo} generaciones. Cuando el hash actual coincide
+ * con uno de ellos, se simula un periodo completo para confirmar que la coincidencia no es una colisión del
+ * hash. Del ciclo solo se guarda su primera fase y la última que se ha pedido, así que la memoria no depende
+ * del periodo: el estado de cualquier generación posterior se obtiene avanzando desde una de ellas menos de
+ * un periodo.
+ * </p>
+ */
+final class DetectorCiclos {
+
+    private final int ancho;
+    private final int palabrasPorFila;
+    private final long[] historia;
+    private final long[] generaciones;
+    private final BiConsumer<MatrizBits, MatrizBits> paso;
+    private int entradas;
+    private int siguiente;
+    private long hash;
+
+    private long inicioCiclo = -1;
+    private int periodo;
+    private MatrizBits primeraFase;
+    // Última fase pedida, su posición en el ciclo y una matriz auxiliar para avanzarla
+    private MatrizBits fase;
+    private int posicionFase;
+    private MatrizBits auxiliar;
+
+    /**
+     * @param paso Calcula en su segundo argumento la generación siguiente al primero, con la regla del tablero.
+     */
+    DetectorCiclos(int ancho, int periodoMaximo, BiConsumer<MatrizBits, MatrizBits> paso) {
+        this.ancho = ancho;
+        this.paso = paso;
+        this.palabrasPorFila = (ancho + 63) >>> 6;
+        this.historia = new long[periodoMaximo];
+        this.generaciones = new long[periodoMaximo];
+    }
+
+    /**
+     * Olvida la historia y el ciclo, y toma 'estado' como el estado de la generación indicada.
+     */
+    void reiniciar(MatrizBits estado, long generacion) {
+        entradas = 0;
+        siguiente = 0;
+        inicioCiclo = -1;
+        periodo = 0;
+        primeraFase = null;
+        fase = null;
+        auxiliar = null;
+        hash = calcularHash(estado);
+        anotar(generacion);
+    }
+
+    /**
+     * Registra el paso de 'antes' a 'despues', que es el estado de la generación indicada, y comprueba si
+     * repite alguno de los estados anteriores.
+     *
+     * @param actividad Seguimiento que calculó 'despues' a partir de 'antes', cuyas teselas cambiadas son las
+     *                  únicas en las que se buscan cambios, o {@code null} para comparar los estados enteros.
+     * @return {@code true} si se acaba de detectar un ciclo.
+     */
+    boolean registrar(MatrizBits antes, MatrizBits despues, long generacion, SeguimientoActividad actividad) {
+        long[] a = antes.palabras;
+        long[] d = despues.palabras;
+        if (actividad == null) {
+            for (int i = 0; i < a.length; i++) {
+                actualizarHash(i, a[i] ^ d[i]);
+            }
+        } else {
+            int[] teselas = actividad.getTeselasCambiadas();
+            int alto = antes.getAlto();
+            for (int k = 0; k < actividad.getCambiadasUltimoPaso(); k++) {
+                int filaDesde = (teselas[k] / palabrasPorFila) * SeguimientoActividad.FILAS_POR_TESELA;
+                int filaHasta = Math.min(alto, filaDesde + SeguimientoActividad.FILAS_POR_TESELA);
+                for (int i = filaDesde * palabrasPorFila + teselas[k] % palabrasPorFila;
+                     i < filaHasta * palabrasPorFila; i += palabrasPorFila) {
+                    actualizarHash(i, a[i] ^ d[i]);
+                }
+            }
+        }
+        if (inicioCiclo >= 0) {
+            return false;
+        }
+        // Se busca desde la generación más reciente para quedarse con el periodo más corto.
+        for (int k = 1; k <= entradas; k++) {
+            int j = Math.floorMod(siguiente - k, historia.length);
+            if (historia[j] == hash && guardarFases(despues, (int) (generacion - generaciones[j]))) {
+                inicioCiclo = generaciones[j];
+                return true;
+            }
+        }
+        anotar(generacion);
+        return false;
+    }
+
+    /**
+     * Cambia en el hash las claves de las células de la palabra 'i' cuyos bits están en 'cambios'.
+     */
+    private void actualizarHash(int i, long cambios) {
+        if (cambios == 0) {
+            return;
+        }
+        long base = (long) (i / palabrasPorFila) * ancho + ((i % palabrasPorFila) << 6);
+        do {
+            hash ^= clave(base + Long.numberOfTrailingZeros(cambios));
+            cambios &= cambios - 1;
+        } while (cambios != 0);
+    }
+
+    private void anotar(long generacion) {
+        if (historia.length == 0) {
+            return;
+        }
+        historia[siguiente] = hash;
+        generaciones[siguiente] = generacion;
+        siguiente = (siguiente + 1) % historia.length;
+        entradas = Math.min(entradas + 1, historia.length);
+    }
+
+    /**
+     * Simula un periodo a partir de 'estado' y comprueba que al final se vuelve a él; si es así, lo guarda
+     * como primera fase del ciclo.
+     */
+    private boolean guardarFases(MatrizBits estado, int candidato) {
+        MatrizBits actual = new MatrizBits(estado);
+        MatrizBits siguienteEstado = new MatrizBits(estado.getAncho(), estado.getAlto());
+        for (int i = 0; i < candidato; i++) {
+            paso.accept(actual, siguienteEstado);
+            MatrizBits tmp = actual;
+            actual = siguienteEstado;
+            siguienteEstado = tmp;
+        }
+        if (!actual.equals(estado)) {
+            return false;
+        }
+        primeraFase = actual;
+        fase = new MatrizBits(actual);
+        posicionFase = 0;
+        auxiliar = siguienteEstado;
+        periodo = candidato;
+        return true;
+    }
+
+    /**
+     * Copia en 'destino' el estado de una generación del ciclo, que debe ser posterior a su inicio. Se avanza
+     * desde la última fase pedida, o desde la primera si la pedida está antes en el ciclo.
+     */
+    void copiarFase(long generacion, MatrizBits destino) {
+        int posicion = (int) ((generacion - inicioCiclo) % periodo);
+        if (posicion < posicionFase) {
+            primeraFase.copiarEn(fase);
+            posicionFase = 0;
+        }
+        for (; posicionFase < posicion; posicionFase++) {
+            paso.accept(fase, auxiliar);
+            MatrizBits tmp = fase;
+            fase = auxiliar;
+            auxiliar = tmp;
+        }
+        fase.copiarEn(destino);
+        hash = calcularHash(destino);
+    }
+
+    boolean hayCiclo() {
+        return inicioCiclo >= 0;
+    }
+
+    long getInicioCiclo() {
+        return inicioCiclo;
+    }
+
+    int getPeriodo() {
+        return periodo;
+    }
+
+    long getHash() {
+        return hash;
+    }
+
+    private long calcularHash(MatrizBits estado) {
+        long h = 0;
+        long[] palabras = estado.palabras;
+        for (int i = 0; i < palabras.length; i++) {
+            long base = (long) (i / palabrasPorFila) * ancho + ((i % palabrasPorFila) << 6);
+            for (long vivas = palabras[i]; vivas != 0; vivas &= vivas - 1) {
+                h ^= clave(base + Long.numberOfTrailingZeros(vivas));
+            }
+        }
+        return h;
+    }
+
+    /**
+     * Clave de Zobrist de la célula con índice 'fila * ancho + columna': función de mezcla de SplitMix64.
+     */
+    private static long clave(long celula) {
+        long z = (celula + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,207 @@
+/*
+Copyright 2025 Pablo Lozano Hernández
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+either express or implied. See the License for the specific
+language governing permissions and limitations under the
+License.
+*/
+
+package com.aplicacion.dominio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Guarda tableros en fichero en cualquiera de los formatos de {@link FormatoTablero}.
+ * <p>
+ * La escritura es en flujo: las filas se codifican directamente en un único buffer reutilizado que se vuelca
+ * al canal del fichero cada vez que se llena, por lo que sirve para guardar puntos de control de simulaciones
+ * largas sin crear cadenas intermedias.
+ * </p>
+ */
+public final class EscritorTablero {
+
+    private static final int TAMANO_BUFFER = 1 << 20;
+    private static final int ANCHO_LINEA_RLE = 70;
+
+    private EscritorTablero() {
+    }
+
+    /**
+     * Guarda la matriz deduciendo el formato a partir de la extensión del fichero.
+     *
+     * @param matriz Matriz que se guarda.
+     * @param ruta   Ruta del fichero; se sobrescribe si existe.
+     * @throws IOException si no se puede escribir el fichero.
+     */
+    public static void escribir(MatrizBits matriz, Path ruta) throws IOException {
+        escribir(matriz, ruta, FormatoTablero.desdeExtension(ruta));
+    }
+
+    /**
+     * Guarda la matriz en el formato indicado, como un tablero de B3/S23 con bordes fijos.
+     *
+     * @param matriz  Matriz que se guarda.
+     * @param ruta    Ruta del fichero; se sobrescribe si existe.
+     * @param formato Formato del fichero.
+     * @throws IOException si no se puede escribir el fichero.
+     */
+    public static void escribir(MatrizBits matriz, Path ruta, FormatoTablero formato) throws IOException {
+        escribir(matriz, ruta, formato, ReglaVida.CONWAY, Topologia.FIJA);
+    }
+
+    /**
+     * Guarda la matriz en el formato indicado. En RLE, la regla y la topología se anotan en la cabecera con la
+     * notación de Golly ({@code rule = B36/S23:T70,5} para un toro de 70x5); los demás formatos solo guardan
+     * las células.
+     *
+     * @param matriz    Matriz que se guarda.
+     * @param ruta      Ruta del fichero; se sobrescribe si existe.
+     * @param formato   Formato del fichero.
+     * @param regla     Regla del tablero.
+     * @param topologia Topología del tablero.
+     * @throws IOException si no se puede escribir el fichero.
+     */
+    public static void escribir(MatrizBits matriz, Path ruta, FormatoTablero formato, ReglaVida regla,
+                                Topologia topologia) throws IOException {
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            Salida salida = new Salida(canal);
+            switch (formato) {
+                case RLE:
+                    escribirRle(matriz, salida, regla, topologia);
+                    break;
+                case TEXTO_PLANO:
+                    escribirPorCaracteres(matriz, salida, (byte) 'O', (byte) '.');
+                    break;
+                default:
+                    escribirPorCaracteres(matriz, salida, (byte) '1', (byte) '0');
+            }
+            salida.vaciar();
+        }
+    }
+
+    private static void escribirPorCaracteres(MatrizBits matriz, Salida salida, byte viva, byte muerta)
+            throws IOException {
+        for (int fila = 0; fila < matriz.getAlto(); fila++) {
+            for (int w = 0; w < matriz.getPalabrasPorFila(); w++) {
+                long palabra = matriz.getPalabra(fila, w);
+                int columnas = Math.min(64, matriz.getAncho() - (w << 6));
+                for (int bit = 0; bit < columnas; bit++) {
+                    salida.poner((palabra & (1L << bit)) != 0 ? viva : muerta);
+                }
+            }
+            salida.poner((byte) '\n');
+        }
+    }
+
+    private static void escribirRle(MatrizBits matriz, Salida salida, ReglaVida regla, Topologia topologia)
+            throws IOException {
+        salida.poner("x = ");
+        salida.ponerNumero(matriz.getAncho());
+        salida.poner(", y = ");
+        salida.ponerNumero(matriz.getAlto());
+        salida.poner(", rule = " + regla);
+        if (topologia == Topologia.TOROIDAL) {
+            salida.poner(":T");
+            salida.ponerNumero(matriz.getAncho());
+            salida.poner(",");
+            salida.ponerNumero(matriz.getAlto());
+        }
+        salida.poner("\n");
+
+        int finesDeFila = 0;
+        for (int fila = 0; fila < matriz.getAlto(); fila++) {
+            int columna = 0;
+            while (true) {
+                int viva = matriz.siguienteViva(fila, columna);
+                if (viva >= matriz.getAncho()) {
+                    break;
+                }
+                if (finesDeFila > 0) {
+                    salida.ponerRecorrido(finesDeFila, (byte) '$');
+                    finesDeFila = 0;
+                }
+                if (viva > columna) {
+                    salida.ponerRecorrido(viva - columna, (byte) 'b');
+                }
+                int muerta = matriz.siguienteMuerta(fila, viva);
+                salida.ponerRecorrido(muerta - viva, (byte) 'o');
+                columna = muerta;
+            }
+            finesDeFila++;
+        }
+        salida.poner("!\n");
+    }
+
+    /**
+     * Buffer de salida reutilizado que se vuelca al canal cuando se llena.
+     */
+    private static final class Salida {
+        private final FileChannel canal;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANO_BUFFER);
+        private final byte[] digitos = new byte[10];
+        private int longitudLinea;
+
+        Salida(FileChannel canal) {
+            this.canal = canal;
+        }
+
+        void poner(byte b) throws IOException {
+            if (!buffer.hasRemaining()) {
+                vaciar();
+            }
+            buffer.put(b);
+        }
+
+        void poner(String texto) throws IOException {
+            for (int i = 0; i < texto.length(); i++) {
+                poner((byte) texto.charAt(i));
+            }
+        }
+
+        void ponerNumero(int numero) throws IOException {
+            int n = 0;
+            do {
+                digitos[n++] = (byte) ('0' + numero % 10);
+                numero /= 10;
+            } while (numero > 0);
+            while (n > 0) {
+                poner(digitos[--n]);
+            }
+        }
+
+        /**
+         * Escribe un elemento RLE ("[n]c"), partiendo la línea si supera el ancho máximo.
+         */
+        void ponerRecorrido(int n, byte simbolo) throws IOException {
+            int longitud = 1 + (n > 1 ? (int) Math.log10(n) + 1 : 0);
+            if (longitudLinea + longitud > ANCHO_LINEA_RLE) {
+                poner((byte) '\n');
+                longitudLinea = 0;
+            }
+            if (n > 1) {
+                ponerNumero(n);
+            }
+            poner(simbolo);
+            longitudLinea += longitud;
+        }
+
+        void vaciar() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,502 @@
+/*
+Copyright 2025 Pablo Lozano Hernández
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+either express or implied. See the License for the specific
+language governing permissions and limitations under the
+License.
+*/
+package com.aplicacion.dominio;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Conjunto de ensayos independientes del juego de la vida a partir de tableros aleatorios, para estudiar
+ * cómo influyen la densidad inicial, el tamaño y la semilla en la población final y en el tiempo que tarda
+ * el tablero en estabilizarse.
+ * <p>
+ * Cada ensayo genera un tablero por Montecarlo con la densidad configurada y una semilla propia, derivada de
+ * la semilla del experimento y del número de ensayo ({@link #semillaEnsayo(long, long)}), de modo que
+ * cualquier ensayo se puede repetir por separado. El tablero avanza hasta que la detección de ciclos
+ * encuentra una vida estática o un oscilador, o hasta agotar las generaciones máximas.
+ * </p>
+ * <p>
+ * Los ensayos se reparten entre un número fijo de hilos; cada hilo reutiliza el mismo {@link Tablero} para
+ * todos sus ensayos y va tomando el siguiente número de ensayo libre. Los resultados no se guardan: cada
+ * ensayo que termina se acumula en las medias y varianzas del {@link Resumen} (con el algoritmo de Welford)
+ * y se entrega, junto con el resumen hasta ese momento, a quien lanzó el experimento.
+ * </p>
+ */
+public class ExperimentoVida {
+
+    // Ensayos terminados que cada hilo puede dejar en la cola antes de esperar a que se entreguen
+    private static final int ENSAYOS_EN_COLA_POR_HILO = 4;
+
+    private final int ancho;
+    private final int alto;
+    private final long ensayos;
+    private double densidad = 0.5;
+    private long semilla;
+    private int hilos = Runtime.getRuntime().availableProcessors();
+    private long generacionesMaximas = 10_000;
+    private int periodoMaximo = 16;
+    private ReglaVida regla;
+    private Topologia topologia = Topologia.FIJA;
+
+    /**
+     * Resultado de un ensayo.
+     */
+    public static final class Ensayo {
+        private final long indice;
+        private final long semilla;
+        private final long poblacionInicial;
+        private final long poblacionFinal;
+        private final long generaciones;
+        private final long inicioCiclo;
+        private final int periodo;
+
+        Ensayo(long indice, long semilla, long poblacionInicial, long poblacionFinal, long generaciones,
+               long inicioCiclo, int periodo) {
+            this.indice = indice;
+            this.semilla = semilla;
+            this.poblacionInicial = poblacionInicial;
+            this.poblacionFinal = poblacionFinal;
+            this.generaciones = generaciones;
+            this.inicioCiclo = inicioCiclo;
+            this.periodo = periodo;
+        }
+
+        public long getIndice() {
+            return indice;
+        }
+
+        public long getSemilla() {
+            return semilla;
+        }
+
+        public long getPoblacionInicial() {
+            return poblacionInicial;
+        }
+
+        /**
+         * Devuelve las células vivas al terminar el ensayo: al detectar el ciclo o al agotar las generaciones.
+         */
+        public long getPoblacionFinal() {
+            return poblacionFinal;
+        }
+
+        /**
+         * Devuelve las generaciones simuladas.
+         */
+        public long getGeneraciones() {
+            return generaciones;
+        }
+
+        /**
+         * Indica si el tablero se estabilizó en una vida estática o en un oscilador.
+         */
+        public boolean isEstabilizado() {
+            return inicioCiclo >= 0;
+        }
+
+        /**
+         * Devuelve la primera generación del ciclo en que se estabilizó el tablero, o -1 si no se estabilizó.
+         */
+        public long getInicioCiclo() {
+            return inicioCiclo;
+        }
+
+        /**
+         * Devuelve el periodo del ciclo, o 0 si el tablero no se estabilizó.
+         */
+        public int getPeriodo() {
+            return periodo;
+        }
+    }
+
+    /**
+     * Número de observaciones, media, varianza, mínimo y máximo de una magnitud, calculados de forma
+     * incremental con el algoritmo de Welford, que no necesita guardar las observaciones.
+     */
+    public static final class Estadistica {
+        private long n;
+        private double media;
+        private double m2;
+        private double minimo = Double.NaN;
+        private double maximo = Double.NaN;
+
+        Estadistica() {
+        }
+
+        Estadistica(Estadistica otra) {
+            n = otra.n;
+            media = otra.media;
+            m2 = otra.m2;
+            minimo = otra.minimo;
+            maximo = otra.maximo;
+        }
+
+        void anadir(double x) {
+            n++;
+            double delta = x - media;
+            media += delta / n;
+            m2 += delta * (x - media);
+            minimo = n == 1 ? x : Math.min(minimo, x);
+            maximo = n == 1 ? x : Math.max(maximo, x);
+        }
+
+        public long getObservaciones() {
+            return n;
+        }
+
+        /**
+         * Devuelve la media, o NaN si no hay observaciones.
+         */
+        public double getMedia() {
+            return n == 0 ? Double.NaN : media;
+        }
+
+        /**
+         * Devuelve la varianza muestral (con n - 1 en el denominador), o NaN con menos de dos observaciones.
+         */
+        public double getVarianza() {
+            return n < 2 ? Double.NaN : m2 / (n - 1);
+        }
+
+        public double getDesviacion() {
+            return Math.sqrt(getVarianza());
+        }
+
+        /**
+         * Devuelve el error típico de la media, o NaN con menos de dos observaciones.
+         */
+        public double getErrorMedia() {
+            return getDesviacion() / Math.sqrt(n);
+        }
+
+        public double getMinimo() {
+            return minimo;
+        }
+
+        public double getMaximo() {
+            return maximo;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%.2f ± %.2f (min %.0f, max %.0f)", getMedia(), getDesviacion(),
+                    minimo, maximo);
+        }
+    }
+
+    /**
+     * Resumen de los ensayos terminados hasta un momento dado.
+     */
+    public static final class Resumen {
+        private final long ensayos;
+        private final long estabilizados;
+        private final Estadistica poblacionFinal;
+        private final Estadistica tiempoEstabilizacion;
+        private final Estadistica periodo;
+        private final long nanos;
+
+        Resumen(long ensayos, long estabilizados, Estadistica poblacionFinal, Estadistica tiempoEstabilizacion,
+                Estadistica periodo, long nanos) {
+            this.ensayos = ensayos;
+            this.estabilizados = estabilizados;
+            this.poblacionFinal = poblacionFinal;
+            this.tiempoEstabilizacion = tiempoEstabilizacion;
+            this.periodo = periodo;
+            this.nanos = nanos;
+        }
+
+        /**
+         * Devuelve el número de ensayos terminados.
+         */
+        public long getEnsayos() {
+            return ensayos;
+        }
+
+        /**
+         * Devuelve el número de ensayos que se estabilizaron antes de agotar las generaciones.
+         */
+        public long getEstabilizados() {
+            return estabilizados;
+        }
+
+        /**
+         * Devuelve la estadística de la población final de todos los ensayos.
+         */
+        public Estadistica getPoblacionFinal() {
+            return poblacionFinal;
+        }
+
+        /**
+         * Devuelve la estadística de la generación en que empieza el ciclo, solo de los ensayos estabilizados.
+         */
+        public Estadistica getTiempoEstabilizacion() {
+            return tiempoEstabilizacion;
+        }
+
+        /**
+         * Devuelve la estadística del periodo del ciclo, solo de los ensayos estabilizados.
+         */
+        public Estadistica getPeriodo() {
+            return periodo;
+        }
+
+        /**
+         * Devuelve el tiempo transcurrido desde el inicio del experimento, en nanosegundos.
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "%d ensayos (%d estabilizados) en %.3f s; población final %s; generaciones hasta el ciclo %s",
+                    ensayos, estabilizados, nanos / 1e9, poblacionFinal, tiempoEstabilizacion);
+        }
+    }
+
+    /**
+     * Acumula los ensayos que van terminando. Los hilos lo actualizan de uno en uno.
+     */
+    private static final class Acumulador {
+        private final long inicio = System.nanoTime();
+        private long ensayos;
+        private long estabilizados;
+        private final Estadistica poblacionFinal = new Estadistica();
+        private final Estadistica tiempoEstabilizacion = new Estadistica();
+        private final Estadistica periodo = new Estadistica();
+
+        void anadir(Ensayo ensayo) {
+            ensayos++;
+            poblacionFinal.anadir(ensayo.poblacionFinal);
+            if (ensayo.isEstabilizado()) {
+                estabilizados++;
+                tiempoEstabilizacion.anadir(ensayo.inicioCiclo);
+                periodo.anadir(ensayo.periodo);
+            }
+        }
+
+        Resumen resumen() {
+            return new Resumen(ensayos, estabilizados, new Estadistica(poblacionFinal),
+                    new Estadistica(tiempoEstabilizacion), new Estadistica(periodo), System.nanoTime() - inicio);
+        }
+    }
+
+    /**
+     * Crea un experimento con tableros de las dimensiones indicadas.
+     *
+     * @param ancho   Número de columnas de cada tablero.
+     * @param alto    Número de filas de cada tablero.
+     * @param ensayos Número de ensayos.
+     */
+    public ExperimentoVida(int ancho, int alto, long ensayos) {
+        if (ancho <= 0 || alto <= 0) {
+            throw new IllegalArgumentException("Las dimensiones deben ser positivas: " + ancho + "x" + alto);
+        }
+        if (ensayos < 0) {
+            throw new IllegalArgumentException("El número de ensayos no puede ser negativo: " + ensayos);
+        }
+        this.ancho = ancho;
+        this.alto = alto;
+        this.ensayos = ensayos;
+    }
+
+    /**
+     * Configura la probabilidad de que cada célula esté viva en el tablero inicial (0,5 por defecto).
+     */
+    public void configurarDensidad(double densidad) {
+        if (!(densidad >= 0 && densidad <= 1)) {
+            throw new IllegalArgumentException("La densidad debe estar en [0, 1]: " + densidad);
+        }
+        this.densidad = densidad;
+    }
+
+    /**
+     * Configura la semilla de la que se derivan las de cada ensayo (0 por defecto).
+     */
+    public void configurarSemilla(long semilla) {
+        this.semilla = semilla;
+    }
+
+    /**
+     * Configura el número de hilos entre los que se reparten los ensayos (todos los procesadores por defecto).
+     */
+    public void configurarHilos(int hilos) {
+        if (hilos < 1) {
+            throw new IllegalArgumentException("El número de hilos debe ser positivo: " + hilos);
+        }
+        this.hilos = hilos;
+    }
+
+    /**
+     * Configura las generaciones tras las que se da por terminado un ensayo que no se ha estabilizado
+     * (10000 por defecto).
+     */
+    public void configurarGeneracionesMaximas(long generacionesMaximas) {
+        if (generacionesMaximas < 0) {
+            throw new IllegalArgumentException("El número de generaciones no puede ser negativo: "
+                    + generacionesMaximas);
+        }
+        this.generacionesMaximas = generacionesMaximas;
+    }
+
+    /**
+     * Configura el periodo más largo de los ciclos que se detectan (16 por defecto).
+     *
+     * @see Tablero#configurarDeteccionDeCiclos(int)
+     */
+    public void configurarPeriodoMaximo(int periodoMaximo) {
+        if (periodoMaximo < 1) {
+            throw new IllegalArgumentException("El periodo máximo debe ser positivo: " + periodoMaximo);
+        }
+        this.periodoMaximo = periodoMaximo;
+    }
+
+    /**
+     * Configura la regla y la topología de los tableros.
+     *
+     * @see Tablero#configurarRegla(ReglaVida, Topologia)
+     */
+    public void configurarRegla(ReglaVida regla, Topologia topologia) {
+        if (topologia == null) {
+            throw new IllegalArgumentException("La topología no puede ser nula");
+        }
+        this.regla = regla;
+        this.topologia = topologia;
+    }
+
+    /**
+     * Deriva la semilla de un ensayo a partir de la semilla del experimento, con la función de mezcla de
+     * SplitMix64 para que ensayos consecutivos tengan semillas sin relación aparente.
+     *
+     * @param semilla Semilla del experimento.
+     * @param indice  Número de ensayo, desde 0.
+     * @return La semilla del tablero inicial del ensayo.
+     */
+    public static long semillaEnsayo(long semilla, long indice) {
+        long z = semilla + (indice + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Ejecuta todos los ensayos.
+     *
+     * @return El resumen de todos los ensayos.
+     */
+    public Resumen ejecutar() {
+        return ejecutar(null);
+    }
+
+    /**
+     * Ejecuta todos los ensayos y entrega cada uno según termina.
+     *
+     * @param alTerminar Recibe cada ensayo terminado y el resumen que lo incluye; puede ser {@code null}. Se
+     *                   llama desde el hilo que ejecuta el experimento, según le llegan los ensayos, así que
+     *                   no retrasa a los hilos que simulan.
+     * @return El resumen de todos los ensayos.
+     * @throws IllegalStateException si algún ensayo o 'alTerminar' lanza una excepción.
+     */
+    public Resumen ejecutar(BiConsumer<Ensayo, Resumen> alTerminar) {
+        // Los hilos solo simulan y dejan los ensayos en la cola; este hilo es el único que los acumula. La cola
+        // está acotada para que, si 'alTerminar' va más lento que los hilos, estos esperen en lugar de acumular
+        // ensayos en memoria.
+        Acumulador acumulador = new Acumulador();
+        AtomicLong siguiente = new AtomicLong();
+        int trabajadores = (int) Math.max(1, Math.min(hilos, ensayos));
+        BlockingQueue<Ensayo> terminados = new ArrayBlockingQueue<>(ENSAYOS_EN_COLA_POR_HILO * trabajadores);
+        ExecutorService pool = Executors.newFixedThreadPool(trabajadores);
+        try {
+            List<Future<?>> tareas = new ArrayList<>(trabajadores);
+            for (int i = 0; i < trabajadores; i++) {
+                tareas.add(pool.submit(() -> trabajar(siguiente, terminados)));
+            }
+            for (long recibidos = 0; recibidos < ensayos; recibidos++) {
+                Ensayo ensayo;
+                while ((ensayo = terminados.poll(100, TimeUnit.MILLISECONDS)) == null) {
+                    // Si un hilo ha fallado, sus ensayos no llegarán nunca.
+                    comprobarFallos(tareas);
+                }
+                acumulador.anadir(ensayo);
+                if (alTerminar != null) {
+                    try {
+                        alTerminar.accept(ensayo, acumulador.resumen());
+                    } catch (RuntimeException e) {
+                        throw new IllegalStateException("Error al entregar un ensayo: " + e, e);
+                    }
+                }
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Experimento interrumpido", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error en un ensayo: " + e.getCause(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        return acumulador.resumen();
+    }
+
+    private static void comprobarFallos(List<Future<?>> tareas) throws InterruptedException, ExecutionException {
+        for (Future<?> tarea : tareas) {
+            if (tarea.isDone()) {
+                tarea.get();
+            }
+        }
+    }
+
+    /**
+     * Ejecuta ensayos con un mismo tablero hasta que no quedan más.
+     */
+    private void trabajar(AtomicLong siguiente, BlockingQueue<Ensayo> terminados) {
+        Tablero tablero = new Tablero(ancho, alto);
+        tablero.configurarDeteccionDeCiclos(periodoMaximo);
+        if (regla != null || topologia != Topologia.FIJA) {
+            tablero.configurarRegla(regla != null ? regla : ReglaVida.CONWAY, topologia);
+        }
+        long indice;
+        try {
+            while ((indice = siguiente.getAndIncrement()) < ensayos && !Thread.currentThread().isInterrupted()) {
+                terminados.put(ensayar(tablero, indice));
+            }
+        } catch (InterruptedException e) {
+            // El experimento ha terminado o ha fallado y el pool se está cerrando
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Ensayo ensayar(Tablero tablero, long indice) {
+        long semillaTablero = semillaEnsayo(semilla, indice);
+        // Generar el estado reinicia la generación y la historia de la detección de ciclos
+        tablero.generarEstadoActualPorMontecarlo(semillaTablero, densidad);
+        long poblacionInicial = tablero.contarVivas();
+        tablero.avanzarHastaCiclo(generacionesMaximas);
+        return new Ensayo(indice, semillaTablero, poblacionInicial, tablero.contarVivas(),
+                tablero.getGeneracion(), tablero.getInicioCiclo(), tablero.getPeriodoCiclo());
+    }
+}
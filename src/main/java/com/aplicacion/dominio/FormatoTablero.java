@@ -0,0 +1,56 @@
+/*
+Copyright 2025 Pablo Lozano Hernández
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+either express or implied. See the License for the specific
+language governing permissions and limitations under the
+License.
+*/
+
+package com.aplicacion.dominio;
+
+import java.nio.file.Path;
+
+/**
+ * Formatos de fichero admitidos para leer y guardar tableros.
+ */
+public enum FormatoTablero {
+
+    /**
+     * Matriz de ceros y unos, una fila por línea, como el fichero "matriz.txt" original.
+     */
+    MATRIZ,
+
+    /**
+     * Formato RLE (run length encoded) habitual en los programas del juego de la vida.
+     */
+    RLE,
+
+    /**
+     * Formato de texto plano (.cells): '.' para las células muertas, 'O' para las vivas y '!' para comentarios.
+     */
+    TEXTO_PLANO;
+
+    /**
+     * Deduce el formato a partir de la extensión del fichero: ".rle" para RLE, ".cells" para texto plano y
+     * matriz de ceros y unos en cualquier otro caso.
+     *
+     * @param ruta Ruta del fichero.
+     * @return El formato correspondiente.
+     */
+    public static FormatoTablero desdeExtension(Path ruta) {
+        String nombre = ruta.getFileName().toString().toLowerCase();
+        if (nombre.endsWith(".rle")) {
+            return RLE;
+        }
+        if (nombre.endsWith(".cells")) {
+            return TEXTO_PLANO;
+        }
+        return MATRIZ;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+Copyright 2025 Pablo Lozano Hernández
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+either express or implied. See the License for the specific
+language governing permissions and limitations under the
+License.
+*/
+
+package com.aplicacion.dominio;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Lectura secuencial byte a byte de un fichero proyectado en memoria.
+ * <p>
+ * El fichero se proyecta por ventanas consecutivas, de modo que se pueden leer ficheros de más de 2 GB sin
+ * copiar su contenido ni crear cadenas de texto intermedias.
+ * </p>
+ */
+final class FuenteMapeada implements Closeable {
+
+    private static final long TAMANO_VENTANA = 1L << 28;
+
+    private final FileChannel canal;
+    private final long tamano;
+    private long inicioVentana;
+    private MappedByteBuffer ventana;
+    private int posicion;
+    private int limite;
+
+    FuenteMapeada(Path ruta) throws IOException {
+        canal = FileChannel.open(ruta, StandardOpenOption.READ);
+        tamano = canal.size();
+        reiniciar();
+    }
+
+    /**
+     * Vuelve al principio del fichero.
+     */
+    void reiniciar() throws IOException {
+        inicioVentana = 0;
+        proyectar();
+    }
+
+    /**
+     * Devuelve el siguiente byte (0-255), o -1 al llegar al final del fichero.
+     */
+    int leer() throws IOException {
+        if (posicion == limite) {
+            if (inicioVentana + limite >= tamano) {
+                return -1;
+            }
+            inicioVentana += limite;
+            proyectar();
+        }
+        return ventana.get(posicion++) & 0xff;
+    }
+
+    private void proyectar() throws IOException {
+        limite = (int) Math.min(TAMANO_VENTANA, tamano - inicioVentana);
+        ventana = canal.map(FileChannel.MapMode.READ_ONLY, inicioVentana, limite);
+        posicion = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+}
@@ -0,0 +1,490 @@
+/*
+Copyright 2025 Pablo Lozano Hernández
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+either express or implied. See the License for the specific
+language governing permissions and limitations under the
+License.
+*/
+
+package com.aplicacion.dominio;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Motor HashLife para el juego de la vida (B3/S23).
+ * <p>
+ * El universo se representa como un árbol cuaternario en el que los nodos idénticos se comparten
+ * (hash-consing): cada combinación de cuatro hijos existe una única vez. Cada nodo de nivel k (lado 2^k)
+ * memoriza su resultado, que es el cuadrado central de lado 2^(k-1) avanzado 2^(k-2) generaciones, de modo
+ * que los patrones que se repiten en el espacio o en el tiempo solo se calculan una vez. Esto permite saltar
+ * 2^k generaciones en una sola llamada. Los nodos mayores que el salto en curso memorizan aparte el resultado
+ * de ese salto junto con su exponente, así que cambiar de tamaño de salto no invalida los demás resultados.
+ * </p>
+ * <p>
+ * A diferencia de {@link Tablero}, el universo de HashLife no tiene bordes. Al importar un tablero, su célula
+ * (fila, columna) se coloca en la coordenada (x = columna, y = fila); al exportar se recorta la misma ventana,
+ * por lo que ambos motores coinciden mientras el patrón no llegue a los bordes del tablero.
+ * </p>
+ * <p>
+ * La tabla de nodos está acotada: cuando supera el número máximo de nodos, también en mitad de un salto, se
+ * hace una recolección que conserva solo los nodos alcanzables desde la raíz y descarta los resultados
+ * memorizados. Los nodos intermedios del salto en curso quedan fuera de la tabla, lo que solo hace que se
+ * compartan menos. Si tras la recolección la tabla sigue ocupando más de la mitad del límite, el límite
+ * efectivo se duplica para no recolectar continuamente.
+ * </p>
+ */
+public class HashLife {
+
+    /**
+     * Número máximo de nodos por defecto en la tabla antes de hacer una recolección.
+     */
+    public static final int MAX_NODOS_POR_DEFECTO = 1 << 22;
+
+    private static final Nodo MUERTA = new Nodo(0, 0L);
+    private static final Nodo VIVA = new Nodo(0, 1L);
+
+    private final int maxNodos;
+    private int limiteNodos;
+    private int picoNodos;
+    private Map<Nodo, Nodo> tabla = new HashMap<>();
+    private Nodo[] vacios = new Nodo[64];
+    private Nodo raiz;
+    private int logPaso = -1;
+    private long generacion;
+    private long recolecciones;
+
+    /**
+     * Crea un universo vacío con el límite de nodos por defecto.
+     */
+    public HashLife() {
+        this(MAX_NODOS_POR_DEFECTO);
+    }
+
+    /**
+     * Crea un universo vacío.
+     *
+     * @param maxNodos Número de nodos a partir del cual se recolectan los nodos no alcanzables.
+     */
+    public HashLife(int maxNodos) {
+        if (maxNodos < 1024) {
+            throw new IllegalArgumentException("El límite de nodos es demasiado pequeño: " + maxNodos);
+        }
+        this.maxNodos = maxNodos;
+        this.limiteNodos = maxNodos;
+        vacios[0] = MUERTA;
+        raiz = vacio(3);
+    }
+
+    /**
+     * Sustituye el universo por el estado actual del tablero.
+     *
+     * @param tablero Tablero del que se copia el estado actual.
+     */
+    public void importar(Tablero tablero) {
+        importar(tablero.obtenerEstadoActual());
+    }
+
+    /**
+     * Sustituye el universo por el contenido de la matriz, colocando su esquina superior izquierda en (0, 0).
+     *
+     * @param matriz Matriz de células.
+     */
+    public void importar(MatrizBits matriz) {
+        int lado = Math.max(matriz.getAncho(), matriz.getAlto());
+        int nivel = 3;
+        while ((1L << (nivel - 1)) < lado) {
+            nivel++;
+        }
+        long mitad = 1L << (nivel - 1);
+        raiz = construir(matriz, nivel, -mitad, -mitad);
+        generacion = 0;
+        recolectarSiEsNecesario();
+    }
+
+    /**
+     * Copia en el tablero la ventana del universo que ocupa, y calcula su estado siguiente.
+     *
+     * @param tablero Tablero en el que se deja el estado.
+     */
+    public void exportar(Tablero tablero) {
+        MatrizBits matriz = new MatrizBits(tablero.getAncho(), tablero.getAlto());
+        exportar(matriz);
+        tablero.cargarEstado(matriz);
+    }
+
+    /**
+     * Copia en la matriz la ventana del universo cuya esquina superior izquierda está en (0, 0).
+     *
+     * @param matriz Matriz en la que se deja el estado; se borra su contenido anterior.
+     */
+    public void exportar(MatrizBits matriz) {
+        matriz.limpiar();
+        long mitad = 1L << (raiz.nivel - 1);
+        volcar(raiz, -mitad, -mitad, matriz);
+    }
+
+    /**
+     * Indica si la célula de la coordenada (x, y) está viva.
+     */
+    public boolean estaViva(long x, long y) {
+        Nodo nodo = raiz;
+        long mitad = 1L << (nodo.nivel - 1);
+        long px = x + mitad;
+        long py = y + mitad;
+        if (px < 0 || py < 0 || px >= 2 * mitad || py >= 2 * mitad) {
+            return false;
+        }
+        while (nodo.nivel > 0) {
+            if (nodo.poblacion == 0) {
+                return false;
+            }
+            long lado = 1L << (nodo.nivel - 1);
+            boolean derecha = px >= lado;
+            boolean abajo = py >= lado;
+            nodo = abajo ? (derecha ? nodo.se : nodo.sw) : (derecha ? nodo.ne : nodo.nw);
+            if (derecha) {
+                px -= lado;
+            }
+            if (abajo) {
+                py -= lado;
+            }
+        }
+        return nodo == VIVA;
+    }
+
+    /**
+     * Avanza el universo 2^k generaciones en una sola llamada.
+     *
+     * @param k Exponente del número de generaciones.
+     */
+    public void avanzarPotencia(int k) {
+        if (k < 0 || k > 60) {
+            throw new IllegalArgumentException("Exponente fuera de rango: " + k);
+        }
+        logPaso = k;
+        // El patrón debe quedar lejos de los bordes para que la velocidad de la luz no lo saque del resultado.
+        while (raiz.nivel < k + 2 || !bordeVacio(raiz)) {
+            raiz = expandir(raiz);
+        }
+        raiz = siguiente(expandir(raiz));
+        generacion += 1L << k;
+        recolectarSiEsNecesario();
+    }
+
+    /**
+     * Avanza el universo el número de generaciones indicado, descomponiéndolo en saltos de potencias de dos.
+     *
+     * @param generaciones Número de generaciones, mayor o igual que 0.
+     */
+    public void avanzar(long generaciones) {
+        if (generaciones < 0) {
+            throw new IllegalArgumentException("El número de generaciones no puede ser negativo: " + generaciones);
+        }
+        for (int k = 62; k >= 0; k--) {
+            if ((generaciones & (1L << k)) != 0) {
+                avanzarPotencia(k);
+            }
+        }
+    }
+
+    /**
+     * Devuelve el número de generaciones avanzadas desde la última importación.
+     */
+    public long getGeneracion() {
+        return generacion;
+    }
+
+    /**
+     * Devuelve el número de células vivas del universo.
+     */
+    public long getPoblacion() {
+        return raiz.poblacion;
+    }
+
+    /**
+     * Devuelve el número de nodos que hay en la tabla.
+     */
+    public int getNodosEnTabla() {
+        return tabla.size();
+    }
+
+    /**
+     * Devuelve el mayor número de nodos que ha llegado a tener la tabla.
+     */
+    public int getPicoNodos() {
+        return picoNodos;
+    }
+
+    /**
+     * Devuelve el número de recolecciones de nodos realizadas.
+     */
+    public long getRecolecciones() {
+        return recolecciones;
+    }
+
+    /**
+     * Descarta los nodos que no son alcanzables desde la raíz y los resultados memorizados.
+     */
+    public void recolectar() {
+        Map<Nodo, Nodo> nueva = new HashMap<>(Math.max(16, tabla.size() / 2));
+        for (Nodo nodo : tabla.keySet()) {
+            nodo.resultado = null;
+            nodo.resultadoLento = null;
+        }
+        conservar(raiz, nueva);
+        for (Nodo vacio : vacios) {
+            if (vacio != null) {
+                conservar(vacio, nueva);
+            }
+        }
+        tabla = nueva;
+        recolecciones++;
+        limiteNodos = (int) Math.min(Integer.MAX_VALUE, Math.max(maxNodos, 2L * tabla.size()));
+    }
+
+    private void recolectarSiEsNecesario() {
+        picoNodos = Math.max(picoNodos, tabla.size());
+        if (tabla.size() > limiteNodos) {
+            recolectar();
+        }
+    }
+
+    private static void conservar(Nodo nodo, Map<Nodo, Nodo> destino) {
+        if (nodo.nivel == 0 || destino.putIfAbsent(nodo, nodo) != null) {
+            return;
+        }
+        conservar(nodo.nw, destino);
+        conservar(nodo.ne, destino);
+        conservar(nodo.sw, destino);
+        conservar(nodo.se, destino);
+    }
+
+    /**
+     * Devuelve el nodo canónico con los cuatro hijos indicados.
+     */
+    private Nodo nodo(Nodo nw, Nodo ne, Nodo sw, Nodo se) {
+        Nodo candidato = new Nodo(nw, ne, sw, se);
+        Nodo existente = tabla.putIfAbsent(candidato, candidato);
+        return existente != null ? existente : candidato;
+    }
+
+    private Nodo vacio(int nivel) {
+        if (nivel >= vacios.length) {
+            Nodo[] mayor = new Nodo[nivel + 1];
+            System.arraycopy(vacios, 0, mayor, 0, vacios.length);
+            vacios = mayor;
+        }
+        if (vacios[nivel] == null) {
+            Nodo hijo = vacio(nivel - 1);
+            vacios[nivel] = nodo(hijo, hijo, hijo, hijo);
+        }
+        return vacios[nivel];
+    }
+
+    /**
+     * Rodea el nodo de células muertas, devolviendo un nodo del nivel siguiente con el mismo centro.
+     */
+    private Nodo expandir(Nodo n) {
+        Nodo e = vacio(n.nivel - 1);
+        return nodo(nodo(e, e, e, n.nw), nodo(e, e, n.ne, e),
+                nodo(e, n.sw, e, e), nodo(n.se, e, e, e));
+    }
+
+    /**
+     * Indica si toda la población del nodo está en su cuarta parte central.
+     */
+    private static boolean bordeVacio(Nodo n) {
+        return n.nw.poblacion == n.nw.se.poblacion
+                && n.ne.poblacion == n.ne.sw.poblacion
+                && n.sw.poblacion == n.sw.ne.poblacion
+                && n.se.poblacion == n.se.nw.poblacion;
+    }
+
+    private Nodo centro(Nodo n) {
+        return nodo(n.nw.se, n.ne.sw, n.sw.ne, n.se.nw);
+    }
+
+    /**
+     * Devuelve el cuadrado central del nodo avanzado 2^min(logPaso, nivel - 2) generaciones.
+     */
+    private Nodo siguiente(Nodo n) {
+        // A máxima velocidad, se avanza en las dos mitades; si el salto es menor, solo en la segunda.
+        boolean rapido = logPaso >= n.nivel - 2;
+        Nodo memorizado = rapido ? n.resultado : n.pasoLento == logPaso ? n.resultadoLento : null;
+        if (memorizado != null) {
+            return memorizado;
+        }
+        if (n.poblacion == 0) {
+            return vacio(n.nivel - 1);
+        }
+        if (n.nivel == 2) {
+            n.resultado = siguienteBase(n);
+            return n.resultado;
+        }
+        recolectarSiEsNecesario();
+
+        Nodo c00 = n.nw;
+        Nodo c01 = nodo(n.nw.ne, n.ne.nw, n.nw.se, n.ne.sw);
+        Nodo c02 = n.ne;
+        Nodo c10 = nodo(n.nw.sw, n.nw.se, n.sw.nw, n.sw.ne);
+        Nodo c11 = nodo(n.nw.se, n.ne.sw, n.sw.ne, n.se.nw);
+        Nodo c12 = nodo(n.ne.sw, n.ne.se, n.se.nw, n.se.ne);
+        Nodo c20 = n.sw;
+        Nodo c21 = nodo(n.sw.ne, n.se.nw, n.sw.se, n.se.sw);
+        Nodo c22 = n.se;
+
+        Nodo r00 = rapido ? siguiente(c00) : centro(c00);
+        Nodo r01 = rapido ? siguiente(c01) : centro(c01);
+        Nodo r02 = rapido ? siguiente(c02) : centro(c02);
+        Nodo r10 = rapido ? siguiente(c10) : centro(c10);
+        Nodo r11 = rapido ? siguiente(c11) : centro(c11);
+        Nodo r12 = rapido ? siguiente(c12) : centro(c12);
+        Nodo r20 = rapido ? siguiente(c20) : centro(c20);
+        Nodo r21 = rapido ? siguiente(c21) : centro(c21);
+        Nodo r22 = rapido ? siguiente(c22) : centro(c22);
+
+        Nodo resultado = nodo(
+                siguiente(nodo(r00, r01, r10, r11)),
+                siguiente(nodo(r01, r02, r11, r12)),
+                siguiente(nodo(r10, r11, r20, r21)),
+                siguiente(nodo(r11, r12, r21, r22)));
+        if (rapido) {
+            n.resultado = resultado;
+        } else {
+            n.resultadoLento = resultado;
+            n.pasoLento = logPaso;
+        }
+        return resultado;
+    }
+
+    /**
+     * Caso base: avanza una generación el bloque central 2x2 de un nodo de 4x4 células.
+     */
+    private Nodo siguienteBase(Nodo n) {
+        int bits = 0;
+        Nodo[] cuadrantes = {n.nw, n.ne, n.sw, n.se};
+        for (int q = 0; q < 4; q++) {
+            Nodo c = cuadrantes[q];
+            int fila = (q >> 1) * 2;
+            int columna = (q & 1) * 2;
+            bits |= (int) c.nw.poblacion << (fila * 4 + columna);
+            bits |= (int) c.ne.poblacion << (fila * 4 + columna + 1);
+            bits |= (int) c.sw.poblacion << ((fila + 1) * 4 + columna);
+            bits |= (int) c.se.poblacion << ((fila + 1) * 4 + columna + 1);
+        }
+        return nodo(celda(bits, 1, 1), celda(bits, 1, 2), celda(bits, 2, 1), celda(bits, 2, 2));
+    }
+
+    private static Nodo celda(int bits, int fila, int columna) {
+        int vecinos = 0;
+        for (int f = fila - 1; f <= fila + 1; f++) {
+            for (int c = columna - 1; c <= columna + 1; c++) {
+                if (f != fila || c != columna) {
+                    vecinos += (bits >>> (f * 4 + c)) & 1;
+                }
+            }
+        }
+        boolean viva = ((bits >>> (fila * 4 + columna)) & 1) != 0;
+        return vecinos == 3 || (viva && vecinos == 2) ? VIVA : MUERTA;
+    }
+
+    /**
+     * Construye el nodo de nivel 'nivel' cuya esquina superior izquierda está en (x0, y0).
+     */
+    private Nodo construir(MatrizBits matriz, int nivel, long x0, long y0) {
+        long lado = 1L << nivel;
+        if (x0 >= matriz.getAncho() || y0 >= matriz.getAlto() || x0 + lado <= 0 || y0 + lado <= 0) {
+            return vacio(nivel);
+        }
+        if (nivel == 0) {
+            return matriz.get((int) y0, (int) x0) ? VIVA : MUERTA;
+        }
+        long mitad = lado >>> 1;
+        return nodo(construir(matriz, nivel - 1, x0, y0),
+                construir(matriz, nivel - 1, x0 + mitad, y0),
+                construir(matriz, nivel - 1, x0, y0 + mitad),
+                construir(matriz, nivel - 1, x0 + mitad, y0 + mitad));
+    }
+
+    /**
+     * Copia en la matriz las células vivas del nodo cuya esquina superior izquierda está en (x0, y0).
+     */
+    private static void volcar(Nodo nodo, long x0, long y0, MatrizBits matriz) {
+        long lado = 1L << nodo.nivel;
+        if (nodo.poblacion == 0 || x0 >= matriz.getAncho() || y0 >= matriz.getAlto()
+                || x0 + lado <= 0 || y0 + lado <= 0) {
+            return;
+        }
+        if (nodo.nivel == 0) {
+            matriz.set((int) y0, (int) x0, true);
+            return;
+        }
+        long mitad = lado >>> 1;
+        volcar(nodo.nw, x0, y0, matriz);
+        volcar(nodo.ne, x0 + mitad, y0, matriz);
+        volcar(nodo.sw, x0, y0 + mitad, matriz);
+        volcar(nodo.se, x0 + mitad, y0 + mitad, matriz);
+    }
+
+    /**
+     * Nodo inmutable del árbol cuaternario. Dos nodos son iguales si tienen el mismo nivel y los mismos
+     * hijos (por identidad), lo que basta porque los hijos ya son canónicos.
+     */
+    private static final class Nodo {
+        final int nivel;
+        final Nodo nw, ne, sw, se;
+        final long poblacion;
+        final int hash;
+        // Resultado de avanzar 2^(nivel - 2) generaciones
+        Nodo resultado;
+        // Resultado de un salto menor, de 2^pasoLento generaciones
+        Nodo resultadoLento;
+        int pasoLento = -1;
+
+        Nodo(int nivel, long poblacion) {
+            this.nivel = nivel;
+            this.nw = this.ne = this.sw = this.se = null;
+            this.poblacion = poblacion;
+            this.hash = (int) poblacion;
+        }
+
+        Nodo(Nodo nw, Nodo ne, Nodo sw, Nodo se) {
+            this.nivel = nw.nivel + 1;
+            this.nw = nw;
+            this.ne = ne;
+            this.sw = sw;
+            this.se = se;
+            this.poblacion = nw.poblacion + ne.poblacion + sw.poblacion + se.poblacion;
+            int h = nivel;
+            h = h * 1_000_003 + nw.hash;
+            h = h * 1_000_003 + ne.hash;
+            h = h * 1_000_003 + sw.hash;
+            h = h * 1_000_003 + se.hash;
+            this.hash = h ^ (h >>> 16);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Nodo)) {
+                return false;
+            }
+            Nodo otro = (Nodo) o;
+            return nivel == otro.nivel && nivel > 0 && nw == otro.nw && ne == otro.ne && sw == otro.sw && se == otro.se;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,308 @@
+/*
+Copyright 2025 Pablo Lozano Hernández
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+either express or implied. See the License for the specific
+language governing permissions and limitations under the
+License.
+*/
+
+package com.aplicacion.dominio;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Lee tableros de cualquier tamaño desde fichero.
+ * <p>
+ * El fichero se proyecta en memoria y se recorre byte a byte, construyendo directamente las palabras de la
+ * {@link MatrizBits} sin crear una cadena por línea. Los formatos de matriz y de texto plano necesitan dos
+ * pasadas (una para conocer las dimensiones y otra para leer las células); el formato RLE lleva las
+ * dimensiones en la cabecera y se lee en una sola pasada.
+ * </p>
+ */
+public final class LectorTablero {
+
+    private static final Pattern CABECERA_RLE = Pattern.compile(
+            "x\\s*=\\s*(\\d+)\\s*,\\s*y\\s*=\\s*(\\d+)(?:\\s*,\\s*rule\\s*=\\s*([^:\\s]+)(?::(\\S*))?)?.*",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern TOPOLOGIA_RLE = Pattern.compile("([PT])(?:(\\d+),(\\d+))?",
+            Pattern.CASE_INSENSITIVE);
+
+    private LectorTablero() {
+    }
+
+    /**
+     * Lee un tablero deduciendo el formato a partir de la extensión del fichero.
+     *
+     * @param ruta Ruta del fichero.
+     * @return La matriz leída, con las dimensiones que indica el fichero.
+     * @throws IOException si el fichero no se puede leer o su contenido no es válido.
+     */
+    public static MatrizBits leer(Path ruta) throws IOException {
+        return leer(ruta, FormatoTablero.desdeExtension(ruta));
+    }
+
+    /**
+     * Lee un tablero en el formato indicado.
+     *
+     * @param ruta    Ruta del fichero.
+     * @param formato Formato del fichero.
+     * @return La matriz leída, con las dimensiones que indica el fichero.
+     * @throws IOException si el fichero no se puede leer o su contenido no es válido.
+     */
+    public static MatrizBits leer(Path ruta, FormatoTablero formato) throws IOException {
+        return leerPatron(ruta, formato).matriz;
+    }
+
+    /**
+     * Crea un tablero con las dimensiones y el contenido del fichero. Si es un RLE con una regla distinta de
+     * B3/S23 o con topología toroidal en la cabecera, el tablero se configura con ellas.
+     *
+     * @param ruta Ruta del fichero; el formato se deduce de la extensión.
+     * @return Un tablero con el estado leído como estado actual.
+     * @throws IOException si el fichero no se puede leer o su contenido no es válido.
+     */
+    public static Tablero leerTablero(Path ruta) throws IOException {
+        Patron patron = leerPatron(ruta, FormatoTablero.desdeExtension(ruta));
+        MatrizBits matriz = patron.matriz;
+        Tablero tablero = new Tablero(matriz.getAncho(), matriz.getAlto());
+        tablero.cargarEstado(matriz);
+        if (!patron.regla.equals(ReglaVida.CONWAY) || patron.topologia != Topologia.FIJA) {
+            tablero.configurarRegla(patron.regla, patron.topologia);
+        }
+        return tablero;
+    }
+
+    private static Patron leerPatron(Path ruta, FormatoTablero formato) throws IOException {
+        try (FuenteMapeada fuente = new FuenteMapeada(ruta)) {
+            switch (formato) {
+                case RLE:
+                    return leerRle(fuente);
+                case TEXTO_PLANO:
+                    return new Patron(leerPorCaracteres(fuente, true), ReglaVida.CONWAY, Topologia.FIJA);
+                default:
+                    return new Patron(leerPorCaracteres(fuente, false), ReglaVida.CONWAY, Topologia.FIJA);
+            }
+        }
+    }
+
+    /**
+     * Lee los formatos de matriz de ceros y unos y de texto plano, que tienen una fila por línea.
+     * <p>
+     * En la matriz se ignoran los espacios en blanco y solo '1' es una célula viva. En el texto plano se
+     * ignoran las líneas que empiezan por '!' y son vivas 'O' y '*'.
+     * </p>
+     */
+    private static MatrizBits leerPorCaracteres(FuenteMapeada fuente, boolean textoPlano) throws IOException {
+        // Primera pasada: dimensiones.
+        int filas = 0;
+        int ancho = 0;
+        int columna = 0;
+        boolean lineaAbierta = false;
+        boolean comentario = false;
+        int b;
+        while ((b = fuente.leer()) != -1) {
+            if (b == '\n') {
+                if (!comentario) {
+                    filas++;
+                    ancho = Math.max(ancho, columna);
+                }
+                columna = 0;
+                lineaAbierta = false;
+                comentario = false;
+                continue;
+            }
+            if (!lineaAbierta && textoPlano && b == '!') {
+                comentario = true;
+            }
+            lineaAbierta = true;
+            if (!comentario && esCelda(b, textoPlano)) {
+                columna++;
+            }
+        }
+        if (lineaAbierta && !comentario) {
+            filas++;
+            ancho = Math.max(ancho, columna);
+        }
+        if (filas == 0 || ancho == 0) {
+            throw new IOException("El fichero no contiene ninguna célula");
+        }
+
+        // Segunda pasada: células, empaquetadas palabra a palabra.
+        MatrizBits matriz = new MatrizBits(ancho, filas);
+        fuente.reiniciar();
+        int fila = 0;
+        columna = 0;
+        long palabra = 0;
+        lineaAbierta = false;
+        comentario = false;
+        while ((b = fuente.leer()) != -1) {
+            if (b == '\n') {
+                if (!comentario) {
+                    if ((columna & 63) != 0) {
+                        matriz.setPalabra(fila, columna >>> 6, palabra);
+                    }
+                    fila++;
+                }
+                columna = 0;
+                palabra = 0;
+                lineaAbierta = false;
+                comentario = false;
+                continue;
+            }
+            if (!lineaAbierta && textoPlano && b == '!') {
+                comentario = true;
+            }
+            lineaAbierta = true;
+            if (comentario || !esCelda(b, textoPlano)) {
+                continue;
+            }
+            if (textoPlano ? (b == 'O' || b == '*') : b == '1') {
+                palabra |= 1L << columna;
+            }
+            columna++;
+            if ((columna & 63) == 0) {
+                matriz.setPalabra(fila, (columna - 1) >>> 6, palabra);
+                palabra = 0;
+            }
+        }
+        if (lineaAbierta && !comentario && (columna & 63) != 0) {
+            matriz.setPalabra(fila, columna >>> 6, palabra);
+        }
+        return matriz;
+    }
+
+    private static boolean esCelda(int b, boolean textoPlano) {
+        if (b == '\r') {
+            return false;
+        }
+        return textoPlano || !(b == ' ' || b == '\t' || b == '\f' || b == 0x0B);
+    }
+
+    /**
+     * Lee el formato RLE: líneas de comentario que empiezan por '#', una cabecera "x = ancho, y = alto, ..."
+     * y secuencias de "[n]b" (muertas), "[n]o" (vivas) y "[n]$" (fin de fila) terminadas en '!'. La regla
+     * opcional de la cabecera puede llevar la topología de Golly: ":P" para bordes fijos o ":T" para un toro,
+     * con las mismas dimensiones que la cabecera si se indican.
+     */
+    private static Patron leerRle(FuenteMapeada fuente) throws IOException {
+        StringBuilder cabecera = new StringBuilder();
+        int b;
+        boolean inicioLinea = true;
+        boolean comentario = false;
+        while ((b = fuente.leer()) != -1) {
+            if (b == '\n') {
+                if (!comentario && cabecera.length() > 0) {
+                    break;
+                }
+                inicioLinea = true;
+                comentario = false;
+                continue;
+            }
+            if (inicioLinea && b == '#') {
+                comentario = true;
+            }
+            inicioLinea = false;
+            if (!comentario && b != '\r') {
+                cabecera.append((char) b);
+            }
+        }
+        Matcher m = CABECERA_RLE.matcher(cabecera.toString().trim());
+        if (!m.matches()) {
+            throw new IOException("Cabecera RLE no válida: " + cabecera);
+        }
+        int ancho;
+        int alto;
+        try {
+            ancho = Integer.parseInt(m.group(1));
+            alto = Integer.parseInt(m.group(2));
+        } catch (NumberFormatException e) {
+            throw new IOException("Cabecera RLE no válida: " + cabecera, e);
+        }
+        ReglaVida regla = ReglaVida.CONWAY;
+        if (m.group(3) != null) {
+            try {
+                regla = ReglaVida.analizar(m.group(3));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Regla RLE no válida: " + m.group(3), e);
+            }
+        }
+        Topologia topologia = Topologia.FIJA;
+        if (m.group(4) != null) {
+            Matcher t = TOPOLOGIA_RLE.matcher(m.group(4));
+            if (!t.matches()) {
+                throw new IOException("Topología RLE no admitida: " + m.group(4));
+            }
+            if (t.group(2) != null && (!t.group(2).equals(String.valueOf(ancho))
+                    || !t.group(3).equals(String.valueOf(alto)))) {
+                throw new IOException("Las dimensiones de la topología RLE no coinciden con la cabecera: "
+                        + m.group(4));
+            }
+            topologia = Character.toUpperCase(t.group(1).charAt(0)) == 'T' ? Topologia.TOROIDAL : Topologia.FIJA;
+        }
+        MatrizBits matriz = new MatrizBits(Math.max(1, ancho), Math.max(1, alto));
+
+        int fila = 0;
+        int columna = 0;
+        int cuenta = 0;
+        // Ninguna repetición válida supera el lado mayor; se rechaza antes de que la cuenta desborde.
+        int cuentaMaxima = Math.max(ancho, alto);
+        while ((b = fuente.leer()) != -1 && b != '!') {
+            if (b >= '0' && b <= '9') {
+                cuenta = cuenta * 10 + (b - '0');
+                if (cuenta > cuentaMaxima) {
+                    throw new IOException("Repetición RLE demasiado grande para un patrón de "
+                            + ancho + "x" + alto + ": " + cuenta);
+                }
+                continue;
+            }
+            if (b == ' ' || b == '\t' || b == '\r' || b == '\n') {
+                continue;
+            }
+            int n = cuenta == 0 ? 1 : cuenta;
+            cuenta = 0;
+            if (b == '$') {
+                if (fila + n > alto) {
+                    throw new IOException("El patrón RLE tiene más filas que la cabecera: " + alto);
+                }
+                fila += n;
+                columna = 0;
+            } else if ((b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || b == '.') {
+                if (fila >= alto || columna + n > ancho) {
+                    throw new IOException("El patrón RLE no cabe en las dimensiones de la cabecera: "
+                            + ancho + "x" + alto);
+                }
+                if (b != 'b' && b != '.') {
+                    matriz.establecerRango(fila, columna, columna + n);
+                }
+                columna += n;
+            } else {
+                throw new IOException("Carácter no válido en el patrón RLE: '" + (char) b + "'");
+            }
+        }
+        return new Patron(matriz, regla, topologia);
+    }
+
+    /**
+     * Células leídas de un fichero, con la regla y la topología que indica.
+     */
+    private static final class Patron {
+        final MatrizBits matriz;
+        final ReglaVida regla;
+        final Topologia topologia;
+
+        Patron(MatrizBits matriz, ReglaVida regla, Topologia topologia) {
+            this.matriz = matriz;
+            this.regla = regla;
+            this.topologia = topologia;
+        }
+    }
+}
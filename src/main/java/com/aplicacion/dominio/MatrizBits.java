@@ -0,0 +1,264 @@
+/*
+Copyright 2025 Pablo Lozano Hernández
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+either express or implied. See the License for the specific
+language governing permissions and limitations under the
+License.
+*/
+
+package com.aplicacion.dominio;
+
+import java.util.Arrays;
+
+/**
+ * Matriz de células empaquetada a razón de un bit por célula.
+ * <p>
+ * Cada fila ocupa {@code palabrasPorFila} palabras de tipo {@code long} consecutivas dentro de un único
+ * array. La columna {@code j} se guarda en el bit {@code j % 64} de la palabra {@code j / 64} de su fila.
+ * Los bits sobrantes de la última palabra de cada fila se mantienen siempre a cero.
+ * </p>
+ */
+public class MatrizBits {
+
+    private final int ancho;
+    private final int alto;
+    private final int palabrasPorFila;
+    private final long mascaraUltimaPalabra;
+    final long[] palabras;
+
+    /**
+     * Crea una matriz de células muertas con las dimensiones indicadas.
+     *
+     * @param ancho Número de columnas.
+     * @param alto  Número de filas.
+     * @throws IllegalArgumentException si alguna dimensión no es positiva o la matriz no cabe en memoria.
+     */
+    public MatrizBits(int ancho, int alto) {
+        if (ancho <= 0 || alto <= 0) {
+            throw new IllegalArgumentException("Las dimensiones deben ser positivas: " + ancho + "x" + alto);
+        }
+        this.ancho = ancho;
+        this.alto = alto;
+        this.palabrasPorFila = (ancho + 63) >>> 6;
+        long total = (long) palabrasPorFila * alto;
+        if (total > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Tablero demasiado grande: " + ancho + "x" + alto);
+        }
+        this.mascaraUltimaPalabra = (ancho & 63) == 0 ? -1L : (1L << (ancho & 63)) - 1;
+        this.palabras = new long[(int) total];
+    }
+
+    /**
+     * Crea una copia independiente de otra matriz.
+     *
+     * @param otra La matriz que se copia.
+     */
+    public MatrizBits(MatrizBits otra) {
+        this(otra.ancho, otra.alto);
+        System.arraycopy(otra.palabras, 0, palabras, 0, palabras.length);
+    }
+
+    public int getAncho() {
+        return ancho;
+    }
+
+    public int getAlto() {
+        return alto;
+    }
+
+    public int getPalabrasPorFila() {
+        return palabrasPorFila;
+    }
+
+    /**
+     * Devuelve la máscara de bits válidos de la última palabra de cada fila.
+     */
+    long getMascaraUltimaPalabra() {
+        return mascaraUltimaPalabra;
+    }
+
+    /**
+     * Indica si la célula de la posición (fila, columna) está viva.
+     */
+    public boolean get(int fila, int columna) {
+        return (palabras[fila * palabrasPorFila + (columna >>> 6)] & (1L << columna)) != 0;
+    }
+
+    /**
+     * Establece el estado de la célula de la posición (fila, columna).
+     */
+    public void set(int fila, int columna, boolean viva) {
+        int indice = fila * palabrasPorFila + (columna >>> 6);
+        if (viva) {
+            palabras[indice] |= 1L << columna;
+        } else {
+            palabras[indice] &= ~(1L << columna);
+        }
+    }
+
+    /**
+     * Pone vivas las células de la fila en las columnas [desde, hasta).
+     */
+    public void establecerRango(int fila, int desde, int hasta) {
+        if (desde >= hasta) {
+            return;
+        }
+        int base = fila * palabrasPorFila;
+        int primera = desde >>> 6;
+        int ultima = (hasta - 1) >>> 6;
+        long mascaraInicio = -1L << desde;
+        long mascaraFin = -1L >>> (63 - ((hasta - 1) & 63));
+        if (primera == ultima) {
+            palabras[base + primera] |= mascaraInicio & mascaraFin;
+            return;
+        }
+        palabras[base + primera] |= mascaraInicio;
+        for (int w = primera + 1; w < ultima; w++) {
+            palabras[base + w] = -1L;
+        }
+        palabras[base + ultima] |= mascaraFin;
+    }
+
+    /**
+     * Sustituye la palabra 'indice' de la fila indicada. Los bits que quedan fuera del ancho se descartan.
+     */
+    void setPalabra(int fila, int indice, long palabra) {
+        if (indice == palabrasPorFila - 1) {
+            palabra &= mascaraUltimaPalabra;
+        }
+        palabras[fila * palabrasPorFila + indice] = palabra;
+    }
+
+    /**
+     * Devuelve la palabra 'indice' de la fila indicada.
+     */
+    long getPalabra(int fila, int indice) {
+        return palabras[fila * palabrasPorFila + indice];
+    }
+
+    /**
+     * Devuelve la primera columna viva de la fila a partir de 'desde' (incluida), o el ancho si no hay ninguna.
+     */
+    int siguienteViva(int fila, int desde) {
+        return siguiente(fila, desde, 0L);
+    }
+
+    /**
+     * Devuelve la primera columna muerta de la fila a partir de 'desde' (incluida), o el ancho si no hay ninguna.
+     */
+    int siguienteMuerta(int fila, int desde) {
+        return siguiente(fila, desde, -1L);
+    }
+
+    private int siguiente(int fila, int desde, long invertir) {
+        if (desde >= ancho) {
+            return ancho;
+        }
+        int base = fila * palabrasPorFila;
+        int w = desde >>> 6;
+        long palabra = (palabras[base + w] ^ invertir) & (-1L << desde);
+        while (palabra == 0) {
+            if (++w == palabrasPorFila) {
+                return ancho;
+            }
+            palabra = palabras[base + w] ^ invertir;
+        }
+        return Math.min(ancho, (w << 6) + Long.numberOfTrailingZeros(palabra));
+    }
+
+    /**
+     * Copia en 'destino' la parte de esta matriz que cabe en él, empezando por la esquina superior izquierda.
+     * Las células de 'destino' que quedan fuera de esta matriz se ponen a muertas.
+     *
+     * @param destino La matriz donde se copia el contenido.
+     */
+    public void copiarRecortadoEn(MatrizBits destino) {
+        destino.limpiar();
+        int filas = Math.min(alto, destino.alto);
+        int palabrasComunes = Math.min(palabrasPorFila, destino.palabrasPorFila);
+        for (int fila = 0; fila < filas; fila++) {
+            for (int w = 0; w < palabrasComunes; w++) {
+                long palabra = getPalabra(fila, w);
+                if (w == destino.palabrasPorFila - 1) {
+                    palabra &= destino.mascaraUltimaPalabra;
+                }
+                destino.palabras[fila * destino.palabrasPorFila + w] = palabra;
+            }
+        }
+    }
+
+    /**
+     * Pone todas las células a muertas.
+     */
+    public void limpiar() {
+        Arrays.fill(palabras, 0L);
+    }
+
+    /**
+     * Copia el contenido de esta matriz en otra de las mismas dimensiones.
+     *
+     * @param destino La matriz donde se copia el contenido.
+     */
+    public void copiarEn(MatrizBits destino) {
+        comprobarDimensiones(destino);
+        System.arraycopy(palabras, 0, destino.palabras, 0, palabras.length);
+    }
+
+    /**
+     * Cuenta las células vivas de la matriz.
+     *
+     * @return El número de células vivas.
+     */
+    public long contarVivas() {
+        long total = 0;
+        for (long palabra : palabras) {
+            total += Long.bitCount(palabra);
+        }
+        return total;
+    }
+
+    /**
+     * Cuenta las células que tienen distinto estado en esta matriz y en otra de las mismas dimensiones.
+     *
+     * @param otra La matriz con la que se compara.
+     * @return El número de células distintas.
+     */
+    long contarDiferencias(MatrizBits otra) {
+        comprobarDimensiones(otra);
+        long total = 0;
+        for (int i = 0; i < palabras.length; i++) {
+            total += Long.bitCount(palabras[i] ^ otra.palabras[i]);
+        }
+        return total;
+    }
+
+    void comprobarDimensiones(MatrizBits otra) {
+        if (otra.ancho != ancho || otra.alto != alto) {
+            throw new IllegalArgumentException("Dimensiones distintas: " + ancho + "x" + alto
+                    + " frente a " + otra.ancho + "x" + otra.alto);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MatrizBits)) {
+            return false;
+        }
+        MatrizBits otra = (MatrizBits) o;
+        return ancho == otra.ancho && alto == otra.alto && Arrays.equals(palabras, otra.palabras);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * ancho + alto) + Arrays.hashCode(palabras);
+    }
+}
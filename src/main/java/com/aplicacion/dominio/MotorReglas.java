@@ -0,0 +1,140 @@
+/*
+Copyright 2025 Pablo Lozano Hernández
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+either express or implied. See the License for the specific
+language governing permissions and limitations under the
+License.
+*/
+package com.aplicacion.dominio;
+
+/**
+ * Calcula generaciones con cualquier {@link ReglaVida} y {@link Topologia} mediante la tabla compilada de
+ * la regla.
+ * <p>
+ * Antes de cada paso, el estado se copia en una matriz de bits con una célula más de margen por cada lado
+ * (el halo): muerta con bordes fijos, o la fila o columna del lado opuesto en un toro. La matriz tiene
+ * además una fila, una columna y una palabra de relleno al final, siempre a cero, de modo que cada bloque
+ * de 4x4 que se lee está completo. El cálculo recorre el tablero por bloques de 2x2 células: los 4 bits de
+ * cada una de las cuatro filas del bloque de 4x4 que lo rodea se extraen con desplazamientos y forman el
+ * índice de la tabla, sin comprobar bordes ni evaluar la regla célula a célula.
+ * </p>
+ */
+final class MotorReglas {
+
+    private final ReglaVida regla;
+    private final Topologia topologia;
+    private final byte[] tabla;
+    private final int ancho;
+    private final int alto;
+    private final int palabrasPorFila;
+    private final long[] halo;
+
+    MotorReglas(ReglaVida regla, Topologia topologia, int ancho, int alto) {
+        this.regla = regla;
+        this.topologia = topologia;
+        this.tabla = regla.getTabla();
+        this.ancho = ancho;
+        this.alto = alto;
+        // Columnas del halo: [0, ancho + 3); una palabra más para leer siempre la palabra siguiente
+        this.palabrasPorFila = ((ancho + 3 + 63) >>> 6) + 1;
+        this.halo = new long[palabrasPorFila * (alto + 3)];
+    }
+
+    ReglaVida getRegla() {
+        return regla;
+    }
+
+    Topologia getTopologia() {
+        return topologia;
+    }
+
+    /**
+     * Calcula en 'destino' la siguiente generación de 'origen'.
+     */
+    void avanzar(MatrizBits origen, MatrizBits destino) {
+        rellenarHalo(origen);
+        final long[] h = halo;
+        final byte[] t = tabla;
+        final long[] dst = destino.palabras;
+        final int n = origen.getPalabrasPorFila();
+        final int m = palabrasPorFila;
+        final long mascara = origen.getMascaraUltimaPalabra();
+        for (int fila = 0; fila < alto; fila += 2) {
+            final int f0 = fila * m;
+            final int f1 = f0 + m;
+            final int f2 = f1 + m;
+            final int f3 = f2 + m;
+            for (int w = 0; w < n; w++) {
+                long p0 = h[f0 + w], q0 = h[f0 + w + 1];
+                long p1 = h[f1 + w], q1 = h[f1 + w + 1];
+                long p2 = h[f2 + w], q2 = h[f2 + w + 1];
+                long p3 = h[f3 + w], q3 = h[f3 + w + 1];
+                long arriba = 0;
+                long abajo = 0;
+                for (int s = 0; s < 64; s += 2) {
+                    int bloque = trozo(p0, q0, s)
+                            | trozo(p1, q1, s) << 4
+                            | trozo(p2, q2, s) << 8
+                            | trozo(p3, q3, s) << 12;
+                    long centro = t[bloque];
+                    arriba |= (centro & 3) << s;
+                    abajo |= (centro >>> 2 & 3) << s;
+                }
+                if (w == n - 1) {
+                    arriba &= mascara;
+                    abajo &= mascara;
+                }
+                dst[fila * n + w] = arriba;
+                if (fila + 1 < alto) {
+                    dst[(fila + 1) * n + w] = abajo;
+                }
+            }
+        }
+    }
+
+    /**
+     * Los 4 bits a partir de la columna 's' de la palabra 'actual', completados con los primeros bits de
+     * 'siguiente'. El doble desplazamiento evita el caso especial de s = 0.
+     */
+    private static int trozo(long actual, long siguiente, int s) {
+        return (int) (((actual >>> s) | (siguiente << 1 << (63 - s))) & 0xF);
+    }
+
+    /**
+     * Copia 'origen' en el halo desplazado una fila y una columna, y rellena el margen según la topología.
+     */
+    private void rellenarHalo(MatrizBits origen) {
+        for (int fila = 0; fila < alto; fila++) {
+            copiarFila(origen, fila, fila + 1);
+        }
+        if (topologia == Topologia.TOROIDAL) {
+            copiarFila(origen, alto - 1, 0);
+            copiarFila(origen, 0, alto + 1);
+        }
+    }
+
+    private void copiarFila(MatrizBits origen, int fila, int filaHalo) {
+        final long[] src = origen.palabras;
+        final int n = origen.getPalabrasPorFila();
+        final int desde = fila * n;
+        final int hasta = filaHalo * palabrasPorFila;
+        long anterior = 0;
+        for (int w = 0; w < n; w++) {
+            long palabra = src[desde + w];
+            halo[hasta + w] = (palabra << 1) | (anterior >>> 63);
+            anterior = palabra;
+        }
+        halo[hasta + n] = anterior >>> 63;
+        if (topologia == Topologia.TOROIDAL) {
+            // Columna 0 del halo: última columna del tablero; columna ancho + 1: primera columna
+            halo[hasta] |= src[desde + ((ancho - 1) >>> 6)] >>> (ancho - 1) & 1;
+            halo[hasta + ((ancho + 1) >>> 6)] |= (src[desde] & 1) << (ancho + 1);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+Copyright 2025 Pablo Lozano Hernández
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+either express or implied. See the License for the specific
+language governing permissions and limitations under the
+License.
+*/
+
+package com.aplicacion.dominio;
+
+/**
+ * Núcleo de cálculo del juego de la vida (B3/S23) sobre matrices empaquetadas en bits.
+ * <p>
+ * En lugar de contar los vecinos de cada célula por separado, se procesan 64 células a la vez:
+ * los ocho vecinos de cada bit se obtienen desplazando las palabras de las filas superior, actual
+ * e inferior, y se suman en paralelo mediante sumadores completos bit a bit. Las células fuera del
+ * tablero se consideran muertas, igual que en la versión original con matrices de enteros.
+ * </p>
+ */
+final class NucleoVida {
+
+    private NucleoVida() {
+    }
+
+    /**
+     * Calcula en 'destino' la siguiente generación de las filas [filaDesde, filaHasta) de 'origen'.
+     * <p>
+     * Solo se leen las filas vecinas de 'origen', por lo que varias llamadas sobre franjas disjuntas
+     * pueden ejecutarse a la vez.
+     * </p>
+     *
+     * @return {@code true} si alguna célula de la franja ha cambiado de estado.
+     */
+    static boolean avanzarFilas(MatrizBits origen, MatrizBits destino, int filaDesde, int filaHasta) {
+        return avanzarBloque(origen, destino, filaDesde, filaHasta, 0, origen.getPalabrasPorFila());
+    }
+
+    /**
+     * Calcula en 'destino' la siguiente generación del bloque formado por las filas [filaDesde, filaHasta)
+     * y las palabras [palabraDesde, palabraHasta) de cada una de ellas.
+     *
+     * @return {@code true} si alguna célula del bloque ha cambiado de estado.
+     */
+    static boolean avanzarBloque(MatrizBits origen, MatrizBits destino, int filaDesde, int filaHasta,
+                                 int palabraDesde, int palabraHasta) {
+        final long[] src = origen.palabras;
+        final long[] dst = destino.palabras;
+        final int n = origen.getPalabrasPorFila();
+        final int alto = origen.getAlto();
+        final long mascara = origen.getMascaraUltimaPalabra();
+        long cambios = 0;
+
+        for (int fila = filaDesde; fila < filaHasta; fila++) {
+            final int actual = fila * n;
+            final int arriba = fila > 0 ? actual - n : -1;
+            final int abajo = fila + 1 < alto ? actual + n : -1;
+            for (int w = palabraDesde; w < palabraHasta; w++) {
+                long c = src[actual + w];
+                long cIzq = w > 0 ? src[actual + w - 1] : 0L;
+                long cDer = w + 1 < n ? src[actual + w + 1] : 0L;
+
+                long a = 0, aIzq = 0, aDer = 0;
+                if (arriba >= 0) {
+                    a = src[arriba + w];
+                    aIzq = w > 0 ? src[arriba + w - 1] : 0L;
+                    aDer = w + 1 < n ? src[arriba + w + 1] : 0L;
+                }
+                long b = 0, bIzq = 0, bDer = 0;
+                if (abajo >= 0) {
+                    b = src[abajo + w];
+                    bIzq = w > 0 ? src[abajo + w - 1] : 0L;
+                    bDer = w + 1 < n ? src[abajo + w + 1] : 0L;
+                }
+
+                long siguiente = siguienteGeneracion(
+                        a, oeste(a, aIzq), este(a, aDer),
+                        c, oeste(c, cIzq), este(c, cDer),
+                        b, oeste(b, bIzq), este(b, bDer));
+                if (w == n - 1) {
+                    siguiente &= mascara;
+                }
+                cambios |= siguiente ^ c;
+                dst[actual + w] = siguiente;
+            }
+        }
+        return cambios != 0;
+    }
+
+    /**
+     * Desplaza la palabra para que cada bit contenga el estado de su vecino de la columna anterior.
+     */
+    private static long oeste(long palabra, long anterior) {
+        return (palabra << 1) | (anterior >>> 63);
+    }
+
+    /**
+     * Desplaza la palabra para que cada bit contenga el estado de su vecino de la columna posterior.
+     */
+    private static long este(long palabra, long posterior) {
+        return (palabra >>> 1) | (posterior << 63);
+    }
+
+    /**
+     * Aplica las reglas B3/S23 a 64 células a la vez a partir de sus ocho vecinos desplazados.
+     * <p>
+     * Los vecinos se suman con sumadores completos: 's0' es el bit de las unidades, 's1' el de las parejas
+     * y 'mayor' indica que hay cuatro o más vecinos. Una célula vive si hay exactamente 3 vecinos,
+     * o si hay 2 y ya estaba viva.
+     * </p>
+     */
+    private static long siguienteGeneracion(long a, long aOeste, long aEste,
+                                            long c, long cOeste, long cEste,
+                                            long b, long bOeste, long bEste) {
+        // Fila superior: suma de tres bits.
+        long sumaArriba = a ^ aOeste ^ aEste;
+        long acarreoArriba = (a & aOeste) | (aEste & (a ^ aOeste));
+        // Fila inferior: suma de tres bits.
+        long sumaAbajo = b ^ bOeste ^ bEste;
+        long acarreoAbajo = (b & bOeste) | (bEste & (b ^ bOeste));
+        // Fila actual: suma de dos bits (la propia célula no cuenta).
+        long sumaMedio = cOeste ^ cEste;
+        long acarreoMedio = cOeste & cEste;
+
+        // Unidades.
+        long s0 = sumaArriba ^ sumaAbajo ^ sumaMedio;
+        long acarreoUnidades = (sumaArriba & sumaAbajo) | (sumaMedio & (sumaArriba ^ sumaAbajo));
+
+        // Parejas: cuatro bits de peso 2.
+        long parcial = acarreoArriba ^ acarreoAbajo ^ acarreoMedio;
+        long cuatros = (acarreoArriba & acarreoAbajo) | (acarreoMedio & (acarreoArriba ^ acarreoAbajo));
+        long s1 = parcial ^ acarreoUnidades;
+        long mayor = cuatros | (parcial & acarreoUnidades);
+
+        return s1 & ~mayor & (s0 | c);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+Copyright 2025 Pablo Lozano Hernández
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+either express or implied. See the License for the specific
+language governing permissions and limitations under the
+License.
+*/
+
+package com.aplicacion.dominio;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Calcula la siguiente generación de un tablero repartiendo franjas horizontales de filas entre los hilos
+ * de un {@link ForkJoinPool}.
+ * <p>
+ * Cada franja escribe únicamente sus propias filas en la matriz destino y lee de la matriz origen tanto sus
+ * filas como las filas frontera (halo) de las franjas vecinas. Como la matriz origen no se modifica durante
+ * el paso, el resultado es idéntico al cálculo secuencial.
+ * </p>
+ */
+final class PasoParalelo {
+
+    /**
+     * Número mínimo de palabras de 64 bits para que merezca la pena repartir el trabajo.
+     */
+    static final int UMBRAL_PALABRAS = 1 << 14;
+
+    private final ForkJoinPool pool;
+    private final int paralelismo;
+
+    /**
+     * @param paralelismo Número de hilos que se usan para avanzar el tablero.
+     */
+    PasoParalelo(int paralelismo) {
+        if (paralelismo < 1) {
+            throw new IllegalArgumentException("El nivel de paralelismo debe ser positivo: " + paralelismo);
+        }
+        this.paralelismo = paralelismo;
+        this.pool = paralelismo == ForkJoinPool.getCommonPoolParallelism()
+                ? ForkJoinPool.commonPool()
+                : new ForkJoinPool(paralelismo);
+    }
+
+    int getParalelismo() {
+        return paralelismo;
+    }
+
+    /**
+     * Indica si el tablero es lo bastante grande como para avanzarlo en paralelo.
+     */
+    boolean merecePena(MatrizBits matriz) {
+        return paralelismo > 1
+                && matriz.getAlto() > 1
+                && (long) matriz.getAlto() * matriz.getPalabrasPorFila() >= UMBRAL_PALABRAS;
+    }
+
+    /**
+     * Calcula en 'destino' la siguiente generación de 'origen'.
+     *
+     * @return {@code true} si alguna célula ha cambiado de estado.
+     */
+    boolean avanzar(MatrizBits origen, MatrizBits destino) {
+        if (!merecePena(origen)) {
+            return NucleoVida.avanzarFilas(origen, destino, 0, origen.getAlto());
+        }
+        // Varias franjas por hilo para repartir mejor la carga si algún hilo se retrasa.
+        int franjas = Math.min(origen.getAlto(), paralelismo * 4);
+        int filasPorFranja = Math.max(1, (origen.getAlto() + franjas - 1) / franjas);
+        Franja tarea = new Franja(origen, destino, 0, origen.getAlto(), filasPorFranja);
+        pool.invoke(tarea);
+        return tarea.cambios;
+    }
+
+    /**
+     * Libera los hilos del pool si es propio.
+     */
+    void cerrar() {
+        if (pool != ForkJoinPool.commonPool()) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Tarea que divide el rango de filas en mitades hasta llegar al tamaño de franja.
+     */
+    private static final class Franja extends RecursiveAction {
+        private final MatrizBits origen;
+        private final MatrizBits destino;
+        private final int filaDesde;
+        private final int filaHasta;
+        private final int filasPorFranja;
+        private boolean cambios;
+
+        Franja(MatrizBits origen, MatrizBits destino, int filaDesde, int filaHasta, int filasPorFranja) {
+            this.origen = origen;
+            this.destino = destino;
+            this.filaDesde = filaDesde;
+            this.filaHasta = filaHasta;
+            this.filasPorFranja = filasPorFranja;
+        }
+
+        @Override
+        protected void compute() {
+            if (filaHasta - filaDesde <= filasPorFranja) {
+                cambios = NucleoVida.avanzarFilas(origen, destino, filaDesde, filaHasta);
+                return;
+            }
+            int mitad = (filaDesde + filaHasta) >>> 1;
+            Franja izquierda = new Franja(origen, destino, filaDesde, mitad, filasPorFranja);
+            Franja derecha = new Franja(origen, destino, mitad, filaHasta, filasPorFranja);
+            invokeAll(izquierda, derecha);
+            cambios = izquierda.cambios || derecha.cambios;
+        }
+    }
+}
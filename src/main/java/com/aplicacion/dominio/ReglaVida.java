@@ -0,0 +1,185 @@
+/*
+Copyright 2025 Pablo Lozano Hernández
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+either express or implied. See the License for the specific
+language governing permissions and limitations under the
+License.
+*/
+package com.aplicacion.dominio;
+
+import java.util.Locale;
+
+/**
+ * Regla de un autómata celular de tipo vida, con la notación {@code B…/S…}: los dígitos tras la {@code B}
+ * son los números de vecinos con los que nace una célula muerta, y los de tras la {@code S}, los números de
+ * vecinos con los que sobrevive una célula viva. Por ejemplo, {@code B3/S23} es el juego de la vida de
+ * Conway, {@code B36/S23} es HighLife, {@code B2/S} es Seeds y {@code B3678/S34678} es Day &amp; Night.
+ * <p>
+ * Al crearse, la regla se compila en una tabla de 65536 entradas indexada por un bloque de 4x4 células
+ * empaquetado en 16 bits (bit {@code 4 * fila + columna}); cada entrada guarda en 4 bits el estado siguiente
+ * del bloque de 2x2 células del centro (bits {@code 2 * fila + columna}). Así, {@link MotorReglas} calcula
+ * una generación consultando la tabla una vez por cada 4 células, sin contar vecinos ni evaluar la regla.
+ * </p>
+ */
+public final class ReglaVida {
+
+    /** Juego de la vida de Conway. */
+    public static final ReglaVida CONWAY = analizar("B3/S23");
+
+    private final int nacimiento;
+    private final int supervivencia;
+    private final byte[] tabla;
+
+    private ReglaVida(int nacimiento, int supervivencia) {
+        this.nacimiento = nacimiento;
+        this.supervivencia = supervivencia;
+        this.tabla = compilar(nacimiento, supervivencia);
+    }
+
+    /**
+     * Analiza una regla con la forma {@code B…/S…} (también {@code S…/B…} y la forma antigua {@code S/B}
+     * solo con dígitos, como {@code 23/3}). No distingue mayúsculas de minúsculas.
+     *
+     * @param texto Regla en texto.
+     * @return La regla compilada.
+     * @throws IllegalArgumentException si el texto no es una regla válida.
+     */
+    public static ReglaVida analizar(String texto) {
+        String[] partes = texto.trim().toUpperCase(Locale.ROOT).split("/", -1);
+        if (partes.length != 2) {
+            throw new IllegalArgumentException("Regla no válida, se esperaba B…/S…: " + texto);
+        }
+        int nacimiento = -1;
+        int supervivencia = -1;
+        for (int i = 0; i < 2; i++) {
+            String parte = partes[i];
+            if (parte.startsWith("B") && nacimiento < 0) {
+                nacimiento = vecinos(parte.substring(1), texto);
+            } else if (parte.startsWith("S") && supervivencia < 0) {
+                supervivencia = vecinos(parte.substring(1), texto);
+            } else if (parte.isEmpty() || Character.isDigit(parte.charAt(0))) {
+                // Forma antigua: supervivencia/nacimiento
+                if (i == 0 && supervivencia < 0) {
+                    supervivencia = vecinos(parte, texto);
+                } else if (i == 1 && nacimiento < 0) {
+                    nacimiento = vecinos(parte, texto);
+                } else {
+                    throw new IllegalArgumentException("Regla no válida: " + texto);
+                }
+            } else {
+                throw new IllegalArgumentException("Regla no válida: " + texto);
+            }
+        }
+        return new ReglaVida(nacimiento, supervivencia);
+    }
+
+    private static int vecinos(String digitos, String texto) {
+        int mascara = 0;
+        for (int i = 0; i < digitos.length(); i++) {
+            char c = digitos.charAt(i);
+            if (c < '0' || c > '8') {
+                throw new IllegalArgumentException("Número de vecinos no válido en la regla: " + texto);
+            }
+            mascara |= 1 << (c - '0');
+        }
+        return mascara;
+    }
+
+    /**
+     * Calcula el estado siguiente del centro de 2x2 de cada bloque de 4x4 posible.
+     */
+    private static byte[] compilar(int nacimiento, int supervivencia) {
+        int[] vecindario = new int[4];
+        for (int k = 0; k < 4; k++) {
+            int fila = 1 + (k >> 1);
+            int columna = 1 + (k & 1);
+            int mascara = 0;
+            for (int df = -1; df <= 1; df++) {
+                for (int dc = -1; dc <= 1; dc++) {
+                    if (df != 0 || dc != 0) {
+                        mascara |= 1 << (4 * (fila + df) + columna + dc);
+                    }
+                }
+            }
+            vecindario[k] = mascara;
+        }
+        byte[] tabla = new byte[1 << 16];
+        for (int bloque = 0; bloque < tabla.length; bloque++) {
+            int salida = 0;
+            for (int k = 0; k < 4; k++) {
+                int vecinos = Integer.bitCount(bloque & vecindario[k]);
+                boolean viva = (bloque >>> (4 * (1 + (k >> 1)) + 1 + (k & 1)) & 1) != 0;
+                int regla = viva ? supervivencia : nacimiento;
+                salida |= ((regla >>> vecinos) & 1) << k;
+            }
+            tabla[bloque] = (byte) salida;
+        }
+        return tabla;
+    }
+
+    /**
+     * Tabla compilada: estado siguiente (4 bits) del centro de cada bloque de 4x4 células (16 bits).
+     */
+    byte[] getTabla() {
+        return tabla;
+    }
+
+    /**
+     * @param vecinos Número de vecinos vivos, de 0 a 8.
+     * @return {@code true} si una célula muerta con esos vecinos nace.
+     */
+    public boolean nace(int vecinos) {
+        return (nacimiento >>> vecinos & 1) != 0;
+    }
+
+    /**
+     * @param vecinos Número de vecinos vivos, de 0 a 8.
+     * @return {@code true} si una célula viva con esos vecinos sobrevive.
+     */
+    public boolean sobrevive(int vecinos) {
+        return (supervivencia >>> vecinos & 1) != 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ReglaVida)) {
+            return false;
+        }
+        ReglaVida otra = (ReglaVida) o;
+        return nacimiento == otra.nacimiento && supervivencia == otra.supervivencia;
+    }
+
+    @Override
+    public int hashCode() {
+        return nacimiento * 512 + supervivencia;
+    }
+
+    /**
+     * @return La regla en la forma {@code B…/S…}, con los dígitos en orden.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("B");
+        for (int i = 0; i <= 8; i++) {
+            if (nace(i)) {
+                sb.append(i);
+            }
+        }
+        sb.append("/S");
+        for (int i = 0; i <= 8; i++) {
+            if (sobrevive(i)) {
+                sb.append(i);
+            }
+        }
+        return sb.toString();
+    }
+}
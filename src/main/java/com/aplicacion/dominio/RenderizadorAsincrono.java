@@ -0,0 +1,248 @@
+/*
+Copyright 2025 Pablo Lozano Hernández
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+either express or implied. See the License for the specific
+language governing permissions and limitations under the
+License.
+*/
+package com.aplicacion.dominio;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Muestra tableros desde un hilo propio, para que la simulación no espere nunca a la consola.
+ * <p>
+ * {@link #publicar(Tablero, long)} copia el estado actual del tablero en un fotograma y lo deja en una cola
+ * acotada, sin bloquearse: si la cola está llena porque la salida va más lenta que la simulación, se descarta
+ * el fotograma más antiguo que aún no se ha mostrado. Un fotograma no se modifica mientras está en la cola;
+ * cuando el hilo de salida termina con él, vuelve a una reserva para que la simulación reutilice su matriz.
+ * </p>
+ * <p>
+ * El hilo de salida codifica cada fila directamente en un único buffer reutilizado ('x' para las células vivas y un
+ * espacio para las muertas, como {@link Tablero#toString()}, seguido de una línea en blanco) y lo escribe en el canal
+ * cada vez que se llena y al final de cada fotograma.
+ * </p>
+ */
+public class RenderizadorAsincrono implements Closeable {
+
+    private static final int TAMANO_BUFFER = 1 << 16;
+    private static final byte[] CABECERA = "Generación ".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] FINAL = " (final)".getBytes(StandardCharsets.UTF_8);
+    private static final Fotograma FIN = new Fotograma(1, 1);
+
+    private final WritableByteChannel canal;
+    private final BlockingQueue<Fotograma> cola;
+    private final BlockingQueue<Fotograma> reserva;
+    private final Thread hilo;
+    private final AtomicLong publicados = new AtomicLong();
+    private final AtomicLong descartados = new AtomicLong();
+    private final AtomicLong mostrados = new AtomicLong();
+    private volatile IOException error;
+    private boolean cerrado;
+
+    /**
+     * Copia del estado de un tablero en una generación.
+     */
+    private static final class Fotograma {
+        private final MatrizBits celulas;
+        private long generacion;
+        private boolean ultimo;
+
+        Fotograma(int ancho, int alto) {
+            celulas = new MatrizBits(ancho, alto);
+        }
+    }
+
+    /**
+     * Crea el renderizador y arranca su hilo.
+     *
+     * @param canal     Canal en el que se escriben los tableros; no se cierra al cerrar el renderizador.
+     * @param capacidad Número máximo de fotogramas pendientes de mostrar.
+     */
+    public RenderizadorAsincrono(WritableByteChannel canal, int capacidad) {
+        if (capacidad < 1) {
+            throw new IllegalArgumentException("La capacidad debe ser positiva: " + capacidad);
+        }
+        this.canal = canal;
+        this.cola = new ArrayBlockingQueue<>(capacidad);
+        this.reserva = new ArrayBlockingQueue<>(capacidad + 2);
+        this.hilo = new Thread(this::mostrar, "renderizador");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    /**
+     * Publica el estado actual del tablero sin esperar a que se muestre.
+     *
+     * @param tablero    Tablero que se muestra.
+     * @param generacion Número de generación que se muestra en la cabecera.
+     * @return {@code false} si hubo que descartar un fotograma anterior para hacer sitio.
+     * @throws IllegalStateException si el renderizador ya está cerrado.
+     */
+    public boolean publicar(Tablero tablero, long generacion) {
+        return publicar(tablero, generacion, false);
+    }
+
+    /**
+     * Publica el estado actual del tablero marcado como final ("(final)" tras el número de generación).
+     *
+     * @see #publicar(Tablero, long)
+     */
+    public boolean publicarFinal(Tablero tablero, long generacion) {
+        return publicar(tablero, generacion, true);
+    }
+
+    private boolean publicar(Tablero tablero, long generacion, boolean ultimo) {
+        if (cerrado) {
+            throw new IllegalStateException("El renderizador está cerrado");
+        }
+        Fotograma fotograma = reserva.poll();
+        if (fotograma == null || fotograma.celulas.getAncho() != tablero.getAncho()
+                || fotograma.celulas.getAlto() != tablero.getAlto()) {
+            fotograma = new Fotograma(tablero.getAncho(), tablero.getAlto());
+        }
+        tablero.copiarEstadoActualEn(fotograma.celulas);
+        fotograma.generacion = generacion;
+        fotograma.ultimo = ultimo;
+        publicados.incrementAndGet();
+        boolean sinDescartes = true;
+        while (!cola.offer(fotograma)) {
+            Fotograma antiguo = cola.poll();
+            if (antiguo != null) {
+                descartados.incrementAndGet();
+                reserva.offer(antiguo);
+                sinDescartes = false;
+            }
+        }
+        return sinDescartes;
+    }
+
+    /**
+     * Espera a que se muestren los fotogramas pendientes y detiene el hilo.
+     *
+     * @throws IOException si falló alguna escritura en el canal.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!cerrado) {
+            cerrado = true;
+            try {
+                cola.put(FIN);
+                hilo.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                hilo.interrupt();
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Devuelve el número de fotogramas publicados.
+     */
+    public long getPublicados() {
+        return publicados.get();
+    }
+
+    /**
+     * Devuelve el número de fotogramas descartados porque la salida iba más lenta que la simulación.
+     */
+    public long getDescartados() {
+        return descartados.get();
+    }
+
+    /**
+     * Devuelve el número de fotogramas escritos en el canal.
+     */
+    public long getMostrados() {
+        return mostrados.get();
+    }
+
+    /**
+     * Bucle del hilo de salida. Tras un error de escritura se siguen retirando los fotogramas, sin escribirlos,
+     * para que la simulación no note la diferencia.
+     */
+    private void mostrar() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(TAMANO_BUFFER);
+        byte[] digitos = new byte[20];
+        try {
+            while (true) {
+                Fotograma fotograma = cola.take();
+                if (fotograma == FIN) {
+                    return;
+                }
+                if (error == null) {
+                    try {
+                        escribir(fotograma, buffer, digitos);
+                        mostrados.incrementAndGet();
+                    } catch (IOException e) {
+                        error = e;
+                    }
+                }
+                reserva.offer(fotograma);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void escribir(Fotograma fotograma, ByteBuffer buffer, byte[] digitos) throws IOException {
+        MatrizBits celulas = fotograma.celulas;
+        buffer.put(CABECERA);
+        long numero = fotograma.generacion;
+        int n = 0;
+        do {
+            digitos[n++] = (byte) ('0' + numero % 10);
+            numero /= 10;
+        } while (numero > 0);
+        while (n > 0) {
+            buffer.put(digitos[--n]);
+        }
+        if (fotograma.ultimo) {
+            buffer.put(FINAL);
+        }
+        buffer.put((byte) '\n');
+        int ancho = celulas.getAncho();
+        for (int fila = 0; fila < celulas.getAlto(); fila++) {
+            for (int w = 0; w < celulas.getPalabrasPorFila(); w++) {
+                long palabra = celulas.getPalabra(fila, w);
+                int columnas = Math.min(64, ancho - (w << 6));
+                if (buffer.remaining() < columnas + 1) {
+                    vaciar(buffer);
+                }
+                for (int bit = 0; bit < columnas; bit++) {
+                    buffer.put((palabra & (1L << bit)) != 0 ? (byte) 'x' : (byte) ' ');
+                }
+            }
+            buffer.put((byte) '\n');
+        }
+        if (!buffer.hasRemaining()) {
+            vaciar(buffer);
+        }
+        buffer.put((byte) '\n');
+        vaciar(buffer);
+    }
+
+    private void vaciar(ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,140 @@
+/*
+Copyright 2025 Pablo Lozano Hernández
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+either express or implied. See the License for the specific
+language governing permissions and limitations under the
+License.
+*/
+
+package com.aplicacion.dominio;
+
+import java.util.Arrays;
+
+/**
+ * Avance por teselas que solo recalcula las zonas del tablero que pueden cambiar.
+ * <p>
+ * El tablero se divide en teselas de {@value #FILAS_POR_TESELA} filas por 64 columnas (una palabra). Una
+ * tesela solo puede cambiar en la siguiente generación si ella o alguna de sus ocho vecinas cambió en la
+ * generación anterior; el resto se omite, porque su contenido en la matriz destino ya es el correcto.
+ * Se guarda la lista de teselas que cambiaron en el último paso, de modo que el coste de cada generación
+ * depende de la actividad del tablero y no de su área.
+ * </p>
+ */
+final class SeguimientoActividad {
+
+    static final int FILAS_POR_TESELA = 64;
+
+    private final int teselasAlto;
+    private final int teselasAncho;
+    private final int alto;
+    private final int[] sello;
+    private int paso;
+    private int[] cambiadas;
+    private int numCambiadas;
+    private int[] nuevasCambiadas;
+    private final int[] aEvaluar;
+    private boolean todoPendiente = true;
+
+    private int evaluadasUltimoPaso;
+    private int omitidasUltimoPaso;
+
+    SeguimientoActividad(int ancho, int alto) {
+        this.alto = alto;
+        this.teselasAlto = (alto + FILAS_POR_TESELA - 1) / FILAS_POR_TESELA;
+        this.teselasAncho = (ancho + 63) >>> 6;
+        int total = teselasAlto * teselasAncho;
+        this.sello = new int[total];
+        this.cambiadas = new int[total];
+        this.nuevasCambiadas = new int[total];
+        this.aEvaluar = new int[total];
+    }
+
+    /**
+     * Obliga a evaluar todas las teselas en el próximo paso, por ejemplo tras cargar un estado nuevo.
+     */
+    void marcarTodo() {
+        todoPendiente = true;
+    }
+
+    /**
+     * Calcula en 'destino' la siguiente generación de 'origen'.
+     * <p>
+     * Las teselas omitidas no se escriben, por lo que 'destino' debe contener ya el estado de 'origen'
+     * en todas las teselas que no cambiaron en el paso anterior. Es lo que ocurre si 'destino' es la matriz
+     * del estado anterior a 'origen', como en el intercambio de matrices de {@link Tablero}.
+     * </p>
+     */
+    void avanzar(MatrizBits origen, MatrizBits destino) {
+        int total = sello.length;
+        int numEvaluar = 0;
+        if (todoPendiente) {
+            for (int t = 0; t < total; t++) {
+                aEvaluar[numEvaluar++] = t;
+            }
+            todoPendiente = false;
+        } else {
+            // El sello evita vaciar un array de marcas en cada paso.
+            if (++paso == 0) {
+                Arrays.fill(sello, 0);
+                paso = 1;
+            }
+            for (int i = 0; i < numCambiadas; i++) {
+                int tf = cambiadas[i] / teselasAncho;
+                int tc = cambiadas[i] % teselasAncho;
+                for (int f = Math.max(0, tf - 1); f <= Math.min(teselasAlto - 1, tf + 1); f++) {
+                    for (int c = Math.max(0, tc - 1); c <= Math.min(teselasAncho - 1, tc + 1); c++) {
+                        int t = f * teselasAncho + c;
+                        if (sello[t] != paso) {
+                            sello[t] = paso;
+                            aEvaluar[numEvaluar++] = t;
+                        }
+                    }
+                }
+            }
+        }
+
+        int numNuevas = 0;
+        for (int i = 0; i < numEvaluar; i++) {
+            int t = aEvaluar[i];
+            int filaDesde = (t / teselasAncho) * FILAS_POR_TESELA;
+            int filaHasta = Math.min(alto, filaDesde + FILAS_POR_TESELA);
+            int palabra = t % teselasAncho;
+            if (NucleoVida.avanzarBloque(origen, destino, filaDesde, filaHasta, palabra, palabra + 1)) {
+                nuevasCambiadas[numNuevas++] = t;
+            }
+        }
+        int[] tmp = cambiadas;
+        cambiadas = nuevasCambiadas;
+        nuevasCambiadas = tmp;
+        numCambiadas = numNuevas;
+        evaluadasUltimoPaso = numEvaluar;
+        omitidasUltimoPaso = total - numEvaluar;
+    }
+
+    int getEvaluadasUltimoPaso() {
+        return evaluadasUltimoPaso;
+    }
+
+    int getOmitidasUltimoPaso() {
+        return omitidasUltimoPaso;
+    }
+
+    int getCambiadasUltimoPaso() {
+        return numCambiadas;
+    }
+
+    /**
+     * Devuelve las teselas que cambiaron en el último paso, en las {@link #getCambiadasUltimoPaso()} primeras
+     * posiciones. La tesela de la fila de teselas 'f' y la palabra 'c' tiene el índice f * palabrasPorFila + c.
+     * El array se reutiliza en el paso siguiente.
+     */
+    int[] getTeselasCambiadas() {
+        return cambiadas;
+    }
+}
@@ -14,9 +14,11 @@ License.
 
 package com.aplicacion.dominio;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
+import com.aplicacion.metricas.EventoGeneracion;
+import com.aplicacion.metricas.Metricas;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Random;
 
 /**
@@ -27,16 +29,278 @@ import java.util.Random;
 public class Tablero {
 
     private static final int DIMENSION = 30;
-    private int[][] estadoActual;
-    private int[][] estadoSiguiente;
+    private final int ancho;
+    private final int alto;
+    private MatrizBits estadoActual;
+    private MatrizBits estadoSiguiente;
+    private PasoParalelo pasoParalelo;
+    private SeguimientoActividad seguimiento;
+    private DetectorCiclos detector;
+    private MotorReglas motorReglas;
+    private long generacion;
 
     /**
      * Constructor de la clase Tablero.
-     * Inicializa las matrices para el estado actual y el siguiente.
+     * Inicializa las matrices para el estado actual y el siguiente con la dimensión por defecto (30x30).
      */
     public Tablero() {
-        estadoActual = new int[DIMENSION][DIMENSION];
-        estadoSiguiente = new int[DIMENSION][DIMENSION];
+        this(DIMENSION, DIMENSION);
+    }
+
+    /**
+     * Crea un tablero con el ancho y el alto indicados.
+     * <p>
+     * Las células se guardan empaquetadas a razón de un bit por célula, por lo que es posible trabajar con
+     * tableros de decenas de miles de filas y columnas.
+     * </p>
+     *
+     * @param ancho Número de columnas del tablero.
+     * @param alto  Número de filas del tablero.
+     */
+    public Tablero(int ancho, int alto) {
+        this.ancho = ancho;
+        this.alto = alto;
+        estadoActual = new MatrizBits(ancho, alto);
+        estadoSiguiente = new MatrizBits(ancho, alto);
+    }
+
+    public int getAncho() {
+        return ancho;
+    }
+
+    public int getAlto() {
+        return alto;
+    }
+
+    /**
+     * Configura el número de hilos con el que se calculan las generaciones.
+     * <p>
+     * Con un nivel mayor que 1, el tablero se divide en franjas horizontales de filas que se avanzan en
+     * paralelo; los tableros pequeños se siguen calculando en un solo hilo porque repartirlos costaría más
+     * que calcularlos. Con un nivel de 1 se vuelve al cálculo secuencial.
+     * </p>
+     *
+     * @param nivel Número de hilos, mayor o igual que 1.
+     */
+    public void configurarParalelismo(int nivel) {
+        if (nivel < 1) {
+            throw new IllegalArgumentException("El nivel de paralelismo debe ser positivo: " + nivel);
+        }
+        if (pasoParalelo != null) {
+            pasoParalelo.cerrar();
+        }
+        pasoParalelo = nivel > 1 ? new PasoParalelo(nivel) : null;
+    }
+
+    /**
+     * Devuelve el número de hilos con el que se calculan las generaciones.
+     */
+    public int getParalelismo() {
+        return pasoParalelo == null ? 1 : pasoParalelo.getParalelismo();
+    }
+
+    /**
+     * Activa o desactiva el avance por teselas con seguimiento de la actividad.
+     * <p>
+     * Con el seguimiento activo, el tablero se divide en teselas y en cada generación solo se recalculan las
+     * que cambiaron en la generación anterior y sus vecinas; las zonas vacías o con vidas estáticas se omiten.
+     * En este modo el cálculo es secuencial, ya que el trabajo por generación suele ser pequeño.
+     * </p>
+     *
+     * @param activo {@code true} para activar el seguimiento.
+     */
+    public void configurarSeguimientoDeActividad(boolean activo) {
+        if (activo && seguimiento == null) {
+            seguimiento = new SeguimientoActividad(ancho, alto);
+            // El primer paso evalúa todas las teselas para saber cuáles cambian.
+            calcularEstadoSiguiente();
+        } else if (!activo) {
+            seguimiento = null;
+        }
+    }
+
+    /**
+     * Devuelve el número de teselas recalculadas en la última generación, o -1 si el seguimiento de
+     * actividad no está activo.
+     */
+    public int getTeselasEvaluadas() {
+        return seguimiento == null ? -1 : seguimiento.getEvaluadasUltimoPaso();
+    }
+
+    /**
+     * Devuelve el número de teselas omitidas en la última generación, o -1 si el seguimiento de
+     * actividad no está activo.
+     */
+    public int getTeselasOmitidas() {
+        return seguimiento == null ? -1 : seguimiento.getOmitidasUltimoPaso();
+    }
+
+    /**
+     * Devuelve el número de teselas con alguna célula que cambió en la última generación, o -1 si el
+     * seguimiento de actividad no está activo.
+     */
+    public int getTeselasActivas() {
+        return seguimiento == null ? -1 : seguimiento.getCambiadasUltimoPaso();
+    }
+
+    /**
+     * Cambia la regla y la topología con las que se calculan las generaciones.
+     * <p>
+     * Con una regla, las generaciones se calculan con la tabla compilada de la regla ({@link ReglaVida}) y el
+     * paralelismo y el seguimiento de actividad no se usan, ya que ambos dependen del núcleo de B3/S23 con
+     * bordes fijos; con {@code null} se vuelve a ese núcleo, que es el que se usa por defecto. El estado
+     * siguiente se recalcula con la nueva regla.
+     * </p>
+     *
+     * @param regla     Regla de nacimiento y supervivencia, o {@code null} para el núcleo por defecto.
+     * @param topologia Tratamiento de los bordes; se ignora si 'regla' es {@code null}.
+     */
+    public void configurarRegla(ReglaVida regla, Topologia topologia) {
+        if (regla != null && topologia == null) {
+            throw new IllegalArgumentException("La topología no puede ser nula");
+        }
+        motorReglas = regla == null ? null : new MotorReglas(regla, topologia, ancho, alto);
+        if (detector != null) {
+            detector.reiniciar(estadoActual, generacion);
+        }
+        recalcularDesdeCero();
+    }
+
+    /**
+     * Devuelve la regla con la que se calculan las generaciones.
+     */
+    public ReglaVida getRegla() {
+        return motorReglas == null ? ReglaVida.CONWAY : motorReglas.getRegla();
+    }
+
+    /**
+     * Devuelve la topología con la que se calculan las generaciones.
+     */
+    public Topologia getTopologia() {
+        return motorReglas == null ? Topologia.FIJA : motorReglas.getTopologia();
+    }
+
+    /**
+     * Activa o desactiva la detección de vidas estáticas y osciladores.
+     * <p>
+     * Con la detección activa se mantiene un hash del estado que se actualiza solo con las células que cambian
+     * y se recuerdan los hashes de las últimas 'periodoMaximo' generaciones, de modo que se detectan los ciclos
+     * de periodo 1 a 'periodoMaximo' en cuanto el estado se repite. Una vez detectado un ciclo,
+     * {@link #avanzarGeneraciones(long)} salta a cualquier generación posterior simulando, como mucho, un
+     * periodo. La historia empieza en el estado actual y se olvida cada vez que se sustituye el estado.
+     * </p>
+     *
+     * @param periodoMaximo Periodo más largo que se detecta; 0 desactiva la detección.
+     */
+    public void configurarDeteccionDeCiclos(int periodoMaximo) {
+        if (periodoMaximo < 0) {
+            throw new IllegalArgumentException("El periodo máximo no puede ser negativo: " + periodoMaximo);
+        }
+        detector = periodoMaximo > 0 ? new DetectorCiclos(ancho, periodoMaximo, this::avanzarAislado) : null;
+        if (detector != null) {
+            detector.reiniciar(estadoActual, generacion);
+        }
+    }
+
+    /**
+     * Devuelve el número de generaciones transcurridas desde que se cargó o generó el estado inicial.
+     */
+    public long getGeneracion() {
+        return generacion;
+    }
+
+    /**
+     * Indica si se ha detectado que el tablero ha entrado en un ciclo.
+     */
+    public boolean hayCiclo() {
+        return detector != null && detector.hayCiclo();
+    }
+
+    /**
+     * Devuelve la primera generación del ciclo detectado, o -1 si no se ha detectado ninguno.
+     */
+    public long getInicioCiclo() {
+        return hayCiclo() ? detector.getInicioCiclo() : -1;
+    }
+
+    /**
+     * Devuelve el periodo del ciclo detectado (1 para una vida estática), o 0 si no se ha detectado ninguno.
+     */
+    public int getPeriodoCiclo() {
+        return hayCiclo() ? detector.getPeriodo() : 0;
+    }
+
+    /**
+     * Avanza generaciones hasta detectar un ciclo o hasta agotar el máximo indicado, lo que ocurra antes.
+     *
+     * @param maximo Número máximo de generaciones que se avanzan.
+     * @return {@code true} si se ha detectado un ciclo.
+     */
+    public boolean avanzarHastaCiclo(long maximo) {
+        for (long i = 0; i < maximo && !hayCiclo(); i++) {
+            transitarAlEstadoSiguiente();
+        }
+        return hayCiclo();
+    }
+
+    /**
+     * Avanza el número de generaciones indicado. Si se ha detectado un ciclo (antes o durante el avance),
+     * las generaciones restantes no se simulan: se toma directamente la fase del ciclo que corresponde.
+     *
+     * @param generaciones Número de generaciones que se avanzan.
+     */
+    public void avanzarGeneraciones(long generaciones) {
+        if (generaciones < 0) {
+            throw new IllegalArgumentException("El número de generaciones no puede ser negativo: " + generaciones);
+        }
+        long restantes = generaciones;
+        while (restantes > 0 && !hayCiclo()) {
+            transitarAlEstadoSiguiente();
+            restantes--;
+        }
+        if (restantes > 0) {
+            generacion += restantes;
+            detector.copiarFase(generacion, estadoActual);
+            recalcularDesdeCero();
+        }
+    }
+
+    /**
+     * Indica si la célula de la posición (fila, columna) está viva en el estado actual.
+     */
+    public boolean estaViva(int fila, int columna) {
+        return estadoActual.get(fila, columna);
+    }
+
+    /**
+     * Devuelve el número de células vivas del estado actual.
+     */
+    public long contarVivas() {
+        return estadoActual.contarVivas();
+    }
+
+    /**
+     * Copia el estado actual en 'destino', que debe tener las mismas dimensiones que el tablero.
+     */
+    void copiarEstadoActualEn(MatrizBits destino) {
+        estadoActual.copiarEn(destino);
+    }
+
+    /**
+     * Devuelve una copia del estado actual del tablero.
+     */
+    public MatrizBits obtenerEstadoActual() {
+        return new MatrizBits(estadoActual);
+    }
+
+    /**
+     * Sustituye el estado actual por una copia de 'estado' y calcula el estado siguiente.
+     *
+     * @param estado Matriz con las mismas dimensiones que el tablero.
+     */
+    public void cargarEstado(MatrizBits estado) {
+        estado.copiarEn(estadoActual);
+        estadoSustituido();
     }
 
     /**
@@ -44,32 +308,46 @@ public class Tablero {
      * <p>
      * La secuencia de ceros y unos del fichero se guarda en 'estadoActual' y, utilizando las reglas del juego
      * de la vida, se generan los ceros y unos correspondientes en 'estadoSiguiente'.
-     * Se asume que el fichero contiene 30 filas y 30 columnas.
+     * Se asume que el fichero contiene tantas filas y columnas como el tablero; las que falten se
+     * consideran muertas.
      * </p>
      */
     public void leerEstadoActual() {
-    try (BufferedReader br = new BufferedReader(new FileReader("src/main/java/com/dominio/matriz.txt"))) {
-        for (int i = 0; i < DIMENSION; i++) {
-            String linea = br.readLine();
-            if (linea != null) {
-                // Eliminar todos los espacios en blanco de la línea
-                linea = linea.replaceAll("\\s+", "");
-                for (int j = 0; j < DIMENSION; j++) {
-                    estadoActual[i][j] = Character.getNumericValue(linea.charAt(j));
-                }
-            } else {
-                // Si por alguna razón la línea es nula, se llena la fila de ceros.
-                for (int j = 0; j < DIMENSION; j++) {
-                    estadoActual[i][j] = 0;
-                }
-            }
+        try {
+            leerEstadoActual(Paths.get("src/main/java/com/dominio/matriz.txt"));
+        } catch (IOException e) {
+            e.printStackTrace();
         }
-    } catch (IOException e) {
-        e.printStackTrace();
     }
-    // Una vez leído el estado actual, se calcula el estado siguiente.
-    calcularEstadoSiguiente();
-}
+
+    /**
+     * Lee el estado actual desde el fichero indicado y calcula el estado siguiente.
+     * <p>
+     * El formato se deduce de la extensión del fichero (véase {@link FormatoTablero#desdeExtension(Path)}).
+     * Si el fichero tiene otras dimensiones que el tablero, se copia la parte que cabe a partir de la esquina
+     * superior izquierda y el resto del tablero queda con células muertas.
+     * </p>
+     *
+     * @param ruta Ruta del fichero.
+     * @throws IOException si el fichero no se puede leer o su contenido no es válido.
+     */
+    public void leerEstadoActual(Path ruta) throws IOException {
+        LectorTablero.leer(ruta).copiarRecortadoEn(estadoActual);
+        // Una vez leído el estado actual, se calcula el estado siguiente.
+        estadoSustituido();
+    }
+
+    /**
+     * Guarda el estado actual en el fichero indicado, en el formato que corresponde a su extensión. En RLE
+     * se anotan también la regla y la topología del tablero.
+     *
+     * @param ruta Ruta del fichero; se sobrescribe si existe.
+     * @throws IOException si no se puede escribir el fichero.
+     */
+    public void guardarEstadoActual(Path ruta) throws IOException {
+        EscritorTablero.escribir(estadoActual, ruta, FormatoTablero.desdeExtension(ruta), getRegla(),
+                getTopologia());
+    }
 
     /**
      * Genera un estado inicial aleatorio para el tablero.
@@ -80,27 +358,97 @@ public class Tablero {
      * </p>
      */
     public void generarEstadoActualPorMontecarlo() {
-        Random random = new Random();
-        for (int i = 0; i < DIMENSION; i++) {
-            for (int j = 0; j < DIMENSION; j++) {
-                // Si el número aleatorio es menor que 0,5, la celda está viva.
-                estadoActual[i][j] = (random.nextDouble() < 0.5) ? 1 : 0;
+        generarEstadoActualPorMontecarlo(new Random(), 0.5);
+    }
+
+    /**
+     * Genera un estado inicial aleatorio reproducible: con la misma semilla y densidad se obtiene siempre el
+     * mismo tablero.
+     *
+     * @param semilla  Semilla del generador de números aleatorios.
+     * @param densidad Probabilidad de que cada celda esté viva, en [0, 1].
+     */
+    public void generarEstadoActualPorMontecarlo(long semilla, double densidad) {
+        if (!(densidad >= 0 && densidad <= 1)) {
+            throw new IllegalArgumentException("La densidad debe estar en [0, 1]: " + densidad);
+        }
+        generarEstadoActualPorMontecarlo(new Random(semilla), densidad);
+    }
+
+    private void generarEstadoActualPorMontecarlo(Random random, double densidad) {
+        for (int i = 0; i < alto; i++) {
+            for (int j = 0; j < ancho; j++) {
+                // Si el número aleatorio es menor que la densidad, la celda está viva.
+                estadoActual.set(i, j, random.nextDouble() < densidad);
             }
         }
         // Calcular el estado siguiente basado en el estado actual generado.
-        calcularEstadoSiguiente();
+        estadoSustituido();
     }
 
     /**
      * Transita al estado siguiente según las reglas del juego de la vida.
      * <p>
-     * La variable 'estadoActual' se actualiza copiando el contenido de 'estadoSiguiente' y,
-     * a continuación, se recalcula 'estadoSiguiente' en base al nuevo estado actual.
+     * Las matrices 'estadoActual' y 'estadoSiguiente' se intercambian, sin copiar ninguna célula, y a
+     * continuación se recalcula 'estadoSiguiente' en base al nuevo estado actual, sobre la matriz que tenía
+     * el estado anterior.
+     * </p>
+     * <p>
+     * Si hay métricas activas ({@link Metricas}) o una grabación de JFR con {@link EventoGeneracion}, se mide
+     * la duración del paso y se cuentan las células vivas y las que cambian; si no, no se mide nada.
      * </p>
      */
     public void transitarAlEstadoSiguiente() {
-        // Actualizar estadoActual con el contenido de estadoSiguiente.
-        copiarMatriz(estadoSiguiente, estadoActual);
+        EventoGeneracion evento = Metricas.jfrActivo() ? new EventoGeneracion() : null;
+        if (Metricas.activas() || evento != null && evento.isEnabled()) {
+            transitarMidiendo(evento);
+        } else {
+            transitar();
+        }
+    }
+
+    /**
+     * @param evento Evento de JFR del paso, o {@code null} si Flight Recorder no está en marcha.
+     */
+    private void transitarMidiendo(EventoGeneracion evento) {
+        long vivas = estadoSiguiente.contarVivas();
+        long cambiadas = estadoActual.contarDiferencias(estadoSiguiente);
+        long inicio = System.nanoTime();
+        if (evento != null) {
+            evento.begin();
+        }
+        transitar();
+        long nanos = System.nanoTime() - inicio;
+        if (Metricas.activas()) {
+            Metricas.registrar(Metricas.TABLERO_PASO_NANOS, nanos);
+            Metricas.registrar(Metricas.TABLERO_VIVAS, vivas);
+            Metricas.registrar(Metricas.TABLERO_CAMBIADAS, cambiadas);
+            Metricas.incrementar(Metricas.TABLERO_GENERACIONES, 1);
+        }
+        if (evento != null) {
+            evento.end();
+        }
+        if (evento != null && evento.shouldCommit()) {
+            evento.generacion = generacion;
+            evento.vivas = vivas;
+            evento.cambiadas = cambiadas;
+            evento.commit();
+        }
+    }
+
+    private void transitar() {
+        if (detector != null) {
+            // Con seguimiento de actividad, solo pueden diferir las teselas que cambiaron al calcular el estado
+            // siguiente.
+            detector.registrar(estadoActual, estadoSiguiente, generacion + 1,
+                    motorReglas == null ? seguimiento : null);
+        }
+        generacion++;
+        // Intercambiar las matrices. Con seguimiento de actividad, las teselas que se omiten en el paso
+        // siguiente no cambiaron en este, así que en la matriz del estado anterior ya tienen su valor.
+        MatrizBits anterior = estadoActual;
+        estadoActual = estadoSiguiente;
+        estadoSiguiente = anterior;
         // Calcular el nuevo estadoSiguiente a partir del estadoActual actualizado.
         calcularEstadoSiguiente();
     }
@@ -112,61 +460,52 @@ public class Tablero {
      *   <li>Si una célula está muerta y tiene exactamente 3 vecinos vivos, pasa a estar viva.</li>
      *   <li>En cualquier otro caso, la célula muere o permanece muerta.</li>
      * </ul>
+     * Las reglas se evalúan sobre 64 células a la vez mediante {@link NucleoVida}, en paralelo si así se ha
+     * configurado con {@link #configurarParalelismo(int)}; con otra regla configurada con
+     * {@link #configurarRegla(ReglaVida, Topologia)}, mediante su tabla.
      */
     private void calcularEstadoSiguiente() {
-        int[][] nuevoEstado = new int[DIMENSION][DIMENSION];
-        for (int i = 0; i < DIMENSION; i++) {
-            for (int j = 0; j < DIMENSION; j++) {
-                int vecinosVivos = contarVecinosVivos(i, j);
-                if (estadoActual[i][j] == 1) {
-                    // Célula viva: sobrevive si tiene 2 o 3 vecinos vivos.
-                    nuevoEstado[i][j] = (vecinosVivos == 2 || vecinosVivos == 3) ? 1 : 0;
-                } else {
-                    // Célula muerta: revive si tiene exactamente 3 vecinos vivos.
-                    nuevoEstado[i][j] = (vecinosVivos == 3) ? 1 : 0;
-                }
-            }
+        if (motorReglas != null) {
+            motorReglas.avanzar(estadoActual, estadoSiguiente);
+        } else if (seguimiento != null) {
+            seguimiento.avanzar(estadoActual, estadoSiguiente);
+        } else if (pasoParalelo != null) {
+            pasoParalelo.avanzar(estadoActual, estadoSiguiente);
+        } else {
+            NucleoVida.avanzarFilas(estadoActual, estadoSiguiente, 0, alto);
         }
-        estadoSiguiente = nuevoEstado;
     }
 
     /**
-     * Cuenta el número de vecinos vivos para la célula en la posición (fila, columna).
-     *
-     * @param fila    La fila de la célula.
-     * @param columna La columna de la célula.
-     * @return El número de vecinos vivos.
-     */
-    private int contarVecinosVivos(int fila, int columna) {
-        int contador = 0;
-        // Recorrer las 8 posiciones vecinas.
-        for (int i = fila - 1; i <= fila + 1; i++) {
-            for (int j = columna - 1; j <= columna + 1; j++) {
-                // Evitar contar la propia célula.
-                if (i == fila && j == columna) {
-                    continue;
-                }
-                // Verificar límites del tablero.
-                if (i >= 0 && i < DIMENSION && j >= 0 && j < DIMENSION) {
-                    contador += estadoActual[i][j];
-                }
-            }
+     * Calcula en 'destino' la generación siguiente a 'origen' con la regla del tablero, sin tocar su estado.
+     */
+    private void avanzarAislado(MatrizBits origen, MatrizBits destino) {
+        if (motorReglas != null) {
+            motorReglas.avanzar(origen, destino);
+        } else {
+            NucleoVida.avanzarFilas(origen, destino, 0, alto);
         }
-        return contador;
     }
 
     /**
-     * Copia el contenido de la matriz origen a la matriz destino.
-     *
-     * @param origen  La matriz de la que se copia el contenido.
-     * @param destino La matriz donde se copia el contenido.
+     * Vuelve a la generación 0 tras cargar o generar un estado nuevo y calcula su estado siguiente.
      */
-    private void copiarMatriz(int[][] origen, int[][] destino) {
-        for (int i = 0; i < DIMENSION; i++) {
-            for (int j = 0; j < DIMENSION; j++) {
-                destino[i][j] = origen[i][j];
-            }
+    private void estadoSustituido() {
+        generacion = 0;
+        if (detector != null) {
+            detector.reiniciar(estadoActual, 0);
+        }
+        recalcularDesdeCero();
+    }
+
+    /**
+     * Calcula el estado siguiente tras sustituir por completo el estado actual.
+     */
+    private void recalcularDesdeCero() {
+        if (seguimiento != null) {
+            seguimiento.marcarTodo();
         }
+        calcularEstadoSiguiente();
     }
 
     /**
@@ -180,14 +519,13 @@ public class Tablero {
      */
     @Override
     public String toString() {
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < DIMENSION; i++) {
-            for (int j = 0; j < DIMENSION; j++) {
-                sb.append(estadoActual[i][j] == 1 ? "x" : " ");
+        StringBuilder sb = new StringBuilder((ancho + 1) * alto);
+        for (int i = 0; i < alto; i++) {
+            for (int j = 0; j < ancho; j++) {
+                sb.append(estadoActual.get(i, j) ? 'x' : ' ');
             }
-            sb.append("\n");
+            sb.append('\n');
         }
         return sb.toString();
     }
 }
-
@@ -0,0 +1,24 @@
+/*
+Copyright 2025 Pablo Lozano Hernández
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+either express or implied. See the License for the specific
+language governing permissions and limitations under the
+License.
+*/
+package com.aplicacion.dominio;
+
+/**
+ * Forma de tratar los bordes del tablero al contar los vecinos de las células.
+ */
+public enum Topologia {
+    /** Las células de fuera del tablero se consideran siempre muertas. */
+    FIJA,
+    /** El tablero se cierra sobre sí mismo: la última fila es vecina de la primera y la última columna de la primera. */
+    TOROIDAL
+}
@@ -0,0 +1,296 @@
+/*
+    Copyright 2025 Pablo Lozano Hernandez
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+    http://www.apache.org/licenses/LICENSE-2.0
+    Unless required by applicable law or agreed to in writing,
+    software distributed under the License is distributed on an
+    "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+    either express or implied. See the License for the specific
+    language governing permissions and limitations under the
+    License.
+ */
+
+package com.aplicacion.mates;
+
+import java.util.SplittableRandom;
+
+/**
+ * Estimador incremental del número PI por el método de Montecarlo.
+ * <p>
+ * En lugar de fijar de antemano el número de puntos, el estimador acumula aciertos por lotes y en cualquier
+ * momento ofrece la estimación, su error estándar y un intervalo de confianza. Se puede pedir que siga
+ * muestreando hasta alcanzar una precisión dada, continuar más adelante con más lotes o combinar los
+ * recuentos de estimadores que han trabajado en paralelo.
+ * </p>
+ * <p>
+ * Los puntos pueden ser pseudoaleatorios o de la secuencia de Halton. Con Halton el error real decrece
+ * aproximadamente como 1/n en lugar de 1/sqrt(n), así que la fórmula binomial lo sobrestimaría mucho. Por
+ * eso se usa Quasi-Montecarlo aleatorizado: el punto de índice i pertenece a la réplica i mod
+ * {@link #REPLICAS_HALTON}, y cada réplica desplaza sus puntos módulo 1 con un vector aleatorio propio
+ * obtenido de la semilla. Las réplicas son independientes e insesgadas, así que el error estándar se estima
+ * con la varianza empírica de sus estimaciones y la parada por precisión refleja el error real.
+ * </p>
+ * <p>
+ * Un estimador no es seguro para hilos: cada hilo debe usar el suyo y combinarlos al final.
+ * </p>
+ */
+public class EstimadorPi {
+
+    /**
+     * Tipo de secuencia de puntos.
+     */
+    public enum Secuencia {
+        PSEUDOALEATORIA,
+        HALTON
+    }
+
+    /**
+     * Número de réplicas desplazadas de la secuencia de Halton. Es primo con 2 y con 3, las bases de la
+     * secuencia, para que los puntos de cada réplica sigan cubriendo todo el cuadrado.
+     */
+    public static final int REPLICAS_HALTON = 25;
+
+    private final Secuencia secuencia;
+    private final SplittableRandom random;
+    private final long semilla;
+    private long siguienteIndice;
+    private long muestras;
+    private long aciertos;
+    private NucleoMuestreo nucleo;
+    // Solo con Halton: desplazamientos, muestras y aciertos de cada réplica
+    private final double[] desplazamientos;
+    private final long[] muestrasReplica;
+    private final long[] aciertosReplica;
+
+    private EstimadorPi(Secuencia secuencia, long semilla, long siguienteIndice) {
+        this.secuencia = secuencia;
+        this.semilla = semilla;
+        this.siguienteIndice = siguienteIndice;
+        if (secuencia == Secuencia.HALTON) {
+            random = null;
+            SplittableRandom desplazador = new SplittableRandom(semilla);
+            desplazamientos = new double[2 * REPLICAS_HALTON];
+            for (int i = 0; i < desplazamientos.length; i++) {
+                desplazamientos[i] = desplazador.nextDouble();
+            }
+            muestrasReplica = new long[REPLICAS_HALTON];
+            aciertosReplica = new long[REPLICAS_HALTON];
+        } else {
+            random = new SplittableRandom(semilla);
+            desplazamientos = null;
+            muestrasReplica = null;
+            aciertosReplica = null;
+        }
+    }
+
+    /**
+     * Crea un estimador con puntos pseudoaleatorios reproducibles a partir de la semilla.
+     *
+     * @param semilla Semilla del generador.
+     * @return Un estimador sin muestras.
+     */
+    public static EstimadorPi pseudoaleatorio(long semilla) {
+        return new EstimadorPi(Secuencia.PSEUDOALEATORIA, semilla, 0);
+    }
+
+    /**
+     * Crea un estimador con los puntos de la secuencia de Halton a partir del índice indicado y los
+     * desplazamientos de las réplicas obtenidos de la semilla 0.
+     *
+     * @param primerIndice Índice del primer punto de la secuencia, mayor o igual que 0.
+     * @return Un estimador sin muestras.
+     * @see #halton(long, long)
+     */
+    public static EstimadorPi halton(long primerIndice) {
+        return halton(primerIndice, 0L);
+    }
+
+    /**
+     * Crea un estimador con los puntos de la secuencia de Halton a partir del índice indicado. Para repartir
+     * el trabajo entre varios estimadores que luego se combinan, todos deben usar la misma semilla y cada uno
+     * debe empezar en un tramo distinto de la secuencia.
+     *
+     * @param primerIndice Índice del primer punto de la secuencia, mayor o igual que 0.
+     * @param semilla      Semilla de la que se obtienen los desplazamientos aleatorios de las réplicas.
+     * @return Un estimador sin muestras.
+     */
+    public static EstimadorPi halton(long primerIndice, long semilla) {
+        if (primerIndice < 0) {
+            throw new IllegalArgumentException("El índice inicial no puede ser negativo: " + primerIndice);
+        }
+        return new EstimadorPi(Secuencia.HALTON, semilla, primerIndice);
+    }
+
+    /**
+     * Añade un lote de puntos a la estimación.
+     *
+     * @param puntos Número de puntos del lote.
+     */
+    public void muestrear(long puntos) {
+        if (puntos < 0) {
+            throw new IllegalArgumentException("El número de puntos no puede ser negativo: " + puntos);
+        }
+        if (nucleo == null) {
+            nucleo = NucleoMuestreo.crear();
+        }
+        if (secuencia == Secuencia.HALTON) {
+            for (int r = 0; r < REPLICAS_HALTON; r++) {
+                // Primer índice del tramo que pertenece a la réplica r y número de puntos suyos en el tramo
+                long primero = siguienteIndice + Math.floorMod(r - siguienteIndice, REPLICAS_HALTON);
+                long n = primero < siguienteIndice + puntos
+                        ? (siguienteIndice + puntos - primero - 1) / REPLICAS_HALTON + 1 : 0;
+                long aciertosLote = nucleo.contarAciertosHalton(primero, REPLICAS_HALTON, n,
+                        desplazamientos[2 * r], desplazamientos[2 * r + 1]);
+                muestrasReplica[r] += n;
+                aciertosReplica[r] += aciertosLote;
+                aciertos += aciertosLote;
+            }
+            siguienteIndice += puntos;
+        } else {
+            aciertos += nucleo.contarAciertos(random, puntos);
+        }
+        muestras += puntos;
+    }
+
+    /**
+     * Muestrea por lotes hasta que el error estándar sea menor o igual que 'errorObjetivo' o se alcance el
+     * número máximo de muestras.
+     *
+     * @param errorObjetivo Error estándar que se quiere alcanzar.
+     * @param tamanoLote    Número de puntos de cada lote.
+     * @param maxMuestras   Número máximo de muestras acumuladas.
+     * @return {@code true} si se ha alcanzado la precisión pedida.
+     */
+    public boolean muestrearHastaPrecision(double errorObjetivo, long tamanoLote, long maxMuestras) {
+        if (errorObjetivo <= 0 || tamanoLote <= 0) {
+            throw new IllegalArgumentException("El error objetivo y el tamaño de lote deben ser positivos");
+        }
+        while (muestras == 0 || getErrorEstandar() > errorObjetivo) {
+            if (muestras >= maxMuestras) {
+                return false;
+            }
+            muestrear(Math.min(tamanoLote, maxMuestras - muestras));
+        }
+        return true;
+    }
+
+    /**
+     * Añade a este estimador los recuentos de otro, por ejemplo de otro hilo o de otro proceso.
+     * Los puntos de ambos deben ser independientes: semillas distintas, o tramos disjuntos de Halton con la
+     * misma semilla.
+     *
+     * @param otro Estimador cuyos recuentos se suman; no se modifica.
+     */
+    public void combinar(EstimadorPi otro) {
+        if (otro.secuencia != secuencia) {
+            throw new IllegalArgumentException("No se pueden combinar estimadores de secuencias distintas");
+        }
+        if (secuencia == Secuencia.HALTON) {
+            if (otro.semilla != semilla) {
+                throw new IllegalArgumentException("Los estimadores de Halton deben usar la misma semilla");
+            }
+            for (int r = 0; r < REPLICAS_HALTON; r++) {
+                muestrasReplica[r] += otro.muestrasReplica[r];
+                aciertosReplica[r] += otro.aciertosReplica[r];
+            }
+        }
+        muestras += otro.muestras;
+        aciertos += otro.aciertos;
+    }
+
+    /**
+     * Devuelve la estimación actual de PI, o NaN si no hay muestras.
+     */
+    public double getEstimacion() {
+        return muestras == 0 ? Double.NaN : 4.0 * aciertos / muestras;
+    }
+
+    /**
+     * Devuelve el error estándar de la estimación. Con puntos pseudoaleatorios es 4 · sqrt(p · (1 - p) / n),
+     * con p la proporción de aciertos; con Halton es la desviación típica empírica de las estimaciones de las
+     * réplicas dividida entre la raíz del número de réplicas.
+     */
+    public double getErrorEstandar() {
+        if (muestras == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        if (secuencia == Secuencia.HALTON) {
+            return errorEstandarReplicas();
+        }
+        double p = (double) aciertos / muestras;
+        return 4.0 * Math.sqrt(p * (1 - p) / muestras);
+    }
+
+    private double errorEstandarReplicas() {
+        double[] estimaciones = new double[REPLICAS_HALTON];
+        double media = 0;
+        for (int r = 0; r < REPLICAS_HALTON; r++) {
+            if (muestrasReplica[r] == 0) {
+                return Double.POSITIVE_INFINITY;
+            }
+            estimaciones[r] = 4.0 * aciertosReplica[r] / muestrasReplica[r];
+            media += estimaciones[r] / REPLICAS_HALTON;
+        }
+        double varianza = 0;
+        for (double estimacion : estimaciones) {
+            varianza += (estimacion - media) * (estimacion - media) / (REPLICAS_HALTON - 1);
+        }
+        return Math.sqrt(varianza / REPLICAS_HALTON);
+    }
+
+    /**
+     * Devuelve el intervalo de confianza de la estimación con aproximación normal.
+     *
+     * @param nivel Nivel de confianza en (0, 1), por ejemplo 0.95.
+     * @return Un array con el extremo inferior y el superior del intervalo.
+     */
+    public double[] intervaloConfianza(double nivel) {
+        if (!(nivel > 0 && nivel < 1)) {
+            throw new IllegalArgumentException("El nivel de confianza debe estar en (0, 1): " + nivel);
+        }
+        double z = cuantilNormal(0.5 + nivel / 2);
+        double margen = z * getErrorEstandar();
+        return new double[]{getEstimacion() - margen, getEstimacion() + margen};
+    }
+
+    public long getMuestras() {
+        return muestras;
+    }
+
+    public long getAciertos() {
+        return aciertos;
+    }
+
+    public Secuencia getSecuencia() {
+        return secuencia;
+    }
+
+    /**
+     * Cuantil de la normal estándar por el algoritmo de Acklam (error relativo menor que 1.2e-9).
+     */
+    static double cuantilNormal(double p) {
+        final double[] a = {-3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02,
+                1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00};
+        final double[] b = {-5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02,
+                6.680131188771972e+01, -1.328068155288572e+01};
+        final double[] c = {-7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+                -2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00};
+        final double[] d = {7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00,
+                3.754408661907416e+00};
+        final double bajo = 0.02425;
+        if (p < bajo) {
+            double q = Math.sqrt(-2 * Math.log(p));
+            return (((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+                    / ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        }
+        if (p > 1 - bajo) {
+            return -cuantilNormal(1 - p);
+        }
+        double q = p - 0.5;
+        double r = q * q;
+        return (((((a[0] * r + a[1]) * r + a[2]) * r + a[3]) * r + a[4]) * r + a[5]) * q
+                / (((((b[0] * r + b[1]) * r + b[2]) * r + b[3]) * r + b[4]) * r + 1);
+    }
+}
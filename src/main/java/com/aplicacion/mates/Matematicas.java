@@ -14,7 +14,15 @@
 
 package com.aplicacion.mates;
 
-import java.util.Random;
+import com.aplicacion.metricas.EventoLotePi;
+import com.aplicacion.metricas.Metricas;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * La clase Matematicas contiene métodos matemáticos,
@@ -23,6 +31,18 @@ import java.util.Random;
  */
 public class Matematicas {
 
+    /**
+     * Pools reutilizados entre llamadas, uno por número de hilos. Sus hilos son demonios y terminan solos
+     * tras un tiempo sin trabajo, así que no hace falta cerrarlos.
+     */
+    private static final ConcurrentMap<Integer, ForkJoinPool> POOLS = new ConcurrentHashMap<>();
+
+    /**
+     * Núcleo de muestreo de cada hilo. Se crea una sola vez por hilo porque reutiliza sus arrays de puntos
+     * entre lotes y no puede compartirse entre hilos.
+     */
+    private static final ThreadLocal<NucleoMuestreo> NUCLEO = ThreadLocal.withInitial(NucleoMuestreo::crear);
+
     /**
      * Genera una aproximación al número PI mediante el method de Montecarlo.
      * <p>
@@ -40,24 +60,111 @@ public class Matematicas {
      * @return Una aproximación del valor de PI.
      */
     public static double generarNumeroPi(long pasos) {
-        long aciertos = 0;         // Contador de puntos dentro del círculo
         double areaCuadrado = 4.0;  // Área del cuadrado [-1,1] x [-1,1]
-        Random random = new Random();
 
-        // Generamos 'pasos' puntos aleatorios
-        for (long i = 0; i < pasos; i++) {
-            // Generar un número aleatorio entre -1 y 1 para x y para y
-            double x = -1 + 2 * random.nextDouble();
-            double y = -1 + 2 * random.nextDouble();
-
-            // Verificar si el punto (x, y) está dentro del círculo unitario
-            // La condición es: x^2 + y^2 <= 1
-            if (x * x + y * y <= 1) {
-                aciertos++;
-            }
-        }
+        // Los puntos se generan y comprueban por bloques con el núcleo más rápido disponible
+        // (vectorial si se ha cargado jdk.incubator.vector, escalar en otro caso).
+        long aciertos = contarLote(new SplittableRandom(), pasos);
 
         // Retornar la aproximación de PI
         return areaCuadrado * ((double) aciertos / pasos);
     }
-}
\ No newline at end of file
+
+    /**
+     * Genera una aproximación al número PI mediante el method de Montecarlo, repartiendo los puntos entre
+     * varios hilos.
+     * <p>
+     * Los 'pasos' se dividen en tantos bloques como hilos. Cada bloque usa su propio generador, obtenido con
+     * {@link SplittableRandom#split()} a partir de un generador inicializado con 'semilla', y cuenta sus
+     * aciertos por separado; al final se suman los contadores de todos los bloques, sin que los hilos
+     * compartan ningún estado mientras trabajan. Con la misma semilla y el mismo número de hilos se obtiene
+     * siempre la misma aproximación.
+     * </p>
+     *
+     * @param pasos   El número de puntos a generar para la simulación.
+     * @param semilla La semilla de la que se derivan los generadores de cada bloque.
+     * @param hilos   El número de hilos (y de bloques) entre los que se reparten los puntos.
+     * @return Una aproximación del valor de PI.
+     */
+    public static double generarNumeroPiParalelo(long pasos, long semilla, int hilos) {
+        if (pasos <= 0) {
+            throw new IllegalArgumentException("El número de pasos debe ser positivo: " + pasos);
+        }
+        if (hilos < 1) {
+            throw new IllegalArgumentException("El número de hilos debe ser positivo: " + hilos);
+        }
+        double areaCuadrado = 4.0;  // Área del cuadrado [-1,1] x [-1,1]
+        long aciertos = contarAciertosParalelo(pasos, semilla, hilos);
+        return areaCuadrado * ((double) aciertos / pasos);
+    }
+
+    /**
+     * Reparte los puntos en bloques con generadores independientes y suma los aciertos de todos ellos.
+     */
+    static long contarAciertosParalelo(long pasos, long semilla, int hilos) {
+        // Los generadores se derivan en orden antes de lanzar los bloques, para que no dependan del
+        // orden en que se ejecuten los hilos.
+        SplittableRandom raiz = new SplittableRandom(semilla);
+        long porBloque = pasos / hilos;
+        long resto = pasos % hilos;
+        if (hilos == 1) {
+            return contarLote(raiz.split(), pasos);
+        }
+        ForkJoinPool pool = pool(hilos);
+        List<ForkJoinTask<Long>> bloques = new ArrayList<>(hilos);
+        for (int i = 0; i < hilos; i++) {
+            SplittableRandom generador = raiz.split();
+            long puntos = porBloque + (i < resto ? 1 : 0);
+            bloques.add(pool.submit(() -> contarLote(generador, puntos)));
+        }
+        long aciertos = 0;
+        for (ForkJoinTask<Long> bloque : bloques) {
+            aciertos += bloque.join();
+        }
+        return aciertos;
+    }
+
+    /**
+     * Devuelve el pool en el que se ejecutan los bloques: el pool común si se pide un hilo por procesador,
+     * o uno propio de ese tamaño, creado la primera vez y reutilizado después.
+     */
+    private static ForkJoinPool pool(int hilos) {
+        if (hilos == Runtime.getRuntime().availableProcessors()) {
+            return ForkJoinPool.commonPool();
+        }
+        return POOLS.computeIfAbsent(hilos, ForkJoinPool::new);
+    }
+
+    /**
+     * Cuenta los aciertos de un lote de puntos con el núcleo más rápido disponible. Si hay métricas activas
+     * ({@link Metricas}) o una grabación de JFR con {@link EventoLotePi}, mide además la duración del lote.
+     */
+    static long contarLote(SplittableRandom generador, long puntos) {
+        NucleoMuestreo nucleo = NUCLEO.get();
+        EventoLotePi evento = Metricas.jfrActivo() ? new EventoLotePi() : null;
+        if (!Metricas.activas() && (evento == null || !evento.isEnabled())) {
+            return nucleo.contarAciertos(generador, puntos);
+        }
+        long inicio = System.nanoTime();
+        if (evento != null) {
+            evento.begin();
+        }
+        long aciertos = nucleo.contarAciertos(generador, puntos);
+        if (evento != null) {
+            evento.end();
+        }
+        long nanos = System.nanoTime() - inicio;
+        Metricas.registrar(Metricas.PI_LOTE_NANOS, nanos);
+        Metricas.incrementar(Metricas.PI_MUESTRAS, puntos);
+        if (nanos > 0) {
+            Metricas.registrar(Metricas.PI_MUESTRAS_POR_SEGUNDO, puntos * 1e9 / nanos);
+        }
+        if (evento != null && evento.shouldCommit()) {
+            evento.muestras = puntos;
+            evento.aciertos = aciertos;
+            evento.nucleo = nucleo.nombre();
+            evento.commit();
+        }
+        return aciertos;
+    }
+}
@@ -0,0 +1,38 @@
+/*
+    Copyright 2025 Pablo Lozano Hernandez
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+    http://www.apache.org/licenses/LICENSE-2.0
+    Unless required by applicable law or agreed to in writing,
+    software distributed under the License is distributed on an
+    "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+    either express or implied. See the License for the specific
+    language governing permissions and limitations under the
+    License.
+ */
+
+package com.aplicacion.mates;
+
+/**
+ * Núcleo de muestreo escalar, usado cuando la Vector API no está disponible.
+ * El recuento no tiene saltos: la comparación se suma como 0 o 1.
+ */
+final class NucleoEscalar extends NucleoMuestreo {
+
+    @Override
+    protected int contarBloque(int n) {
+        int aciertos = 0;
+        for (int i = 0; i < n; i++) {
+            double x = -1 + 2 * xs[i];
+            double y = -1 + 2 * ys[i];
+            aciertos += (x * x + y * y <= 1) ? 1 : 0;
+        }
+        return aciertos;
+    }
+
+    @Override
+    String nombre() {
+        return "escalar";
+    }
+}
@@ -0,0 +1,147 @@
+/*
+    Copyright 2025 Pablo Lozano Hernandez
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+    http://www.apache.org/licenses/LICENSE-2.0
+    Unless required by applicable law or agreed to in writing,
+    software distributed under the License is distributed on an
+    "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+    either express or implied. See the License for the specific
+    language governing permissions and limitations under the
+    License.
+ */
+
+package com.aplicacion.mates;
+
+import java.util.SplittableRandom;
+
+/**
+ * Núcleo de muestreo del método de Montecarlo: cuenta cuántos puntos aleatorios del cuadrado [-1,1] x [-1,1]
+ * caen dentro del círculo unitario.
+ * <p>
+ * Los puntos se generan por bloques en arrays que se reutilizan entre llamadas, por lo que cada instancia
+ * debe usarse desde un único hilo.
+ * </p>
+ */
+abstract class NucleoMuestreo {
+
+    /**
+     * Número de puntos que se generan en cada bloque.
+     */
+    static final int TAMANO_BLOQUE = 2048;
+
+    private static final boolean VECTORIAL_DISPONIBLE = comprobarVectorial();
+
+    protected final double[] xs = new double[TAMANO_BLOQUE];
+    protected final double[] ys = new double[TAMANO_BLOQUE];
+
+    /**
+     * Crea el núcleo más rápido disponible: el vectorial si el módulo jdk.incubator.vector está cargado
+     * (se activa con "--add-modules jdk.incubator.vector") y el escalar en caso contrario.
+     * La propiedad del sistema "mates.vectorial=false" obliga a usar el escalar.
+     */
+    static NucleoMuestreo crear() {
+        if (VECTORIAL_DISPONIBLE) {
+            try {
+                return (NucleoMuestreo) Class.forName("com.aplicacion.mates.NucleoVectorial")
+                        .getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Se usa el núcleo escalar.
+            }
+        }
+        return new NucleoEscalar();
+    }
+
+    private static boolean comprobarVectorial() {
+        return !"false".equalsIgnoreCase(System.getProperty("mates.vectorial"))
+                && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    }
+
+    /**
+     * Cuenta los aciertos de 'puntos' puntos generados con 'random'.
+     *
+     * @param random Generador de números aleatorios.
+     * @param puntos Número de puntos.
+     * @return El número de puntos dentro del círculo unitario.
+     */
+    long contarAciertos(SplittableRandom random, long puntos) {
+        long aciertos = 0;
+        while (puntos > 0) {
+            int n = (int) Math.min(TAMANO_BLOQUE, puntos);
+            for (int i = 0; i < n; i++) {
+                xs[i] = random.nextDouble();
+                ys[i] = random.nextDouble();
+            }
+            aciertos += contarBloque(n);
+            puntos -= n;
+        }
+        return aciertos;
+    }
+
+    /**
+     * Cuenta los aciertos de los puntos primerIndice, primerIndice + paso, primerIndice + 2 · paso... de la
+     * secuencia de Halton en bases 2 y 3, una secuencia de baja discrepancia que cubre el cuadrado de forma
+     * más uniforme que los puntos pseudoaleatorios. Cada punto se desplaza (desplazamientoX, desplazamientoY)
+     * módulo 1, lo que permite obtener réplicas independientes de la secuencia con desplazamientos aleatorios.
+     *
+     * @param primerIndice    Índice del primer punto de la secuencia (mayor o igual que 0).
+     * @param paso            Distancia entre los índices de dos puntos consecutivos, mayor que 0.
+     * @param puntos          Número de puntos.
+     * @param desplazamientoX Desplazamiento de la primera coordenada, en [0, 1).
+     * @param desplazamientoY Desplazamiento de la segunda coordenada, en [0, 1).
+     * @return El número de puntos dentro del círculo unitario.
+     */
+    long contarAciertosHalton(long primerIndice, long paso, long puntos, double desplazamientoX,
+                              double desplazamientoY) {
+        long aciertos = 0;
+        long indice = primerIndice;
+        while (puntos > 0) {
+            int n = (int) Math.min(TAMANO_BLOQUE, puntos);
+            for (int i = 0; i < n; i++, indice += paso) {
+                xs[i] = desplazar(inversoBase2(indice), desplazamientoX);
+                ys[i] = desplazar(inversoBase3(indice), desplazamientoY);
+            }
+            aciertos += contarBloque(n);
+            puntos -= n;
+        }
+        return aciertos;
+    }
+
+    private static double desplazar(double valor, double desplazamiento) {
+        double resultado = valor + desplazamiento;
+        return resultado >= 1 ? resultado - 1 : resultado;
+    }
+
+    /**
+     * Inverso radical en base 2: los bits del índice se reflejan tras la coma.
+     */
+    static double inversoBase2(long indice) {
+        return (Long.reverse(indice) >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Inverso radical en base 3: los dígitos en base 3 del índice se reflejan tras la coma.
+     */
+    static double inversoBase3(long indice) {
+        double resultado = 0;
+        double factor = 1.0 / 3;
+        while (indice > 0) {
+            resultado += (indice % 3) * factor;
+            indice /= 3;
+            factor /= 3;
+        }
+        return resultado;
+    }
+
+    /**
+     * Cuenta los aciertos de las 'n' primeras posiciones de 'xs' e 'ys', que contienen números en [0, 1)
+     * que se deben llevar al intervalo [-1, 1).
+     */
+    protected abstract int contarBloque(int n);
+
+    /**
+     * Devuelve el nombre del núcleo, para mostrarlo en trazas y pruebas de rendimiento.
+     */
+    abstract String nombre();
+}
@@ -0,0 +1,57 @@
+/*
+    Copyright 2025 Pablo Lozano Hernandez
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+    http://www.apache.org/licenses/LICENSE-2.0
+    Unless required by applicable law or agreed to in writing,
+    software distributed under the License is distributed on an
+    "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+    either express or implied. See the License for the specific
+    language governing permissions and limitations under the
+    License.
+ */
+
+package com.aplicacion.mates;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Núcleo de muestreo vectorial basado en la Vector API (módulo incubador jdk.incubator.vector).
+ * <p>
+ * Cada iteración lleva a [-1, 1) y comprueba la condición x^2 + y^2 &lt;= 1 para tantos puntos como carriles
+ * tenga el vector preferido de la máquina, y suma los aciertos contando los bits de la máscara resultante,
+ * sin saltos por punto. Solo se carga desde {@link NucleoMuestreo#crear()} cuando el módulo está disponible.
+ * </p>
+ */
+final class NucleoVectorial extends NucleoMuestreo {
+
+    private static final VectorSpecies<Double> ESPECIE = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    protected int contarBloque(int n) {
+        int aciertos = 0;
+        int i = 0;
+        int limite = ESPECIE.loopBound(n);
+        for (; i < limite; i += ESPECIE.length()) {
+            DoubleVector x = DoubleVector.fromArray(ESPECIE, xs, i).mul(2.0).sub(1.0);
+            DoubleVector y = DoubleVector.fromArray(ESPECIE, ys, i).mul(2.0).sub(1.0);
+            VectorMask<Double> dentro = x.mul(x).add(y.mul(y)).compare(VectorOperators.LE, 1.0);
+            aciertos += dentro.trueCount();
+        }
+        for (; i < n; i++) {
+            double x = -1 + 2 * xs[i];
+            double y = -1 + 2 * ys[i];
+            aciertos += (x * x + y * y <= 1) ? 1 : 0;
+        }
+        return aciertos;
+    }
+
+    @Override
+    String nombre() {
+        return "vectorial (" + ESPECIE.length() + " carriles)";
+    }
+}
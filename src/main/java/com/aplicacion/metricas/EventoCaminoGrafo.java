@@ -0,0 +1,36 @@
+/*
+Copyright 2025 Pablo Lozano Hernández
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+either express or implied. See the License for the specific
+language governing permissions and limitations under the
+License.
+*/
+package com.aplicacion.metricas;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento de Java Flight Recorder de cada búsqueda de un camino en un grafo. Su duración es la de la búsqueda.
+ */
+@Name("com.aplicacion.CaminoGrafo")
+@Label("Búsqueda de camino")
+@Category({"PruebaEval", "Grafos"})
+@Description("Búsqueda en profundidad de un camino entre dos vértices")
+public final class EventoCaminoGrafo extends jdk.jfr.Event {
+
+    @Label("Vértices visitados")
+    public int visitados;
+
+    @Label("Longitud del camino")
+    @Description("Número de vértices del camino, o 0 si no hay camino")
+    public int longitud;
+}
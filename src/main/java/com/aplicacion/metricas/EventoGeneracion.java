@@ -0,0 +1,38 @@
+/*
+Copyright 2025 Pablo Lozano Hernández
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+either express or implied. See the License for the specific
+language governing permissions and limitations under the
+License.
+*/
+package com.aplicacion.metricas;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento de Java Flight Recorder de cada paso de generación de un tablero. Su duración es la del paso.
+ */
+@Name("com.aplicacion.Generacion")
+@Label("Generación del juego de la vida")
+@Category({"PruebaEval", "Juego de la vida"})
+@Description("Cálculo de una generación de un tablero")
+public final class EventoGeneracion extends jdk.jfr.Event {
+
+    @Label("Generación")
+    public long generacion;
+
+    @Label("Células vivas")
+    public long vivas;
+
+    @Label("Células cambiadas")
+    public long cambiadas;
+}
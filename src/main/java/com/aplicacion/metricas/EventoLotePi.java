@@ -0,0 +1,39 @@
+/*
+Copyright 2025 Pablo Lozano Hernández
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+either express or implied. See the License for the specific
+language governing permissions and limitations under the
+License.
+*/
+package com.aplicacion.metricas;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento de Java Flight Recorder de cada lote de puntos de la aproximación de PI por Montecarlo. Su duración
+ * es la del lote.
+ */
+@Name("com.aplicacion.LotePi")
+@Label("Lote de Montecarlo")
+@Category({"PruebaEval", "Montecarlo"})
+@Description("Generación y comprobación de un lote de puntos aleatorios")
+public final class EventoLotePi extends jdk.jfr.Event {
+
+    @Label("Puntos")
+    public long muestras;
+
+    @Label("Aciertos")
+    public long aciertos;
+
+    @Label("Núcleo")
+    public String nucleo;
+}
@@ -0,0 +1,105 @@
+/*
+Copyright 2025 Pablo Lozano Hernández
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+either express or implied. See the License for the specific
+language governing permissions and limitations under the
+License.
+*/
+package com.aplicacion.metricas;
+
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Punto de acceso global a las métricas de la aplicación y nombres de las que se registran.
+ * <p>
+ * Mientras no se configure ningún registro, {@link #activas()} devuelve {@code false} y el código
+ * instrumentado no mide nada: cada punto de medida se reduce a la lectura de un campo. Además de estas
+ * métricas, los mismos puntos emiten eventos de Java Flight Recorder (véanse las clases {@code Evento*} de
+ * este paquete), que solo se crean si Flight Recorder está en marcha: la primera carga de una clase de
+ * evento cuesta cientos de milisegundos, así que sin JFR no se llega a cargar ninguna.
+ * </p>
+ */
+public final class Metricas {
+
+    /** Duración de cada paso de generación de un tablero, en nanosegundos. */
+    public static final String TABLERO_PASO_NANOS = "tablero.paso.nanos";
+    /** Número de generaciones calculadas. */
+    public static final String TABLERO_GENERACIONES = "tablero.generaciones";
+    /** Células vivas tras cada paso. */
+    public static final String TABLERO_VIVAS = "tablero.vivas";
+    /** Células que cambian de estado en cada paso. */
+    public static final String TABLERO_CAMBIADAS = "tablero.cambiadas";
+    /** Duración de cada lote de puntos de Montecarlo, en nanosegundos. */
+    public static final String PI_LOTE_NANOS = "pi.lote.nanos";
+    /** Puntos de Montecarlo generados. */
+    public static final String PI_MUESTRAS = "pi.muestras";
+    /** Puntos por segundo de cada lote de Montecarlo. */
+    public static final String PI_MUESTRAS_POR_SEGUNDO = "pi.muestras.por.segundo";
+    /** Vértices visitados por cada búsqueda de un camino. */
+    public static final String GRAFO_CAMINO_VISITADOS = "grafo.camino.visitados";
+    /** Número de vértices de cada camino encontrado. */
+    public static final String GRAFO_CAMINO_LONGITUD = "grafo.camino.longitud";
+    /** Arcos nuevos añadidos a los grafos. */
+    public static final String GRAFO_ARCOS_INSERTADOS = "grafo.arcos.insertados";
+    /** Arcos por segundo de cada carga masiva. */
+    public static final String GRAFO_CARGA_ARCOS_POR_SEGUNDO = "grafo.carga.arcos.por.segundo";
+
+    private static volatile RegistroMetricas registro = RegistroMetricas.NINGUNO;
+
+    private Metricas() {
+    }
+
+    /**
+     * Instala el registro que recibe las métricas.
+     *
+     * @param nuevo Registro; {@code null} o {@link RegistroMetricas#NINGUNO} desactivan las métricas.
+     */
+    public static void configurar(RegistroMetricas nuevo) {
+        registro = nuevo == null ? RegistroMetricas.NINGUNO : nuevo;
+    }
+
+    /**
+     * @return El registro instalado.
+     */
+    public static RegistroMetricas registro() {
+        return registro;
+    }
+
+    /**
+     * @return {@code true} si hay un registro instalado y, por tanto, merece la pena medir.
+     */
+    public static boolean activas() {
+        return registro != RegistroMetricas.NINGUNO;
+    }
+
+    /**
+     * @return {@code true} si Flight Recorder está en marcha y los eventos de este paquete pueden grabarse.
+     */
+    public static boolean jfrActivo() {
+        return FlightRecorder.isInitialized();
+    }
+
+    /**
+     * Suma una cantidad a un contador del registro instalado.
+     *
+     * @see RegistroMetricas#incrementar(String, long)
+     */
+    public static void incrementar(String nombre, long cantidad) {
+        registro.incrementar(nombre, cantidad);
+    }
+
+    /**
+     * Registra una observación de un valor en el registro instalado.
+     *
+     * @see RegistroMetricas#registrar(String, double)
+     */
+    public static void registrar(String nombre, double valor) {
+        registro.registrar(nombre, valor);
+    }
+}
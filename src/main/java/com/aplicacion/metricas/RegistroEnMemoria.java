@@ -0,0 +1,151 @@
+/*
+Copyright 2025 Pablo Lozano Hernández
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+either express or implied. See the License for the specific
+language governing permissions and limitations under the
+License.
+*/
+package com.aplicacion.metricas;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registro de métricas que guarda en memoria el total de cada contador y un resumen (número de observaciones,
+ * media, mínimo y máximo) de cada valor.
+ * <p>
+ * Los contadores usan {@link LongAdder}, de modo que varios hilos pueden incrementarlos a la vez sin
+ * competir; los resúmenes se actualizan con un bloqueo por nombre.
+ * </p>
+ */
+public class RegistroEnMemoria implements RegistroMetricas {
+
+    private final Map<String, LongAdder> contadores = new ConcurrentHashMap<>();
+    private final Map<String, Acumulado> valores = new ConcurrentHashMap<>();
+    private volatile long inicio = System.nanoTime();
+
+    /**
+     * Resumen de las observaciones de un valor.
+     */
+    public static final class Resumen {
+        private final long observaciones;
+        private final double media;
+        private final double minimo;
+        private final double maximo;
+
+        Resumen(long observaciones, double media, double minimo, double maximo) {
+            this.observaciones = observaciones;
+            this.media = media;
+            this.minimo = minimo;
+            this.maximo = maximo;
+        }
+
+        public long getObservaciones() {
+            return observaciones;
+        }
+
+        public double getMedia() {
+            return media;
+        }
+
+        public double getMinimo() {
+            return minimo;
+        }
+
+        public double getMaximo() {
+            return maximo;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "n=%d media=%.4g min=%.4g max=%.4g", observaciones, media, minimo,
+                    maximo);
+        }
+    }
+
+    private static final class Acumulado {
+        private long observaciones;
+        private double suma;
+        private double minimo = Double.POSITIVE_INFINITY;
+        private double maximo = Double.NEGATIVE_INFINITY;
+
+        synchronized void anadir(double valor) {
+            observaciones++;
+            suma += valor;
+            minimo = Math.min(minimo, valor);
+            maximo = Math.max(maximo, valor);
+        }
+
+        synchronized Resumen resumen() {
+            return new Resumen(observaciones, observaciones == 0 ? 0 : suma / observaciones, minimo, maximo);
+        }
+    }
+
+    @Override
+    public void incrementar(String nombre, long cantidad) {
+        contadores.computeIfAbsent(nombre, k -> new LongAdder()).add(cantidad);
+    }
+
+    @Override
+    public void registrar(String nombre, double valor) {
+        valores.computeIfAbsent(nombre, k -> new Acumulado()).anadir(valor);
+    }
+
+    /**
+     * @param nombre Nombre del contador.
+     * @return Su total, o 0 si no se ha incrementado nunca.
+     */
+    public long getContador(String nombre) {
+        LongAdder contador = contadores.get(nombre);
+        return contador == null ? 0 : contador.sum();
+    }
+
+    /**
+     * @param nombre Nombre del contador.
+     * @return Su total dividido entre los segundos transcurridos desde que se creó o reinició el registro.
+     */
+    public double getTasaPorSegundo(String nombre) {
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        return segundos > 0 ? getContador(nombre) / segundos : 0;
+    }
+
+    /**
+     * @param nombre Nombre del valor.
+     * @return El resumen de sus observaciones, o {@code null} si no se ha registrado nunca.
+     */
+    public Resumen getResumen(String nombre) {
+        Acumulado acumulado = valores.get(nombre);
+        return acumulado == null ? null : acumulado.resumen();
+    }
+
+    /**
+     * Borra todos los contadores y valores.
+     */
+    public void reiniciar() {
+        contadores.clear();
+        valores.clear();
+        inicio = System.nanoTime();
+    }
+
+    /**
+     * @return Una línea por contador y por valor, ordenadas por nombre.
+     */
+    @Override
+    public String toString() {
+        Map<String, String> lineas = new TreeMap<>();
+        contadores.forEach((nombre, contador) -> lineas.put(nombre, Long.toString(contador.sum())));
+        valores.forEach((nombre, acumulado) -> lineas.put(nombre, acumulado.resumen().toString()));
+        StringBuilder sb = new StringBuilder();
+        lineas.forEach((nombre, valor) -> sb.append(nombre).append(": ").append(valor).append('\n'));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,55 @@
+/*
+Copyright 2025 Pablo Lozano Hernández
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+either express or implied. See the License for the specific
+language governing permissions and limitations under the
+License.
+*/
+package com.aplicacion.metricas;
+
+/**
+ * Destino de las métricas que genera la aplicación: contadores que solo aumentan y valores sueltos (tiempos,
+ * tamaños, tasas) de los que el registro decide qué resumen guardar.
+ * <p>
+ * Las implementaciones se llaman desde los bucles principales de la simulación, de los hilos de Montecarlo y
+ * de los grafos, por lo que deben ser seguras entre hilos y baratas. Se instalan con
+ * {@link Metricas#configurar(RegistroMetricas)}.
+ * </p>
+ */
+public interface RegistroMetricas {
+
+    /**
+     * Registro que descarta todo. Es el que está instalado por defecto.
+     */
+    RegistroMetricas NINGUNO = new RegistroMetricas() {
+        @Override
+        public void incrementar(String nombre, long cantidad) {
+        }
+
+        @Override
+        public void registrar(String nombre, double valor) {
+        }
+    };
+
+    /**
+     * Suma una cantidad a un contador.
+     *
+     * @param nombre   Nombre del contador.
+     * @param cantidad Cantidad que se suma.
+     */
+    void incrementar(String nombre, long cantidad);
+
+    /**
+     * Registra una observación de un valor.
+     *
+     * @param nombre Nombre del valor.
+     * @param valor  Valor observado.
+     */
+    void registrar(String nombre, double valor);
+}
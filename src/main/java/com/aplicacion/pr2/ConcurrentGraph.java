@@ -0,0 +1,198 @@
+/*
+Copyright 2025 Pablo Lozano Hernández
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+either express or implied. See the License for the specific
+language governing permissions and limitations under the
+License.
+*/
+
+package com.aplicacion.pr2;
+import com.aplicacion.metricas.Metricas;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Variante de {@link Graph} segura para hilos.
+ * <p>
+ * La lista de adyacencia es un {@link ConcurrentHashMap} cuyos valores son conjuntos concurrentes, así que
+ * muchos hilos pueden añadir vértices y arcos a la vez y las lecturas nunca se bloquean. Los conjuntos que
+ * devuelve {@link #obtainAdjacents(Object)} son vistas de solo lectura débilmente consistentes: se pueden
+ * recorrer mientras otros hilos escriben, y reflejan algunos, todos o ninguno de los arcos añadidos durante
+ * el recorrido.
+ * </p>
+ * <p>
+ * Cuando se necesita una imagen coherente de todo el grafo, {@link #snapshot()} y {@link #toGraph()} esperan
+ * a que terminen las escrituras en curso y bloquean brevemente las nuevas mientras copian. Las escrituras
+ * comparten entre ellas el cerrojo de lectura, de modo que solo se excluyen con la copia, no entre sí.
+ * </p>
+ * @param <V> tipo de los vértices.
+ */
+public class ConcurrentGraph<V> {
+    // Lista de adyacencia
+    private final Map<V, Set<V>> adjacencyList = new ConcurrentHashMap<>();
+    // Las escrituras toman el cerrojo compartido; las copias coherentes, el exclusivo
+    private final ReentrantReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+
+    /**
+     * Añade el vértice ‘v‘ al grafo.
+     * @param v vértice a añadir.
+     * @return ‘true‘ si no estaba anteriormente y ‘false‘ en caso contrario.
+     */
+    public boolean addVertex(V v) {
+        snapshotLock.readLock().lock();
+        try {
+            return putVertex(v) == null;
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Añade un arco entre los vértices ‘v1‘ y ‘v2‘ al grafo. Si no existen, los añade.
+     * @param v1 el origen del arco.
+     * @param v2 el destino del arco.
+     * @return ‘true‘ si no existía el arco y ‘false‘ en caso contrario.
+     */
+    public boolean addEdge(V v1, V v2) {
+        snapshotLock.readLock().lock();
+        try {
+            putVertex(v2);
+            Set<V> adjacents = putVertex(v1);
+            if (adjacents == null) {
+                adjacents = adjacencyList.get(v1);
+            }
+            boolean added = adjacents.add(v2);
+            if (added && Metricas.activas()) {
+                Metricas.incrementar(Metricas.GRAFO_ARCOS_INSERTADOS, 1);
+            }
+            return added;
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Añade el vértice si no estaba.
+     * @return el conjunto de adyacentes que ya tenía, o null si se acaba de añadir.
+     */
+    private Set<V> putVertex(V v) {
+        Set<V> existing = adjacencyList.get(v);
+        if (existing != null) {
+            return existing;
+        }
+        return adjacencyList.putIfAbsent(v, ConcurrentHashMap.newKeySet());
+    }
+
+    /**
+     * Obtiene el conjunto de vértices adyacentes a ‘v‘.
+     * @param v vértice del que se obtienen los adyacentes.
+     * @return vista de solo lectura, débilmente consistente, de los vértices adyacentes.
+     * @throws Exception si el vértice no está en el grafo.
+     */
+    public Set<V> obtainAdjacents(V v) throws Exception {
+        Set<V> adjacents = adjacencyList.get(v);
+        if (adjacents == null) {
+            throw new Exception("El vértice no está en el grafo");
+        }
+        return Collections.unmodifiableSet(adjacents);
+    }
+
+    /**
+     * Comprueba si el grafo contiene el vértice dado.
+     * @param v vértice para el que se realiza la comprobación.
+     * @return ‘true‘ si ‘v‘ es un vértice del grafo.
+     */
+    public boolean containsVertex(V v) {
+        return adjacencyList.containsKey(v);
+    }
+
+    /**
+     * Obtiene, en caso de que exista, un camino entre ‘v1‘ y ‘v2‘ usando búsqueda en profundidad (DFS).
+     * No se bloquea aunque otros hilos estén escribiendo: el camino devuelto está formado por arcos que
+     * existían en el momento de recorrerlos.
+     * @param v1 el vértice origen.
+     * @param v2 el vértice destino.
+     * @return lista con la secuencia de vértices desde ‘v1‘ hasta ‘v2‘, o null si no hay camino.
+     */
+    public List<V> onePath(V v1, V v2) {
+        if (!containsVertex(v1) || !containsVertex(v2)) {
+            return null;
+        }
+        Map<V, V> trace = new HashMap<>();
+        Deque<V> stack = new ArrayDeque<>();
+        stack.push(v1);
+        trace.put(v1, null);
+
+        while (!stack.isEmpty()) {
+            V current = stack.pop();
+            if (current.equals(v2)) {
+                List<V> path = new ArrayList<>();
+                for (V at = v2; at != null; at = trace.get(at)) {
+                    path.add(at);
+                }
+                Collections.reverse(path);
+                return path;
+            }
+            for (V neighbor : adjacencyList.get(current)) {
+                if (!trace.containsKey(neighbor)) {
+                    stack.push(neighbor);
+                    trace.put(neighbor, current);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Obtiene una vista CSR coherente del grafo en este instante.
+     * @return la vista CSR, que no cambia aunque el grafo siga recibiendo arcos.
+     */
+    public GraphSnapshot<V> snapshot() {
+        snapshotLock.writeLock().lock();
+        try {
+            return new GraphSnapshot<>(adjacencyList);
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Copia el grafo, en este instante, en un {@link Graph} no concurrente.
+     * @return un grafo independiente con los mismos vértices y arcos.
+     */
+    public Graph<V> toGraph() {
+        snapshotLock.writeLock().lock();
+        try {
+            Graph<V> copy = new Graph<>();
+            for (Map.Entry<V, Set<V>> entry : adjacencyList.entrySet()) {
+                copy.addVertex(entry.getKey());
+                for (V w : entry.getValue()) {
+                    copy.addEdge(entry.getKey(), w);
+                }
+            }
+            return copy;
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo ‘toString()‘ reescrito para mostrar la lista de adyacencia.
+     * @return una cadena de caracteres con la lista de adyacencia.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<V, Set<V>> entry : adjacencyList.entrySet()) {
+            sb.append(entry.getKey()).append(" -> ").append(entry.getValue()).append("\n");
+        }
+        return sb.toString();
+    }
+}
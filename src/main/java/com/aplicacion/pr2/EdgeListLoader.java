@@ -0,0 +1,656 @@
+/*
+Copyright 2025 Pablo Lozano Hernández
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+either express or implied. See the License for the specific
+language governing permissions and limitations under the
+License.
+*/
+
+package com.aplicacion.pr2;
+import com.aplicacion.metricas.EventoCargaArcos;
+import com.aplicacion.metricas.Metricas;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Carga masiva de listas de arcos en un {@link Graph} cuyos vértices son enteros de tipo {@code long}.
+ * <p>
+ * Los arcos se leen sin crear objetos por línea: de un fichero proyectado en memoria, que se puede trocear y
+ * analizar en paralelo, o de un {@link InputStream}. Después los vértices se numeran de forma densa, se
+ * cuentan los arcos de cada uno, se ordenan y se eliminan los repetidos, y solo entonces se vuelcan al grafo
+ * con cada conjunto de adyacentes creado ya con su tamaño final, sin redimensionar ninguna tabla hash.
+ * </p>
+ * <p>
+ * Formatos admitidos:
+ * <ul>
+ *     <li>{@link Format#TSV}: una línea por arco con origen y destino separados por tabuladores o espacios.</li>
+ *     <li>{@link Format#CSV}: igual, pero separados por comas.</li>
+ *     <li>{@link Format#BINARY}: pares consecutivos de enteros de 64 bits en orden big-endian, como los
+ *     escribe {@link java.io.DataOutputStream#writeLong(long)}.</li>
+ * </ul>
+ * En los formatos de texto se ignoran las líneas vacías, las que empiezan por '#' o '%' y las columnas a
+ * partir de la tercera.
+ * </p>
+ */
+public final class EdgeListLoader {
+
+    /**
+     * Formato de la lista de arcos.
+     */
+    public enum Format {
+        TSV, CSV, BINARY;
+
+        /**
+         * Deduce el formato de la extensión del fichero: ".csv" es CSV, ".bin" es binario y el resto TSV.
+         * @param file ruta del fichero.
+         * @return el formato correspondiente.
+         */
+        public static Format fromExtension(Path file) {
+            String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+            if (name.endsWith(".csv")) {
+                return CSV;
+            }
+            if (name.endsWith(".bin")) {
+                return BINARY;
+            }
+            return TSV;
+        }
+    }
+
+    /**
+     * Resumen de una carga.
+     */
+    public static final class Report {
+        private final long edgesRead;
+        private final long edgesAdded;
+        private final int vertices;
+        private final long nanos;
+
+        Report(long edgesRead, long edgesAdded, int vertices, long nanos) {
+            this.edgesRead = edgesRead;
+            this.edgesAdded = edgesAdded;
+            this.vertices = vertices;
+            this.nanos = nanos;
+        }
+
+        /**
+         * @return número de arcos leídos, incluidos los repetidos.
+         */
+        public long getEdgesRead() {
+            return edgesRead;
+        }
+
+        /**
+         * @return número de arcos que no estaban en el grafo y se han añadido.
+         */
+        public long getEdgesAdded() {
+            return edgesAdded;
+        }
+
+        /**
+         * @return número de arcos descartados por repetidos, en la entrada o respecto al grafo.
+         */
+        public long getDuplicates() {
+            return edgesRead - edgesAdded;
+        }
+
+        /**
+         * @return número de vértices distintos que aparecen en la entrada.
+         */
+        public int getVertices() {
+            return vertices;
+        }
+
+        /**
+         * @return tiempo total de la carga, en nanosegundos.
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * @return arcos leídos por segundo.
+         */
+        public double getEdgesPerSecond() {
+            return nanos == 0 ? 0 : edgesRead * 1e9 / nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%d arcos leídos, %d añadidos, %d vértices en %.3f s (%.0f arcos/s)",
+                    edgesRead, edgesAdded, vertices, nanos / 1e9, getEdgesPerSecond());
+        }
+    }
+
+    // Tamaño máximo de cada trozo del fichero que se proyecta en memoria
+    private static final long MAX_CHUNK = 1L << 30;
+    // Tamaño mínimo de trozo para que merezca la pena repartirlo entre hilos
+    private static final long MIN_PARALLEL_CHUNK = 1L << 22;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private int parallelism = 1;
+    private long minChunkSize = MIN_PARALLEL_CHUNK;
+
+    /**
+     * Establece cuántos hilos analizan a la vez trozos de un fichero. Por defecto se usa uno solo; la
+     * lectura de un {@link InputStream} es siempre secuencial.
+     * @param parallelism número de hilos.
+     * @return este mismo objeto.
+     */
+    public EdgeListLoader withParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("El número de hilos debe ser positivo: " + parallelism);
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Establece el tamaño mínimo, en bytes, de cada trozo de fichero que se reparte entre los hilos. Por
+     * defecto es de 4 MB, para que los ficheros pequeños no se troceen sin necesidad.
+     * @param bytes tamaño mínimo de trozo.
+     * @return este mismo objeto.
+     */
+    public EdgeListLoader withMinChunkSize(long bytes) {
+        if (bytes < 1) {
+            throw new IllegalArgumentException("El tamaño mínimo de trozo debe ser positivo: " + bytes);
+        }
+        this.minChunkSize = bytes;
+        return this;
+    }
+
+    /**
+     * Carga un fichero, deduciendo el formato de su extensión.
+     * @see #load(Path, Format, Graph)
+     */
+    public Report load(Path file, Graph<Long> graph) throws IOException {
+        return load(file, Format.fromExtension(file), graph);
+    }
+
+    /**
+     * Carga los arcos de un fichero proyectándolo en memoria.
+     * @param file   ruta del fichero.
+     * @param format formato del fichero.
+     * @param graph  grafo al que se añaden los arcos.
+     * @return el resumen de la carga.
+     * @throws IOException si el fichero no se puede leer o su contenido no es válido.
+     */
+    public Report load(Path file, Format format, Graph<Long> graph) throws IOException {
+        EventoCargaArcos event = Metricas.jfrActivo() ? new EventoCargaArcos() : null;
+        if (event != null) {
+            event.begin();
+        }
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] bounds = chunkBounds(channel, format);
+            Pairs[] parts = new Pairs[bounds.length - 1];
+            if (parts.length == 1 || parallelism == 1) {
+                for (int i = 0; i < parts.length; i++) {
+                    parts[i] = parseChunk(channel, bounds[i], bounds[i + 1], format);
+                }
+            } else {
+                ForkJoinPool pool = new ForkJoinPool(parallelism);
+                try {
+                    pool.invoke(new ParseChunks(channel, bounds, format, parts, 0, parts.length));
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                } finally {
+                    pool.shutdown();
+                }
+            }
+            return build(Pairs.concat(parts), graph, start, event);
+        }
+    }
+
+    /**
+     * Carga los arcos de un flujo de entrada, que se lee hasta el final pero no se cierra.
+     * @param in     flujo de entrada.
+     * @param format formato del contenido.
+     * @param graph  grafo al que se añaden los arcos.
+     * @return el resumen de la carga.
+     * @throws IOException si el flujo no se puede leer o su contenido no es válido.
+     */
+    public Report load(InputStream in, Format format, Graph<Long> graph) throws IOException {
+        EventoCargaArcos event = Metricas.jfrActivo() ? new EventoCargaArcos() : null;
+        if (event != null) {
+            event.begin();
+        }
+        long start = System.nanoTime();
+        Pairs pairs = new Pairs();
+        Parser parser = format == Format.BINARY ? new BinaryParser(pairs) : new TextParser(pairs, format, 0);
+        byte[] buffer = new byte[BUFFER_SIZE];
+        ByteBuffer view = ByteBuffer.wrap(buffer);
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            view.limit(read).position(0);
+            parser.accept(view);
+        }
+        parser.finish();
+        return build(pairs, graph, start, event);
+    }
+
+    /**
+     * Divide el fichero en trozos que terminan en fin de línea (o en un par completo, si es binario).
+     */
+    private long[] chunkBounds(FileChannel channel, Format format) throws IOException {
+        long size = channel.size();
+        long chunks = Math.max(1, Math.min(parallelism * 4L, size / minChunkSize));
+        chunks = Math.max(chunks, (size + MAX_CHUNK - 1) / MAX_CHUNK);
+        long[] bounds = new long[(int) chunks + 1];
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        for (int i = 1; i < chunks; i++) {
+            long pos = Math.max(bounds[i - 1], size / chunks * i);
+            if (format == Format.BINARY) {
+                pos -= pos % 16;
+            } else {
+                pos = nextLine(channel, pos, probe);
+            }
+            bounds[i] = pos;
+        }
+        bounds[(int) chunks] = size;
+        return bounds;
+    }
+
+    private static long nextLine(FileChannel channel, long pos, ByteBuffer probe) throws IOException {
+        while (true) {
+            probe.clear();
+            int read = channel.read(probe, pos);
+            if (read <= 0) {
+                return channel.size();
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return pos + i + 1;
+                }
+            }
+            pos += read;
+        }
+    }
+
+    private static Pairs parseChunk(FileChannel channel, long from, long to, Format format) throws IOException {
+        Pairs pairs = new Pairs();
+        if (to > from) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+            Parser parser = format == Format.BINARY ? new BinaryParser(pairs) : new TextParser(pairs, format, from);
+            parser.accept(buffer);
+            parser.finish();
+        }
+        return pairs;
+    }
+
+    /**
+     * Analiza trozos del fichero repartiéndolos por mitades entre los hilos del pool.
+     */
+    private static final class ParseChunks extends RecursiveAction {
+        private final FileChannel channel;
+        private final long[] bounds;
+        private final Format format;
+        private final Pairs[] parts;
+        private final int from;
+        private final int to;
+
+        ParseChunks(FileChannel channel, long[] bounds, Format format, Pairs[] parts, int from, int to) {
+            this.channel = channel;
+            this.bounds = bounds;
+            this.format = format;
+            this.parts = parts;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                try {
+                    parts[from] = parseChunk(channel, bounds[from], bounds[from + 1], format);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ParseChunks(channel, bounds, format, parts, from, mid),
+                    new ParseChunks(channel, bounds, format, parts, mid, to));
+        }
+    }
+
+    /**
+     * Numera los vértices, elimina los arcos repetidos y vuelca el resultado en el grafo.
+     */
+    private static Report build(Pairs pairs, Graph<Long> graph, long start, EventoCargaArcos event) {
+        int m = pairs.size;
+        // Numeración densa por orden de aparición
+        LongIntMap ids = new LongIntMap(Math.max(16, m / 4));
+        int[] src = new int[m];
+        int[] dst = new int[m];
+        for (int i = 0; i < m; i++) {
+            src[i] = ids.idOf(pairs.values[2 * i]);
+            dst[i] = ids.idOf(pairs.values[2 * i + 1]);
+        }
+        int n = ids.size();
+
+        // Pasada de conteo: los arcos de cada vértice quedan contiguos, se ordenan y se quitan los repetidos
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < m; i++) {
+            offsets[src[i] + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] next = Arrays.copyOf(offsets, n);
+        int[] targets = new int[m];
+        for (int i = 0; i < m; i++) {
+            targets[next[src[i]]++] = dst[i];
+        }
+        src = null;
+        dst = null;
+        int[] degree = new int[n];
+        for (int v = 0; v < n; v++) {
+            Arrays.sort(targets, offsets[v], offsets[v + 1]);
+            int d = 0;
+            for (int k = offsets[v]; k < offsets[v + 1]; k++) {
+                if (d == 0 || targets[k] != targets[offsets[v] + d - 1]) {
+                    targets[offsets[v] + d++] = targets[k];
+                }
+            }
+            degree[v] = d;
+        }
+
+        Long[] vertices = new Long[n];
+        for (int v = 0; v < n; v++) {
+            vertices[v] = ids.keyOf(v);
+        }
+        graph.reserveVertices(n);
+        long added = 0;
+        for (int v = 0; v < n; v++) {
+            Set<Long> adjacents = graph.reserveVertex(vertices[v], degree[v]);
+            for (int k = offsets[v]; k < offsets[v] + degree[v]; k++) {
+                if (adjacents.add(vertices[targets[k]])) {
+                    added++;
+                }
+            }
+        }
+        graph.added(added);
+        Report report = new Report(m, added, n, System.nanoTime() - start);
+        if (Metricas.activas()) {
+            Metricas.registrar(Metricas.GRAFO_CARGA_ARCOS_POR_SEGUNDO, report.getEdgesPerSecond());
+        }
+        if (event != null) {
+            event.end();
+        }
+        if (event != null && event.shouldCommit()) {
+            event.leidos = report.getEdgesRead();
+            event.anadidos = report.getEdgesAdded();
+            event.arcosPorSegundo = report.getEdgesPerSecond();
+            event.commit();
+        }
+        return report;
+    }
+
+    /**
+     * Pares (origen, destino) guardados de forma consecutiva en un array de {@code long} que crece.
+     */
+    private static final class Pairs {
+        long[] values = new long[1024];
+        int size;
+
+        void add(long from, long to) {
+            if (2 * size + 2 > values.length) {
+                if (values.length >= Integer.MAX_VALUE - 8) {
+                    throw new IllegalStateException("Demasiados arcos para una sola carga");
+                }
+                values = Arrays.copyOf(values, (int) Math.min(Integer.MAX_VALUE - 8, values.length * 2L));
+            }
+            values[2 * size] = from;
+            values[2 * size + 1] = to;
+            size++;
+        }
+
+        static Pairs concat(Pairs[] parts) {
+            if (parts.length == 1) {
+                return parts[0];
+            }
+            long total = 0;
+            for (Pairs part : parts) {
+                total += part.size;
+            }
+            if (2 * total > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("Demasiados arcos para una sola carga: " + total);
+            }
+            Pairs result = new Pairs();
+            result.values = new long[(int) (2 * total)];
+            for (Pairs part : parts) {
+                System.arraycopy(part.values, 0, result.values, 2 * result.size, 2 * part.size);
+                result.size += part.size;
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Analizador incremental: recibe el contenido en bloques sucesivos.
+     */
+    private interface Parser {
+        void accept(ByteBuffer buffer) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    /**
+     * Analizador de pares binarios de 64 bits en orden big-endian.
+     */
+    private static final class BinaryParser implements Parser {
+        private final Pairs out;
+        private final ByteBuffer pending = ByteBuffer.allocate(16);
+
+        BinaryParser(Pairs out) {
+            this.out = out;
+        }
+
+        @Override
+        public void accept(ByteBuffer buffer) {
+            while (buffer.hasRemaining()) {
+                if (pending.position() == 0 && buffer.remaining() >= 16) {
+                    out.add(buffer.getLong(), buffer.getLong());
+                } else {
+                    pending.put(buffer.get());
+                    if (!pending.hasRemaining()) {
+                        out.add(pending.getLong(0), pending.getLong(8));
+                        pending.clear();
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (pending.position() != 0) {
+                throw new IOException("El fichero binario termina con un par incompleto");
+            }
+        }
+    }
+
+    /**
+     * Analizador de texto: una máquina de estados que no necesita tener la línea completa en memoria.
+     */
+    private static final class TextParser implements Parser {
+        private final Pairs out;
+        private final byte separator;
+        private long offset;
+        private int field;
+        private long value;
+        private long first;
+        private boolean negative;
+        private boolean digits;
+        private boolean comment;
+        private boolean lineStart = true;
+
+        TextParser(Pairs out, Format format, long offset) {
+            this.out = out;
+            this.separator = (byte) (format == Format.CSV ? ',' : '\t');
+            this.offset = offset;
+        }
+
+        @Override
+        public void accept(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                byte b = buffer.get();
+                offset++;
+                if (b == '\n') {
+                    endLine();
+                    continue;
+                }
+                if (comment || b == '\r') {
+                    continue;
+                }
+                if (lineStart && (b == '#' || b == '%')) {
+                    comment = true;
+                    continue;
+                }
+                lineStart = false;
+                if (field == 2) {
+                    continue;
+                }
+                if (b >= '0' && b <= '9') {
+                    int digit = b - '0';
+                    if (value > (Long.MAX_VALUE - digit) / 10) {
+                        throw new IOException("Número demasiado grande en la posición " + (offset - 1));
+                    }
+                    value = value * 10 + digit;
+                    digits = true;
+                } else if (b == '-' && !digits && !negative) {
+                    negative = true;
+                } else if (b == separator || b == ' ' || b == '\t') {
+                    endField();
+                } else {
+                    throw new IOException("Carácter no válido '" + (char) b + "' en la posición " + (offset - 1));
+                }
+            }
+        }
+
+        private void endField() throws IOException {
+            if (negative && !digits) {
+                throw new IOException("Número incompleto en la posición " + (offset - 1));
+            }
+            if (digits) {
+                long number = negative ? -value : value;
+                if (field == 0) {
+                    first = number;
+                } else {
+                    out.add(first, number);
+                }
+                field++;
+            }
+            value = 0;
+            digits = false;
+            negative = false;
+        }
+
+        private void endLine() throws IOException {
+            if (!comment) {
+                endField();
+                if (field == 1) {
+                    throw new IOException("Línea con un solo vértice antes de la posición " + offset);
+                }
+            }
+            field = 0;
+            comment = false;
+            lineStart = true;
+        }
+
+        @Override
+        public void finish() throws IOException {
+            endLine();
+        }
+    }
+
+    /**
+     * Tabla hash abierta de {@code long} a identificador denso, sin objetos por entrada.
+     */
+    private static final class LongIntMap {
+        private long[] keys;
+        private int[] values;
+        private boolean[] used;
+        private long[] byId;
+        private int size;
+
+        LongIntMap(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(16, expected) * 2 - 1) << 1;
+            keys = new long[capacity];
+            values = new int[capacity];
+            used = new boolean[capacity];
+            byId = new long[Math.max(16, expected)];
+        }
+
+        int idOf(long key) {
+            int mask = keys.length - 1;
+            int slot = hash(key) & mask;
+            while (used[slot]) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            used[slot] = true;
+            keys[slot] = key;
+            values[slot] = size;
+            if (size == byId.length) {
+                byId = Arrays.copyOf(byId, size * 2);
+            }
+            byId[size] = key;
+            if (++size * 2 > keys.length) {
+                rehash();
+            }
+            return size - 1;
+        }
+
+        long keyOf(int id) {
+            return byId[id];
+        }
+
+        int size() {
+            return size;
+        }
+
+        private void rehash() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            boolean[] oldUsed = used;
+            keys = new long[oldKeys.length * 2];
+            values = new int[oldKeys.length * 2];
+            used = new boolean[oldKeys.length * 2];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldUsed[i]) {
+                    int slot = hash(oldKeys[i]) & mask;
+                    while (used[slot]) {
+                        slot = (slot + 1) & mask;
+                    }
+                    used[slot] = true;
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -13,11 +13,19 @@ License.
 */
 
 package com.aplicacion.pr2;
+import com.aplicacion.metricas.EventoCaminoGrafo;
+import com.aplicacion.metricas.Metricas;
 import java.util.*;
+import java.util.function.Predicate;
 
 public class Graph<V> {
     // Lista de adyacencia
     private Map<V, Set<V>> adjacencyList = new HashMap<>();
+    // Número de versión, que aumenta con cada vértice o arco nuevo
+    private long version;
+    // Lista de adyacencia inversa, que se construye bajo demanda para la búsqueda bidireccional
+    private Map<V, List<V>> incoming;
+    private long incomingVersion = -1;
 
     /**
      * Añade el vértice ‘v‘ al grafo.
@@ -29,6 +37,7 @@ public class Graph<V> {
             return false;
         }
         adjacencyList.put(v, new HashSet<>());
+        version++;
         return true;
     }
 
@@ -41,7 +50,14 @@ public class Graph<V> {
     public boolean addEdge(V v1, V v2) {
         addVertex(v1);
         addVertex(v2);
-        return adjacencyList.get(v1).add(v2);
+        if (!adjacencyList.get(v1).add(v2)) {
+            return false;
+        }
+        version++;
+        if (Metricas.activas()) {
+            Metricas.incrementar(Metricas.GRAFO_ARCOS_INSERTADOS, 1);
+        }
+        return true;
     }
 
     /**
@@ -57,6 +73,55 @@ public class Graph<V> {
         return adjacencyList.get(v);
     }
 
+    /**
+     * Obtiene el número de versión del grafo, que aumenta cada vez que se añade un vértice o un arco nuevo.
+     * Sirve para saber si el grafo ha cambiado desde una consulta anterior; no detecta los cambios hechos
+     * directamente sobre el conjunto que devuelve {@link #obtainAdjacents(Object)}.
+     * @return el número de versión actual.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Prepara la lista de adyacencia para recibir ‘vertices‘ vértices sin redimensionarse. Solo tiene
+     * efecto si el grafo está vacío.
+     */
+    void reserveVertices(int vertices) {
+        if (adjacencyList.isEmpty()) {
+            adjacencyList = new HashMap<>(capacityFor(vertices));
+        }
+    }
+
+    /**
+     * Obtiene el conjunto de adyacentes de ‘v‘ para añadirle arcos directamente, creando el vértice con un
+     * conjunto dimensionado para ‘degree‘ arcos si no existía. Quien añade arcos al conjunto debe avisar
+     * con {@link #added(long)}.
+     */
+    Set<V> reserveVertex(V v, int degree) {
+        Set<V> adjacents = adjacencyList.get(v);
+        if (adjacents == null) {
+            adjacents = new HashSet<>(capacityFor(degree));
+            adjacencyList.put(v, adjacents);
+            version++;
+        }
+        return adjacents;
+    }
+
+    /**
+     * Registra que se han añadido ‘edges‘ arcos nuevos a través de {@link #reserveVertex(Object, int)}.
+     */
+    void added(long edges) {
+        version += edges;
+        if (Metricas.activas()) {
+            Metricas.incrementar(Metricas.GRAFO_ARCOS_INSERTADOS, edges);
+        }
+    }
+
+    private static int capacityFor(int elements) {
+        return Math.max(16, (int) Math.min(1 << 30, (long) (elements / 0.75f) + 1));
+    }
+
     /**
      * Comprueba si el grafo contiene el vértice dado.
      * @param v vértice para el que se realiza la comprobación.
@@ -66,6 +131,35 @@ public class Graph<V> {
         return adjacencyList.containsKey(v);
     }
 
+    /**
+     * Congela el grafo en una vista inmutable en formato CSR, con los vértices numerados de forma densa y
+     * los arcos guardados en arrays de enteros. Los cambios posteriores en el grafo no se reflejan en la vista.
+     * @return la vista CSR del estado actual del grafo.
+     */
+    public GraphSnapshot<V> snapshot() {
+        return new GraphSnapshot<>(adjacencyList);
+    }
+
+    /**
+     * Obtiene todos los vértices alcanzables desde un conjunto de vértices y su distancia en saltos, con una
+     * búsqueda en anchura paralela sobre una vista CSR del grafo (ver {@link ParallelBfs}).
+     * @param seeds vértices de partida; se ignoran los que no están en el grafo.
+     * @return la distancia de cada vértice alcanzable.
+     */
+    public ParallelBfs.Result<V> reachableFrom(Collection<? extends V> seeds) {
+        return ParallelBfs.search(snapshot(), seeds);
+    }
+
+    /**
+     * Calcula la distancia de edición de este grafo a otro, tomando cada vértice como su propia etiqueta y
+     * con los presupuestos por defecto de {@link GraphEditDistance}.
+     * @param other grafo de llegada.
+     * @return la distancia, las operaciones de edición y si el resultado es exacto.
+     */
+    public GraphEditDistance.Result<V> editDistance(Graph<V> other) {
+        return new GraphEditDistance<V>().compute(this, other);
+    }
+
     /**
      * Metodo ‘toString()‘ reescrito para mostrar la lista de adyacencia.
      * @return una cadena de caracteres con la lista de adyacencia.
@@ -89,15 +183,19 @@ public class Graph<V> {
         if (!containsVertex(v1) || !containsVertex(v2)) {
             return null;
         }
+        EventoCaminoGrafo event = Metricas.jfrActivo() ? new EventoCaminoGrafo() : null;
+        if (event != null) {
+            event.begin();
+        }
         Map<V, V> trace = new HashMap<>();
-        Stack<V> stack = new Stack<>();
+        Deque<V> stack = new ArrayDeque<>();
         stack.push(v1);
         trace.put(v1, null);
 
         while (!stack.isEmpty()) {
             V current = stack.pop();
             if (current.equals(v2)) {
-                return reconstructPath(trace, v1, v2);
+                return recordPath(event, trace.size(), reconstructPath(trace, v1, v2));
             }
             for (V neighbor : adjacencyList.get(current)) {
                 if (!trace.containsKey(neighbor)) {
@@ -106,17 +204,231 @@ public class Graph<V> {
                 }
             }
         }
+        return recordPath(event, trace.size(), null);
+    }
+
+    /**
+     * Anota en las métricas y en JFR los vértices visitados por {@link #onePath(Object, Object)} y la
+     * longitud del camino encontrado.
+     * @param event evento de JFR de la búsqueda, o null si Flight Recorder no está en marcha.
+     * @return el mismo camino.
+     */
+    private static <V> List<V> recordPath(EventoCaminoGrafo event, int visited, List<V> path) {
+        if (event == null && !Metricas.activas()) {
+            return path;
+        }
+        int length = path == null ? 0 : path.size();
+        if (Metricas.activas()) {
+            Metricas.registrar(Metricas.GRAFO_CAMINO_VISITADOS, visited);
+            if (path != null) {
+                Metricas.registrar(Metricas.GRAFO_CAMINO_LONGITUD, length);
+            }
+        }
+        if (event != null) {
+            event.end();
+        }
+        if (event != null && event.shouldCommit()) {
+            event.visitados = visited;
+            event.longitud = length;
+            event.commit();
+        }
+        return path;
+    }
+
+    /**
+     * Obtiene, en caso de que exista, un camino con el mínimo número de arcos entre ‘v1‘ y ‘v2‘ usando
+     * búsqueda en anchura (BFS).
+     * @param v1 el vértice origen.
+     * @param v2 el vértice destino.
+     * @return lista con la secuencia de vértices desde ‘v1‘ hasta ‘v2‘, o null si no hay camino.
+     */
+    public List<V> shortestPath(V v1, V v2) {
+        return shortestPath(v1, v2, Integer.MAX_VALUE, null);
+    }
+
+    /**
+     * Obtiene, en caso de que exista, un camino con el mínimo número de arcos entre ‘v1‘ y ‘v2‘ usando
+     * búsqueda en anchura (BFS), con un límite de arcos y un filtro de vértices.
+     * @param v1 el vértice origen.
+     * @param v2 el vértice destino.
+     * @param maxHops número máximo de arcos del camino.
+     * @param filter condición que deben cumplir todos los vértices del camino, incluidos ‘v1‘ y ‘v2‘;
+     *               null para admitir cualquier vértice.
+     * @return lista con la secuencia de vértices desde ‘v1‘ hasta ‘v2‘, o null si no hay camino.
+     */
+    public List<V> shortestPath(V v1, V v2, int maxHops, Predicate<? super V> filter) {
+        if (maxHops < 0) {
+            throw new IllegalArgumentException("El límite de arcos no puede ser negativo: " + maxHops);
+        }
+        if (!containsVertex(v1) || !containsVertex(v2) || !accepts(filter, v1) || !accepts(filter, v2)) {
+            return null;
+        }
+        Map<V, V> trace = new HashMap<>();
+        trace.put(v1, null);
+        List<V> frontier = new ArrayList<>();
+        frontier.add(v1);
+        // Se recorre nivel a nivel para poder aplicar el límite de arcos.
+        for (int hops = 0; !frontier.isEmpty(); hops++) {
+            List<V> next = new ArrayList<>();
+            for (V current : frontier) {
+                if (current.equals(v2)) {
+                    return reconstructPath(trace, v1, v2);
+                }
+                if (hops == maxHops) {
+                    continue;
+                }
+                for (V neighbor : adjacencyList.get(current)) {
+                    if (!trace.containsKey(neighbor) && accepts(filter, neighbor)) {
+                        trace.put(neighbor, current);
+                        next.add(neighbor);
+                    }
+                }
+            }
+            frontier = next;
+        }
         return null;
     }
 
+    /**
+     * Obtiene, en caso de que exista, un camino con el mínimo número de arcos entre ‘v1‘ y ‘v2‘ usando
+     * búsqueda en anchura bidireccional: se avanza a la vez desde ‘v1‘ por los arcos salientes y desde ‘v2‘
+     * por los entrantes, expandiendo siempre la frontera más pequeña, hasta que ambas se encuentran.
+     * En grafos grandes explora muchos menos vértices que una búsqueda desde un solo extremo.
+     * @param v1 el vértice origen.
+     * @param v2 el vértice destino.
+     * @return lista con la secuencia de vértices desde ‘v1‘ hasta ‘v2‘, o null si no hay camino.
+     */
+    public List<V> bidirectionalPath(V v1, V v2) {
+        return bidirectionalPath(v1, v2, Integer.MAX_VALUE, null);
+    }
+
+    /**
+     * Versión de {@link #bidirectionalPath(Object, Object)} con un límite de arcos y un filtro de vértices.
+     * @param v1 el vértice origen.
+     * @param v2 el vértice destino.
+     * @param maxHops número máximo de arcos del camino.
+     * @param filter condición que deben cumplir todos los vértices del camino, incluidos ‘v1‘ y ‘v2‘;
+     *               null para admitir cualquier vértice.
+     * @return lista con la secuencia de vértices desde ‘v1‘ hasta ‘v2‘, o null si no hay camino.
+     */
+    public List<V> bidirectionalPath(V v1, V v2, int maxHops, Predicate<? super V> filter) {
+        if (maxHops < 0) {
+            throw new IllegalArgumentException("El límite de arcos no puede ser negativo: " + maxHops);
+        }
+        if (!containsVertex(v1) || !containsVertex(v2) || !accepts(filter, v1) || !accepts(filter, v2)) {
+            return null;
+        }
+        if (v1.equals(v2)) {
+            return new ArrayList<>(Collections.singletonList(v1));
+        }
+        Map<V, List<V>> reverse = incoming();
+        Map<V, V> forwardTrace = new HashMap<>();
+        Map<V, V> backwardTrace = new HashMap<>();
+        Map<V, Integer> forwardDepth = new HashMap<>();
+        Map<V, Integer> backwardDepth = new HashMap<>();
+        forwardTrace.put(v1, null);
+        forwardDepth.put(v1, 0);
+        backwardTrace.put(v2, null);
+        backwardDepth.put(v2, 0);
+        List<V> forwardFrontier = new ArrayList<>(Collections.singletonList(v1));
+        List<V> backwardFrontier = new ArrayList<>(Collections.singletonList(v2));
+        int depth = 0;
+
+        while (!forwardFrontier.isEmpty() && !backwardFrontier.isEmpty() && depth < maxHops) {
+            boolean forward = forwardFrontier.size() <= backwardFrontier.size();
+            List<V> frontier = forward ? forwardFrontier : backwardFrontier;
+            Map<V, V> trace = forward ? forwardTrace : backwardTrace;
+            Map<V, Integer> depths = forward ? forwardDepth : backwardDepth;
+            Map<V, Integer> otherDepths = forward ? backwardDepth : forwardDepth;
+
+            // Se expande el nivel completo y se elige el encuentro más corto de todo el nivel.
+            V bestFrom = null;
+            V bestMeeting = null;
+            int bestLength = Integer.MAX_VALUE;
+            List<V> next = new ArrayList<>();
+            for (V current : frontier) {
+                int currentDepth = depths.get(current);
+                Collection<V> neighbors = forward
+                        ? adjacencyList.get(current)
+                        : reverse.getOrDefault(current, Collections.emptyList());
+                for (V neighbor : neighbors) {
+                    if (!accepts(filter, neighbor)) {
+                        continue;
+                    }
+                    Integer other = otherDepths.get(neighbor);
+                    if (other != null && currentDepth + 1 + other < bestLength) {
+                        bestLength = currentDepth + 1 + other;
+                        bestFrom = current;
+                        bestMeeting = neighbor;
+                    }
+                    if (!trace.containsKey(neighbor)) {
+                        trace.put(neighbor, current);
+                        depths.put(neighbor, currentDepth + 1);
+                        next.add(neighbor);
+                    }
+                }
+            }
+            depth++;
+            if (bestMeeting != null) {
+                if (bestLength > maxHops) {
+                    return null;
+                }
+                return joinPaths(forward, bestFrom, bestMeeting, forwardTrace, backwardTrace, v1, v2);
+            }
+            if (forward) {
+                forwardFrontier = next;
+            } else {
+                backwardFrontier = next;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Une las dos mitades de un camino bidireccional que se encuentran en el arco ‘from‘ → ‘meeting‘
+     * (o ‘meeting‘ → ‘from‘ si se expandía hacia atrás).
+     */
+    private List<V> joinPaths(boolean forward, V from, V meeting, Map<V, V> forwardTrace,
+                              Map<V, V> backwardTrace, V v1, V v2) {
+        V lastForward = forward ? from : meeting;
+        V firstBackward = forward ? meeting : from;
+        List<V> path = reconstructPath(forwardTrace, v1, lastForward);
+        for (V at = firstBackward; at != null; at = backwardTrace.get(at)) {
+            path.add(at);
+        }
+        return path;
+    }
+
+    /**
+     * Devuelve la lista de adyacencia inversa, reconstruyéndola si el grafo ha cambiado desde la última vez.
+     */
+    private Map<V, List<V>> incoming() {
+        if (incoming == null || incomingVersion != version) {
+            Map<V, List<V>> reverse = new HashMap<>();
+            for (Map.Entry<V, Set<V>> entry : adjacencyList.entrySet()) {
+                for (V w : entry.getValue()) {
+                    reverse.computeIfAbsent(w, k -> new ArrayList<>()).add(entry.getKey());
+                }
+            }
+            incoming = reverse;
+            incomingVersion = version;
+        }
+        return incoming;
+    }
+
+    private static <V> boolean accepts(Predicate<? super V> filter, V v) {
+        return filter == null || filter.test(v);
+    }
+
     /**
      * Reconstruye el camino desde ‘v1‘ hasta ‘v2‘ usando la traza.
      */
     private List<V> reconstructPath(Map<V, V> trace, V start, V end) {
-        List<V> path = new LinkedList<>();
+        List<V> path = new ArrayList<>();
         for (V at = end; at != null; at = trace.get(at)) {
-            path.add(0, at);
+            path.add(at);
         }
+        Collections.reverse(path);
         return path;
     }
 }
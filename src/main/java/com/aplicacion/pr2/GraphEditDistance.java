@@ -0,0 +1,843 @@
+/*
+Copyright 2025 Pablo Lozano Hernández
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+either express or implied. See the License for the specific
+language governing permissions and limitations under the
+License.
+*/
+
+package com.aplicacion.pr2;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Distancia de edición entre dos grafos dirigidos: el mínimo número de operaciones (insertar, borrar o
+ * reetiquetar un vértice, e insertar o borrar un arco) que transforman el primer grafo en el segundo.
+ * Cada operación cuesta 1 y reetiquetar un vértice cuesta 0 si ambos vértices tienen la misma etiqueta.
+ * <p>
+ * El cálculo exacto es exponencial, así que se hace por ramificación y poda: se asignan los vértices del
+ * primer grafo uno a uno (a un vértice libre del segundo o a su borrado) y se descarta toda rama cuyo coste
+ * acumulado más una cota inferior admisible del coste restante no mejora la mejor solución conocida. La cota
+ * combina las etiquetas que faltan por emparejar, la diferencia en el número de arcos pendientes y la
+ * diferencia entre los grados de entrada y salida pendientes. Las primeras ramas se reparten entre los
+ * hilos de un {@link ForkJoinPool}, que comparten la mejor solución. Cada hilo recorre su rama aplicando y
+ * deshaciendo las asignaciones sobre un único estado, y de cada nodo solo guarda sus candidatos ordenados,
+ * así que la memoria crece con la profundidad y no con el número de nodos generados.
+ * </p>
+ * <p>
+ * Antes de buscar se calcula una cota superior con una asignación de coste mínimo entre vértices (método
+ * húngaro, o una asignación voraz en grafos grandes o si el método húngaro no termina a tiempo), que sirve
+ * para podar desde el principio. El plazo se comprueba también al evaluar cada candidato. Si se agota el
+ * presupuesto de nodos o de tiempo, se devuelve la mejor solución encontrada, marcada como no exacta, junto
+ * con la cota inferior de la raíz.
+ * </p>
+ * @param <V> tipo de los vértices.
+ */
+public class GraphEditDistance<V> {
+
+    /**
+     * Tipos de operación de edición.
+     */
+    public enum Operation {
+        INSERT_VERTEX, DELETE_VERTEX, SUBSTITUTE_VERTEX, INSERT_EDGE, DELETE_EDGE
+    }
+
+    /**
+     * Una operación de edición. Para los vértices, ‘from‘ es el vértice del primer grafo y ‘to‘ el del
+     * segundo (null si no aplica); para los arcos, son el origen y el destino del arco.
+     * @param <V> tipo de los vértices.
+     */
+    public static final class Edit<V> {
+        private final Operation operation;
+        private final V from;
+        private final V to;
+
+        Edit(Operation operation, V from, V to) {
+            this.operation = operation;
+            this.from = from;
+            this.to = to;
+        }
+
+        public Operation getOperation() {
+            return operation;
+        }
+
+        public V getFrom() {
+            return from;
+        }
+
+        public V getTo() {
+            return to;
+        }
+
+        @Override
+        public String toString() {
+            return operation + "(" + from + ", " + to + ")";
+        }
+    }
+
+    /**
+     * Resultado del cálculo de la distancia.
+     * @param <V> tipo de los vértices.
+     */
+    public static final class Result<V> {
+        private final int distance;
+        private final int lowerBound;
+        private final boolean exact;
+        private final List<Edit<V>> script;
+        private final long expandedNodes;
+
+        Result(int distance, int lowerBound, boolean exact, List<Edit<V>> script, long expandedNodes) {
+            this.distance = distance;
+            this.lowerBound = lowerBound;
+            this.exact = exact;
+            this.script = Collections.unmodifiableList(script);
+            this.expandedNodes = expandedNodes;
+        }
+
+        /**
+         * @return la distancia encontrada; si no es exacta, es una cota superior de la distancia real.
+         */
+        public int getDistance() {
+            return distance;
+        }
+
+        /**
+         * @return una cota inferior de la distancia real (igual a la distancia si es exacta).
+         */
+        public int getLowerBound() {
+            return lowerBound;
+        }
+
+        /**
+         * @return ‘true‘ si la búsqueda terminó y la distancia es la mínima.
+         */
+        public boolean isExact() {
+            return exact;
+        }
+
+        /**
+         * @return las operaciones que transforman el primer grafo en el segundo; hay tantas como la distancia.
+         */
+        public List<Edit<V>> getScript() {
+            return script;
+        }
+
+        /**
+         * @return número de nodos del árbol de búsqueda que se han expandido.
+         */
+        public long getExpandedNodes() {
+            return expandedNodes;
+        }
+
+        @Override
+        public String toString() {
+            return (exact ? "distancia = " : "distancia <= ") + distance + " (cota inferior " + lowerBound
+                    + ", " + expandedNodes + " nodos): " + script;
+        }
+    }
+
+    // Profundidad máxima hasta la que las ramas se reparten entre hilos
+    private static final int PARALLEL_DEPTH = 2;
+    // Por encima de este número de vértices se usa una asignación voraz en lugar del método húngaro, O(n^3)
+    private static final int MAX_HUNGARIAN_SIZE = 600;
+    // Pools reutilizados entre cálculos, uno por número de hilos
+    private static final ConcurrentMap<Integer, ForkJoinPool> POOLS = new ConcurrentHashMap<>();
+
+    private Function<? super V, ?> labels = v -> v;
+    private long nodeBudget = 5_000_000;
+    private Duration timeBudget = Duration.ofSeconds(10);
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Establece la etiqueta de cada vértice. Por defecto la etiqueta es el propio vértice; con una función
+     * constante se compara solo la estructura de los grafos.
+     * @param labels función que obtiene la etiqueta de un vértice.
+     * @return este mismo objeto.
+     */
+    public GraphEditDistance<V> withLabels(Function<? super V, ?> labels) {
+        this.labels = Objects.requireNonNull(labels);
+        return this;
+    }
+
+    /**
+     * @param nodeBudget número máximo de nodos del árbol de búsqueda que se expanden.
+     * @return este mismo objeto.
+     */
+    public GraphEditDistance<V> withNodeBudget(long nodeBudget) {
+        this.nodeBudget = nodeBudget;
+        return this;
+    }
+
+    /**
+     * @param timeBudget tiempo máximo de búsqueda.
+     * @return este mismo objeto.
+     */
+    public GraphEditDistance<V> withTimeBudget(Duration timeBudget) {
+        this.timeBudget = Objects.requireNonNull(timeBudget);
+        return this;
+    }
+
+    /**
+     * @param parallelism número de hilos de búsqueda cuando no se indica un pool.
+     * @return este mismo objeto.
+     */
+    public GraphEditDistance<V> withParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("El número de hilos debe ser positivo: " + parallelism);
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Calcula la distancia de edición de ‘g1‘ a ‘g2‘ en un pool compartido con los hilos configurados.
+     * @see #compute(Graph, Graph, ForkJoinPool)
+     */
+    public Result<V> compute(Graph<V> g1, Graph<V> g2) {
+        return compute(g1, g2, pool(parallelism));
+    }
+
+    /**
+     * Calcula la distancia de edición de ‘g1‘ a ‘g2‘.
+     * @param g1   grafo de partida.
+     * @param g2   grafo de llegada.
+     * @param pool pool en el que se reparten las ramas; no se cierra.
+     * @return la distancia, las operaciones y si el resultado es exacto.
+     */
+    public Result<V> compute(Graph<V> g1, Graph<V> g2, ForkJoinPool pool) {
+        long deadline = System.nanoTime() + timeBudget.toNanos();
+        Problem<V> problem = new Problem<>(g1.snapshot(), g2.snapshot(), labels);
+        int[] upperMapping = problem.assignmentMapping(deadline);
+        Search<V> search = new Search<>(problem, upperMapping, problem.mappingCost(upperMapping), nodeBudget,
+                deadline, pool.getParallelism());
+        int rootBound = problem.lowerBound(problem.newState());
+        if (rootBound < search.best.get()) {
+            pool.invoke(search.task(new int[0]));
+        }
+        boolean exact = !search.aborted;
+        int distance = search.best.get();
+        return new Result<>(distance, exact ? distance : Math.min(rootBound, distance), exact,
+                problem.script(search.bestMapping), search.expanded.get());
+    }
+
+    private static ForkJoinPool pool(int parallelism) {
+        if (parallelism == Runtime.getRuntime().availableProcessors()) {
+            return ForkJoinPool.commonPool();
+        }
+        return POOLS.computeIfAbsent(parallelism, ForkJoinPool::new);
+    }
+
+    /**
+     * Datos de los dos grafos con los vértices numerados.
+     */
+    private static final class Problem<V> {
+        final GraphSnapshot<V> s1;
+        final GraphSnapshot<V> s2;
+        final int n1;
+        final int n2;
+        // Vértices del primer grafo en el orden en que se asignan (de mayor a menor grado)
+        final int[] order;
+        final int[] label1;
+        final int[] label2;
+        final int labelCount;
+        final int[] out1, in1, out2, in2;
+        final EdgeSet edges1;
+        final EdgeSet edges2;
+
+        Problem(GraphSnapshot<V> s1, GraphSnapshot<V> s2, Function<? super V, ?> labels) {
+            this.s1 = s1;
+            this.s2 = s2;
+            n1 = s1.vertexCount();
+            n2 = s2.vertexCount();
+            Map<Object, Integer> labelIds = new HashMap<>();
+            label1 = new int[n1];
+            label2 = new int[n2];
+            for (int i = 0; i < n1; i++) {
+                label1[i] = labelIds.computeIfAbsent(labels.apply(s1.vertex(i)), k -> labelIds.size());
+            }
+            for (int i = 0; i < n2; i++) {
+                label2[i] = labelIds.computeIfAbsent(labels.apply(s2.vertex(i)), k -> labelIds.size());
+            }
+            labelCount = labelIds.size();
+            out1 = new int[n1];
+            in1 = new int[n1];
+            out2 = new int[n2];
+            in2 = new int[n2];
+            edges1 = new EdgeSet(s1, out1, in1);
+            edges2 = new EdgeSet(s2, out2, in2);
+            Integer[] sorted = new Integer[n1];
+            for (int i = 0; i < n1; i++) {
+                sorted[i] = i;
+            }
+            Arrays.sort(sorted, (a, b) -> Integer.compare(out1[b] + in1[b], out1[a] + in1[a]));
+            order = new int[n1];
+            for (int i = 0; i < n1; i++) {
+                order[i] = sorted[i];
+            }
+        }
+
+        /**
+         * Estado inicial: ningún vértice asignado.
+         */
+        SearchState newState() {
+            SearchState s = new SearchState(n1, n2, labelCount);
+            for (int i = 0; i < n1; i++) {
+                s.remaining1[label1[i]]++;
+            }
+            for (int i = 0; i < n2; i++) {
+                s.remaining2[label2[i]]++;
+            }
+            return s;
+        }
+
+        /**
+         * Coste de asignar el siguiente vértice del orden a ‘w‘ (-1 para borrarlo), dado el estado.
+         * Devuelve también, en ‘decided‘, los arcos de cada grafo que quedan decididos.
+         */
+        int stepCost(SearchState s, int w, int[] decided) {
+            int k = s.depth;
+            int u = order[k];
+            int cost = w < 0 ? 1 : (label1[u] == label2[w] ? 0 : 1);
+            int d1 = 0;
+            int d2 = 0;
+            for (int i = 0; i <= k; i++) {
+                int a = i == k ? u : order[i];
+                int wa = i == k ? w : s.mapping[a];
+                boolean e1 = edges1.contains(u, a);
+                boolean e2 = w >= 0 && wa >= 0 && edges2.contains(w, wa);
+                d1 += e1 ? 1 : 0;
+                d2 += e2 ? 1 : 0;
+                cost += e1 != e2 ? 1 : 0;
+                if (i < k) {
+                    boolean r1 = edges1.contains(a, u);
+                    boolean r2 = w >= 0 && wa >= 0 && edges2.contains(wa, w);
+                    d1 += r1 ? 1 : 0;
+                    d2 += r2 ? 1 : 0;
+                    cost += r1 != r2 ? 1 : 0;
+                }
+            }
+            decided[0] = d1;
+            decided[1] = d2;
+            return cost;
+        }
+
+        /**
+         * Asigna el siguiente vértice del orden a ‘w‘ (-1 para borrarlo), actualizando el estado.
+         */
+        void apply(SearchState s, int w) {
+            int k = s.depth;
+            int u = order[k];
+            s.steps[k] = stepCost(s, w, s.decided);
+            s.decidedSteps1[k] = s.decided[0];
+            s.decidedSteps2[k] = s.decided[1];
+            s.cost += s.steps[k];
+            s.decided1 += s.decided[0];
+            s.decided2 += s.decided[1];
+            s.remaining1[label1[u]]--;
+            if (w >= 0) {
+                s.mapping[u] = w;
+                s.preimage[w] = u;
+                s.remaining2[label2[w]]--;
+                s.used++;
+            }
+            s.depth++;
+        }
+
+        /**
+         * Deshace la última asignación hecha con {@link #apply(SearchState, int)}.
+         */
+        void undo(SearchState s) {
+            int k = --s.depth;
+            int u = order[k];
+            int w = s.mapping[u];
+            s.cost -= s.steps[k];
+            s.decided1 -= s.decidedSteps1[k];
+            s.decided2 -= s.decidedSteps2[k];
+            s.remaining1[label1[u]]++;
+            if (w >= 0) {
+                s.mapping[u] = -1;
+                s.preimage[w] = -1;
+                s.remaining2[label2[w]]++;
+                s.used--;
+            }
+        }
+
+        /**
+         * Coste de completar una asignación total: insertar los vértices libres del segundo grafo y los
+         * arcos que aún no están decididos.
+         */
+        int completionCost(SearchState s) {
+            return (n2 - s.used) + (edges2.size() - s.decided2);
+        }
+
+        /**
+         * Cota inferior admisible del coste que falta para completar la asignación.
+         */
+        int lowerBound(SearchState s) {
+            if (s.depth == n1) {
+                return completionCost(s);
+            }
+            int r1 = n1 - s.depth;
+            int r2 = n2 - s.used;
+            int common = 0;
+            for (int l = 0; l < labelCount; l++) {
+                common += Math.min(s.remaining1[l], s.remaining2[l]);
+            }
+            int vertexBound = Math.max(r1, r2) - common;
+
+            int countBound = Math.abs((edges1.size() - s.decided1) - (edges2.size() - s.decided2));
+            int[] o1 = s.out1Buffer;
+            int[] i1 = s.in1Buffer;
+            for (int k = s.depth; k < n1; k++) {
+                o1[k - s.depth] = out1[order[k]];
+                i1[k - s.depth] = in1[order[k]];
+            }
+            int[] o2 = s.out2Buffer;
+            int[] i2 = s.in2Buffer;
+            int j = 0;
+            for (int w = 0; w < n2; w++) {
+                if (s.preimage[w] < 0) {
+                    o2[j] = out2[w];
+                    i2[j++] = in2[w];
+                }
+            }
+            int degreeBound = Math.max(sortedDistance(o1, r1, o2, r2), sortedDistance(i1, r1, i2, r2));
+            return vertexBound + Math.max(countBound, degreeBound);
+        }
+
+        /**
+         * Distancia L1 mínima entre dos multiconjuntos de grados (los ‘na‘ primeros elementos de ‘a‘ y los
+         * ‘nb‘ primeros de ‘b‘), completando el menor con ceros.
+         */
+        private static int sortedDistance(int[] a, int na, int[] b, int nb) {
+            Arrays.sort(a, 0, na);
+            Arrays.sort(b, 0, nb);
+            int total = 0;
+            int ia = na - 1;
+            int ib = nb - 1;
+            while (ia >= 0 || ib >= 0) {
+                total += Math.abs((ia >= 0 ? a[ia--] : 0) - (ib >= 0 ? b[ib--] : 0));
+            }
+            return total;
+        }
+
+        /**
+         * Asignación aproximada de vértices de coste mínimo, que se usa como cota superior inicial. Si el
+         * método húngaro no termina antes del plazo, se usa la asignación voraz.
+         * @param deadline instante límite, según {@link System#nanoTime()}.
+         * @return para cada vértice del primer grafo, su imagen en el segundo o -1 si se borra.
+         */
+        int[] assignmentMapping(long deadline) {
+            int size = n1 + n2;
+            int[] mapping = new int[n1];
+            Arrays.fill(mapping, -1);
+            if (size == 0) {
+                return mapping;
+            }
+            if (size > MAX_HUNGARIAN_SIZE) {
+                return greedyMapping();
+            }
+            double inf = 1e9;
+            double[][] cost = new double[size][size];
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    if (i < n1 && j < n2) {
+                        cost[i][j] = substitutionEstimate(i, j);
+                    } else if (i < n1) {
+                        cost[i][j] = j - n2 == i ? 1 + (out1[i] + in1[i]) / 2.0 : inf;
+                    } else if (j < n2) {
+                        cost[i][j] = i - n1 == j ? 1 + (out2[j] + in2[j]) / 2.0 : inf;
+                    }
+                }
+            }
+            int[] assigned = hungarian(cost, deadline);
+            if (assigned == null) {
+                return greedyMapping();
+            }
+            for (int i = 0; i < n1; i++) {
+                mapping[i] = assigned[i] < n2 ? assigned[i] : -1;
+            }
+            return mapping;
+        }
+
+        private double substitutionEstimate(int u, int w) {
+            return (label1[u] == label2[w] ? 0 : 1)
+                    + (Math.abs(out1[u] - out2[w]) + Math.abs(in1[u] - in2[w])) / 2.0;
+        }
+
+        private int[] greedyMapping() {
+            int[] mapping = new int[n1];
+            boolean[] used = new boolean[n2];
+            for (int u : order) {
+                int best = -1;
+                double bestCost = 1 + (out1[u] + in1[u]) / 2.0;
+                for (int w = 0; w < n2; w++) {
+                    if (!used[w]) {
+                        double c = substitutionEstimate(u, w);
+                        if (c < bestCost) {
+                            bestCost = c;
+                            best = w;
+                        }
+                    }
+                }
+                mapping[u] = best;
+                if (best >= 0) {
+                    used[best] = true;
+                }
+            }
+            return mapping;
+        }
+
+        /**
+         * Método húngaro para una matriz de costes cuadrada, en O(n^3).
+         * @return para cada fila, la columna asignada, o null si se pasa el plazo.
+         */
+        private static int[] hungarian(double[][] a, long deadline) {
+            int n = a.length;
+            double[] u = new double[n + 1];
+            double[] v = new double[n + 1];
+            int[] p = new int[n + 1];
+            int[] way = new int[n + 1];
+            for (int i = 1; i <= n; i++) {
+                if (System.nanoTime() > deadline) {
+                    return null;
+                }
+                p[0] = i;
+                int j0 = 0;
+                double[] minv = new double[n + 1];
+                Arrays.fill(minv, Double.POSITIVE_INFINITY);
+                boolean[] usedCols = new boolean[n + 1];
+                do {
+                    usedCols[j0] = true;
+                    int i0 = p[j0];
+                    double delta = Double.POSITIVE_INFINITY;
+                    int j1 = 0;
+                    for (int j = 1; j <= n; j++) {
+                        if (!usedCols[j]) {
+                            double cur = a[i0 - 1][j - 1] - u[i0] - v[j];
+                            if (cur < minv[j]) {
+                                minv[j] = cur;
+                                way[j] = j0;
+                            }
+                            if (minv[j] < delta) {
+                                delta = minv[j];
+                                j1 = j;
+                            }
+                        }
+                    }
+                    for (int j = 0; j <= n; j++) {
+                        if (usedCols[j]) {
+                            u[p[j]] += delta;
+                            v[j] -= delta;
+                        } else {
+                            minv[j] -= delta;
+                        }
+                    }
+                    j0 = j1;
+                } while (p[j0] != 0);
+                do {
+                    int j1 = way[j0];
+                    p[j0] = p[j1];
+                    j0 = j1;
+                } while (j0 != 0);
+            }
+            int[] rowToCol = new int[n];
+            for (int j = 1; j <= n; j++) {
+                rowToCol[p[j] - 1] = j - 1;
+            }
+            return rowToCol;
+        }
+
+        /**
+         * Coste exacto de transformar el primer grafo en el segundo con una asignación total de vértices.
+         */
+        int mappingCost(int[] mapping) {
+            return script(mapping).size();
+        }
+
+        /**
+         * Operaciones de edición que corresponden a una asignación total de vértices.
+         */
+        List<Edit<V>> script(int[] mapping) {
+            List<Edit<V>> script = new ArrayList<>();
+            int[] preimage = new int[n2];
+            Arrays.fill(preimage, -1);
+            for (int u = 0; u < n1; u++) {
+                int w = mapping[u];
+                if (w < 0) {
+                    script.add(new Edit<>(Operation.DELETE_VERTEX, s1.vertex(u), null));
+                } else {
+                    preimage[w] = u;
+                    if (label1[u] != label2[w]) {
+                        script.add(new Edit<>(Operation.SUBSTITUTE_VERTEX, s1.vertex(u), s2.vertex(w)));
+                    }
+                }
+            }
+            for (int w = 0; w < n2; w++) {
+                if (preimage[w] < 0) {
+                    script.add(new Edit<>(Operation.INSERT_VERTEX, null, s2.vertex(w)));
+                }
+            }
+            for (int a = 0; a < n1; a++) {
+                for (int k = 0; k < s1.outDegree(a); k++) {
+                    int b = s1.adjacent(a, k);
+                    if (mapping[a] < 0 || mapping[b] < 0 || !edges2.contains(mapping[a], mapping[b])) {
+                        script.add(new Edit<>(Operation.DELETE_EDGE, s1.vertex(a), s1.vertex(b)));
+                    }
+                }
+            }
+            for (int c = 0; c < n2; c++) {
+                for (int k = 0; k < s2.outDegree(c); k++) {
+                    int d = s2.adjacent(c, k);
+                    if (preimage[c] < 0 || preimage[d] < 0 || !edges1.contains(preimage[c], preimage[d])) {
+                        script.add(new Edit<>(Operation.INSERT_EDGE, s2.vertex(c), s2.vertex(d)));
+                    }
+                }
+            }
+            return script;
+        }
+    }
+
+    /**
+     * Estado de la búsqueda: asignación parcial de los primeros ‘depth‘ vértices del orden. Cada hilo usa el
+     * suyo, que avanza y retrocede con {@link Problem#apply(SearchState, int)} y {@link Problem#undo(SearchState)}.
+     */
+    private static final class SearchState {
+        final int[] mapping;
+        final int[] preimage;
+        final int[] remaining1;
+        final int[] remaining2;
+        // Coste y arcos decididos de cada asignación, para deshacerla
+        final int[] steps;
+        final int[] decidedSteps1;
+        final int[] decidedSteps2;
+        final int[] decided = new int[2];
+        // Arrays de trabajo de la cota inferior
+        final int[] out1Buffer;
+        final int[] in1Buffer;
+        final int[] out2Buffer;
+        final int[] in2Buffer;
+        // Candidatos de cada profundidad: estimación en los 32 bits altos y ‘w + 1‘ en los bajos
+        final long[][] candidates;
+        int depth;
+        int used;
+        int decided1;
+        int decided2;
+        int cost;
+
+        SearchState(int n1, int n2, int labelCount) {
+            mapping = new int[n1];
+            preimage = new int[n2];
+            Arrays.fill(mapping, -1);
+            Arrays.fill(preimage, -1);
+            remaining1 = new int[labelCount];
+            remaining2 = new int[labelCount];
+            steps = new int[n1];
+            decidedSteps1 = new int[n1];
+            decidedSteps2 = new int[n1];
+            out1Buffer = new int[n1];
+            in1Buffer = new int[n1];
+            out2Buffer = new int[n2];
+            in2Buffer = new int[n2];
+            candidates = new long[n1][];
+        }
+
+        /**
+         * Array de candidatos de la profundidad actual; se crea la primera vez que se llega a ella.
+         */
+        long[] candidateBuffer() {
+            long[] buffer = candidates[depth];
+            if (buffer == null) {
+                buffer = new long[preimage.length + 1];
+                candidates[depth] = buffer;
+            }
+            return buffer;
+        }
+    }
+
+    /**
+     * Búsqueda por ramificación y poda compartida entre los hilos.
+     */
+    private static final class Search<V> {
+        final Problem<V> problem;
+        final AtomicInteger best;
+        final AtomicLong expanded = new AtomicLong();
+        final long nodeBudget;
+        final long deadline;
+        // Profundidad hasta la que se reparten las ramas: la necesaria para tener trabajo para todos los hilos
+        final int parallelDepth;
+        // Estado de cada hilo; no es un ThreadLocal para que no quede retenido en los hilos del pool
+        final ConcurrentMap<Thread, SearchState> states = new ConcurrentHashMap<>();
+        volatile boolean aborted;
+        int[] bestMapping;
+
+        Search(Problem<V> problem, int[] initialMapping, int initialCost, long nodeBudget, long deadline,
+               int parallelism) {
+            this.problem = problem;
+            this.best = new AtomicInteger(initialCost);
+            this.bestMapping = initialMapping;
+            this.nodeBudget = nodeBudget;
+            this.deadline = deadline;
+            int depth = 0;
+            long tasks = 1;
+            while (depth < PARALLEL_DEPTH && tasks < 8L * parallelism) {
+                tasks *= problem.n2 + 1;
+                depth++;
+            }
+            this.parallelDepth = parallelism == 1 ? 0 : depth;
+        }
+
+        /**
+         * Tarea que explora la rama definida por las asignaciones de ‘prefix‘ a los primeros vértices del
+         * orden. Solo guarda esas asignaciones; el estado se reconstruye en el hilo que la ejecuta.
+         */
+        RecursiveAction task(int[] prefix) {
+            return new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    if (aborted) {
+                        return;
+                    }
+                    SearchState state = states.computeIfAbsent(Thread.currentThread(), t -> problem.newState());
+                    List<RecursiveAction> children = new ArrayList<>();
+                    for (int w : prefix) {
+                        problem.apply(state, w);
+                    }
+                    try {
+                        if (prefix.length >= parallelDepth || state.depth == problem.n1) {
+                            explore(state);
+                            return;
+                        }
+                        long[] candidates = state.candidateBuffer();
+                        int count = candidates(state, candidates);
+                        for (int i = 0; i < count; i++) {
+                            int[] child = Arrays.copyOf(prefix, prefix.length + 1);
+                            child[prefix.length] = (int) candidates[i] - 1;
+                            children.add(task(child));
+                        }
+                    } finally {
+                        // El estado se devuelve a la raíz antes de que el hilo pueda ejecutar otra tarea.
+                        for (int i = 0; i < prefix.length; i++) {
+                            problem.undo(state);
+                        }
+                    }
+                    invokeAll(children);
+                }
+            };
+        }
+
+        /**
+         * Recorrido en profundidad a partir de un estado, en el propio hilo. Al volver, el estado es el mismo
+         * que al empezar.
+         */
+        void explore(SearchState state) {
+            if (aborted) {
+                return;
+            }
+            if (expanded.incrementAndGet() > nodeBudget || System.nanoTime() > deadline) {
+                aborted = true;
+                return;
+            }
+            if (state.depth == problem.n1) {
+                offer(state, state.cost + problem.completionCost(state));
+                return;
+            }
+            long[] candidates = state.candidateBuffer();
+            int count = candidates(state, candidates);
+            for (int i = 0; i < count && !aborted; i++) {
+                if ((int) (candidates[i] >>> 32) >= best.get()) {
+                    // Los candidatos están ordenados, así que los siguientes tampoco mejoran la solución.
+                    break;
+                }
+                problem.apply(state, (int) candidates[i] - 1);
+                explore(state);
+                problem.undo(state);
+            }
+        }
+
+        /**
+         * Calcula los candidatos del estado que no se pueden podar y los deja en ‘candidates‘ ordenados de
+         * menor a mayor coste estimado.
+         * @return número de candidatos, o 0 si se ha pasado el plazo.
+         */
+        int candidates(SearchState state, long[] candidates) {
+            int count = 0;
+            for (int w = -1; w < problem.n2; w++) {
+                if (w >= 0 && state.preimage[w] >= 0) {
+                    continue;
+                }
+                if (aborted || System.nanoTime() > deadline) {
+                    aborted = true;
+                    return 0;
+                }
+                problem.apply(state, w);
+                int estimate = state.cost + problem.lowerBound(state);
+                problem.undo(state);
+                if (estimate < best.get()) {
+                    candidates[count++] = ((long) estimate << 32) | (w + 1);
+                }
+            }
+            Arrays.sort(candidates, 0, count);
+            return count;
+        }
+
+        synchronized void offer(SearchState state, int total) {
+            if (total < best.get()) {
+                best.set(total);
+                bestMapping = state.mapping.clone();
+            }
+        }
+    }
+
+    /**
+     * Conjunto de arcos con consulta en tiempo constante. También calcula los grados de cada vértice.
+     */
+    private static final class EdgeSet {
+        private final int n;
+        private final boolean[] matrix;
+        private final Set<Long> set;
+        private final int size;
+
+        EdgeSet(GraphSnapshot<?> s, int[] out, int[] in) {
+            n = s.vertexCount();
+            boolean dense = (long) n * n <= (1 << 22);
+            matrix = dense ? new boolean[n * n] : null;
+            set = dense ? null : new HashSet<>();
+            for (int a = 0; a < n; a++) {
+                for (int k = 0; k < s.outDegree(a); k++) {
+                    int b = s.adjacent(a, k);
+                    out[a]++;
+                    in[b]++;
+                    if (dense) {
+                        matrix[a * n + b] = true;
+                    } else {
+                        set.add(((long) a << 32) | b);
+                    }
+                }
+            }
+            size = s.edgeCount();
+        }
+
+        boolean contains(int a, int b) {
+            return matrix != null ? matrix[a * n + b] : set.contains(((long) a << 32) | b);
+        }
+
+        int size() {
+            return size;
+        }
+    }
+}
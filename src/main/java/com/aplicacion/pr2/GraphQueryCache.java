@@ -0,0 +1,439 @@
+/*
+Copyright 2025 Pablo Lozano Hernández
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+either express or implied. See the License for the specific
+language governing permissions and limitations under the
+License.
+*/
+
+package com.aplicacion.pr2;
+import java.util.*;
+
+/**
+ * Caché de consultas de caminos y alcanzabilidad delante de un {@link Graph}.
+ * <p>
+ * Guarda los resultados de {@link Graph#onePath(Object, Object)} y de {@link #isReachable(Object, Object)}
+ * en un mapa LRU acotado por número de entradas y por el total de vértices de los caminos guardados. Antes de
+ * cada consulta se compara el número de versión del grafo ({@link Graph#getVersion()}) con el de la última
+ * consulta; si ha cambiado, se vacía la caché.
+ * </p>
+ * <p>
+ * Opcionalmente se mantiene la condensación del grafo en componentes fuertemente conexas (Tarjan iterativo),
+ * con las componentes numeradas en orden topológico inverso. Con ella la alcanzabilidad entre dos vértices de
+ * la misma componente, o de componentes en orden contrario, se responde sin recorrer nada; si hay pocas
+ * componentes se precalcula además el cierre transitivo, de modo que toda consulta es O(1).
+ * </p>
+ * <p>
+ * Igual que {@link Graph}, esta clase no es segura para usarse desde varios hilos.
+ * </p>
+ * @param <V> tipo de los vértices.
+ */
+public class GraphQueryCache<V> {
+
+    // Número máximo de componentes para precalcular el cierre transitivo (8 MB de bits)
+    private static final int CLOSURE_LIMIT = 1 << 13;
+    // Marca para guardar en el mapa que no hay camino
+    private static final Object NO_PATH = new Object();
+
+    private final Graph<V> graph;
+    private final int maxEntries;
+    private final long maxPathVertices;
+    private final boolean condensation;
+    private final LinkedHashMap<Query, Object> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedVersion;
+    private long pathVertices;
+    private Condensation<V> components;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    /**
+     * Crea una caché sin condensación, acotada solo por número de entradas.
+     * @param graph      grafo consultado.
+     * @param maxEntries número máximo de consultas guardadas.
+     */
+    public GraphQueryCache(Graph<V> graph, int maxEntries) {
+        this(graph, maxEntries, Long.MAX_VALUE, false);
+    }
+
+    /**
+     * @param graph           grafo consultado.
+     * @param maxEntries      número máximo de consultas guardadas.
+     * @param maxPathVertices número máximo de vértices sumando todos los caminos guardados.
+     * @param condensation    si se mantiene la condensación en componentes fuertemente conexas.
+     */
+    public GraphQueryCache(Graph<V> graph, int maxEntries, long maxPathVertices, boolean condensation) {
+        if (maxEntries < 1 || maxPathVertices < 1) {
+            throw new IllegalArgumentException("Los límites de la caché deben ser positivos");
+        }
+        this.graph = Objects.requireNonNull(graph);
+        this.maxEntries = maxEntries;
+        this.maxPathVertices = maxPathVertices;
+        this.condensation = condensation;
+        this.cachedVersion = graph.getVersion();
+    }
+
+    /**
+     * Igual que {@link Graph#onePath(Object, Object)}, pero reutilizando el resultado de consultas anteriores
+     * si el grafo no ha cambiado.
+     * @param v1 el vértice origen.
+     * @param v2 el vértice destino.
+     * @return lista inmodificable con el camino desde ‘v1‘ hasta ‘v2‘, o null si no hay camino.
+     */
+    @SuppressWarnings("unchecked")
+    public List<V> onePath(V v1, V v2) {
+        checkVersion();
+        Query query = new Query(true, v1, v2);
+        Object cached = entries.get(query);
+        if (cached != null) {
+            hits++;
+            return cached == NO_PATH ? null : (List<V>) cached;
+        }
+        misses++;
+        List<V> path = null;
+        if (components == null || components.isReachable(v1, v2)) {
+            path = graph.onePath(v1, v2);
+        }
+        if (path == null) {
+            store(query, NO_PATH, 0);
+            return null;
+        }
+        List<V> result = Collections.unmodifiableList(path);
+        store(query, result, result.size());
+        return result;
+    }
+
+    /**
+     * Indica si hay un camino de ‘v1‘ a ‘v2‘.
+     * @param v1 el vértice origen.
+     * @param v2 el vértice destino.
+     * @return ‘true‘ si ‘v2‘ es alcanzable desde ‘v1‘.
+     */
+    public boolean isReachable(V v1, V v2) {
+        checkVersion();
+        if (components != null && components.closure != null) {
+            hits++;
+            return components.isReachable(v1, v2);
+        }
+        Query query = new Query(false, v1, v2);
+        Object cached = entries.get(query);
+        if (cached == null) {
+            // Un camino ya guardado también responde a la consulta
+            cached = entries.get(new Query(true, v1, v2));
+        }
+        if (cached != null) {
+            hits++;
+            return cached != NO_PATH;
+        }
+        misses++;
+        boolean reachable = components != null ? components.isReachable(v1, v2) : graph.onePath(v1, v2) != null;
+        store(query, reachable ? Boolean.TRUE : NO_PATH, 0);
+        return reachable;
+    }
+
+    /**
+     * Vacía la caché si el grafo ha cambiado y, si procede, recalcula la condensación.
+     */
+    private void checkVersion() {
+        long version = graph.getVersion();
+        if (version != cachedVersion) {
+            entries.clear();
+            pathVertices = 0;
+            components = null;
+            cachedVersion = version;
+            invalidations++;
+        }
+        if (condensation && components == null) {
+            components = new Condensation<>(graph.snapshot());
+        }
+    }
+
+    private void store(Query query, Object value, int weight) {
+        entries.put(query, value);
+        pathVertices += weight;
+        Iterator<Map.Entry<Query, Object>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries || pathVertices > maxPathVertices) {
+            Map.Entry<Query, Object> entry = eldest.next();
+            if (entry.getValue() instanceof List) {
+                pathVertices -= ((List<?>) entry.getValue()).size();
+            }
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * @return número de componentes fuertemente conexas, o -1 si la condensación está desactivada.
+     */
+    public int getComponentCount() {
+        checkVersion();
+        return components == null ? -1 : components.count;
+    }
+
+    /**
+     * @return número de consultas respondidas sin recorrer el grafo.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return número de consultas que no estaban en la caché.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return número de entradas descartadas por falta de espacio.
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return número de veces que se ha vaciado la caché porque el grafo había cambiado.
+     */
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    /**
+     * @return número de consultas guardadas.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Clave de una consulta: tipo (camino o alcanzabilidad), origen y destino.
+     */
+    private static final class Query {
+        private final boolean path;
+        private final Object from;
+        private final Object to;
+
+        Query(boolean path, Object from, Object to) {
+            this.path = path;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Query)) {
+                return false;
+            }
+            Query q = (Query) o;
+            return path == q.path && Objects.equals(from, q.from) && Objects.equals(to, q.to);
+        }
+
+        @Override
+        public int hashCode() {
+            return (31 * Objects.hashCode(from) + Objects.hashCode(to)) * 2 + (path ? 1 : 0);
+        }
+    }
+
+    /**
+     * Condensación del grafo en componentes fuertemente conexas. Las componentes se numeran en el orden en
+     * que Tarjan las cierra, así que todo arco entre componentes distintas va de una de número mayor a una
+     * de número menor.
+     */
+    private static final class Condensation<V> {
+        final GraphSnapshot<V> snapshot;
+        final int[] component;
+        final int count;
+        final int[] offsets;
+        final int[] targets;
+        // Cierre transitivo: fila ‘c‘ con un bit por componente alcanzable desde ‘c‘, o null si hay demasiadas
+        final long[] closure;
+        final int words;
+
+        Condensation(GraphSnapshot<V> snapshot) {
+            this.snapshot = snapshot;
+            int n = snapshot.vertexCount();
+            int[] vertexOffsets = snapshot.offsets();
+            int[] vertexTargets = snapshot.targets();
+            component = new int[n];
+            count = tarjan(n, vertexOffsets, vertexTargets, component);
+
+            // Arcos entre componentes, sin repetidos
+            offsets = new int[count + 1];
+            int[] last = new int[count];
+            Arrays.fill(last, -1);
+            List<int[]> byComponent = new ArrayList<>(count);
+            int[][] members = membersByComponent(n);
+            int total = 0;
+            for (int c = 0; c < count; c++) {
+                int[] out = new int[4];
+                int size = 0;
+                for (int v : members[c]) {
+                    for (int k = vertexOffsets[v]; k < vertexOffsets[v + 1]; k++) {
+                        int d = component[vertexTargets[k]];
+                        if (d != c && last[d] != c) {
+                            last[d] = c;
+                            if (size == out.length) {
+                                out = Arrays.copyOf(out, size * 2);
+                            }
+                            out[size++] = d;
+                        }
+                    }
+                }
+                byComponent.add(Arrays.copyOf(out, size));
+                total += size;
+            }
+            targets = new int[total];
+            int pos = 0;
+            for (int c = 0; c < count; c++) {
+                offsets[c] = pos;
+                int[] out = byComponent.get(c);
+                System.arraycopy(out, 0, targets, pos, out.length);
+                pos += out.length;
+            }
+            offsets[count] = pos;
+
+            words = (count + 63) >>> 6;
+            if (count <= CLOSURE_LIMIT) {
+                // Los sucesores tienen número menor, así que ya están completos al llegar a cada componente
+                closure = new long[count * words];
+                for (int c = 0; c < count; c++) {
+                    int row = c * words;
+                    closure[row + (c >>> 6)] |= 1L << c;
+                    for (int k = offsets[c]; k < offsets[c + 1]; k++) {
+                        int d = targets[k] * words;
+                        for (int w = 0; w < words; w++) {
+                            closure[row + w] |= closure[d + w];
+                        }
+                    }
+                }
+            } else {
+                closure = null;
+            }
+        }
+
+        private int[][] membersByComponent(int n) {
+            int[] sizes = new int[count];
+            for (int v = 0; v < n; v++) {
+                sizes[component[v]]++;
+            }
+            int[][] members = new int[count][];
+            for (int c = 0; c < count; c++) {
+                members[c] = new int[sizes[c]];
+            }
+            Arrays.fill(sizes, 0);
+            for (int v = 0; v < n; v++) {
+                members[component[v]][sizes[component[v]]++] = v;
+            }
+            return members;
+        }
+
+        /**
+         * Tarjan sin recursión, con una pila explícita de vértices y de posiciones en sus adyacentes.
+         * @return número de componentes.
+         */
+        private static int tarjan(int n, int[] offsets, int[] targets, int[] component) {
+            int[] index = new int[n];
+            int[] low = new int[n];
+            Arrays.fill(index, -1);
+            boolean[] onStack = new boolean[n];
+            int[] stack = new int[n];
+            int top = 0;
+            int[] callVertex = new int[n];
+            int[] callEdge = new int[n];
+            int next = 0;
+            int count = 0;
+            for (int root = 0; root < n; root++) {
+                if (index[root] >= 0) {
+                    continue;
+                }
+                int depth = 0;
+                callVertex[0] = root;
+                callEdge[0] = offsets[root];
+                index[root] = low[root] = next++;
+                stack[top++] = root;
+                onStack[root] = true;
+                while (depth >= 0) {
+                    int v = callVertex[depth];
+                    if (callEdge[depth] < offsets[v + 1]) {
+                        int w = targets[callEdge[depth]++];
+                        if (index[w] < 0) {
+                            index[w] = low[w] = next++;
+                            stack[top++] = w;
+                            onStack[w] = true;
+                            depth++;
+                            callVertex[depth] = w;
+                            callEdge[depth] = offsets[w];
+                        } else if (onStack[w]) {
+                            low[v] = Math.min(low[v], index[w]);
+                        }
+                        continue;
+                    }
+                    if (low[v] == index[v]) {
+                        int w;
+                        do {
+                            w = stack[--top];
+                            onStack[w] = false;
+                            component[w] = count;
+                        } while (w != v);
+                        count++;
+                    }
+                    depth--;
+                    if (depth >= 0) {
+                        int parent = callVertex[depth];
+                        low[parent] = Math.min(low[parent], low[v]);
+                    }
+                }
+            }
+            return count;
+        }
+
+        boolean isReachable(Object v1, Object v2) {
+            @SuppressWarnings("unchecked")
+            int a = snapshot.idOf((V) v1);
+            @SuppressWarnings("unchecked")
+            int b = snapshot.idOf((V) v2);
+            if (a < 0 || b < 0) {
+                return false;
+            }
+            int from = component[a];
+            int to = component[b];
+            if (from == to) {
+                return true;
+            }
+            if (from < to) {
+                return false;
+            }
+            if (closure != null) {
+                return (closure[from * words + (to >>> 6)] & (1L << to)) != 0;
+            }
+            // Recorrido de la condensación descartando las componentes de número menor que el destino
+            BitSet seen = new BitSet(count);
+            int[] pending = new int[count];
+            int size = 0;
+            pending[size++] = from;
+            seen.set(from);
+            while (size > 0) {
+                int c = pending[--size];
+                for (int k = offsets[c]; k < offsets[c + 1]; k++) {
+                    int d = targets[k];
+                    if (d == to) {
+                        return true;
+                    }
+                    if (d > to && !seen.get(d)) {
+                        seen.set(d);
+                        pending[size++] = d;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,311 @@
+/*
+Copyright 2025 Pablo Lozano Hernández
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+either express or implied. See the License for the specific
+language governing permissions and limitations under the
+License.
+*/
+
+package com.aplicacion.pr2;
+import java.util.*;
+
+/**
+ * Vista inmutable de un {@link Graph} en formato CSR (compressed sparse row).
+ * <p>
+ * Cada vértice recibe un identificador entero denso en [0, n). Los adyacentes del vértice 'i' están en
+ * {@code targets[offsets[i]] .. targets[offsets[i + 1] - 1]}, de modo que un recorrido solo lee arrays de
+ * enteros contiguos, sin objetos por vértice ni por arco. Los vértices de tipo 'V' solo se traducen a
+ * identificadores (y viceversa) en la entrada y la salida de cada consulta.
+ * </p>
+ * @param <V> tipo de los vértices.
+ */
+public class GraphSnapshot<V> {
+    private final Object[] vertices;
+    private final Map<V, Integer> ids;
+    private final int[] offsets;
+    private final int[] targets;
+    // Arcos invertidos en formato CSR; se construyen la primera vez que se piden
+    private volatile int[][] reverse;
+    // Arrays de trabajo de onePathIds, uno por hilo, que se reutilizan entre consultas
+    private final ThreadLocal<PathScratch> pathScratch = ThreadLocal.withInitial(() -> new PathScratch(vertexCount()));
+
+    /**
+     * Construye la vista a partir de la lista de adyacencia de un grafo.
+     * @param adjacencyList lista de adyacencia; no se modifica ni se conserva.
+     */
+    GraphSnapshot(Map<V, Set<V>> adjacencyList) {
+        int n = adjacencyList.size();
+        vertices = new Object[n];
+        ids = new HashMap<>(Math.max(16, (int) (n / 0.75f) + 1));
+        long edges = 0;
+        int id = 0;
+        for (Map.Entry<V, Set<V>> entry : adjacencyList.entrySet()) {
+            vertices[id] = entry.getKey();
+            ids.put(entry.getKey(), id++);
+            edges += entry.getValue().size();
+        }
+        if (edges > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Demasiados arcos para una vista CSR: " + edges);
+        }
+        offsets = new int[n + 1];
+        targets = new int[(int) edges];
+        int pos = 0;
+        id = 0;
+        for (Set<V> adjacents : adjacencyList.values()) {
+            offsets[id++] = pos;
+            for (V w : adjacents) {
+                targets[pos++] = ids.get(w);
+            }
+        }
+        offsets[n] = pos;
+    }
+
+    /**
+     * @return número de vértices.
+     */
+    public int vertexCount() {
+        return vertices.length;
+    }
+
+    /**
+     * @return número de arcos.
+     */
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * Obtiene el identificador denso de un vértice.
+     * @param v vértice.
+     * @return su identificador, o -1 si no está en la vista.
+     */
+    public int idOf(V v) {
+        Integer id = ids.get(v);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Obtiene el vértice con el identificador dado.
+     * @param id identificador en [0, vertexCount()).
+     * @return el vértice.
+     */
+    @SuppressWarnings("unchecked")
+    public V vertex(int id) {
+        return (V) vertices[id];
+    }
+
+    /**
+     * @param id identificador del vértice.
+     * @return número de arcos que salen del vértice.
+     */
+    public int outDegree(int id) {
+        return offsets[id + 1] - offsets[id];
+    }
+
+    /**
+     * @param id identificador del vértice.
+     * @param k  posición del adyacente, en [0, outDegree(id)).
+     * @return identificador del k-ésimo adyacente del vértice.
+     */
+    public int adjacent(int id, int k) {
+        return targets[offsets[id] + k];
+    }
+
+    /**
+     * Array de posiciones de inicio de los adyacentes de cada vértice, de longitud n + 1. No se copia.
+     */
+    int[] offsets() {
+        return offsets;
+    }
+
+    /**
+     * Array de destinos de los arcos, agrupados por origen. No se copia.
+     */
+    int[] targets() {
+        return targets;
+    }
+
+    /**
+     * Posiciones de inicio de los predecesores de cada vértice en {@link #reverseTargets()}.
+     */
+    int[] reverseOffsets() {
+        return reverse()[0];
+    }
+
+    /**
+     * Orígenes de los arcos, agrupados por destino.
+     */
+    int[] reverseTargets() {
+        return reverse()[1];
+    }
+
+    private int[][] reverse() {
+        int[][] r = reverse;
+        if (r == null) {
+            synchronized (this) {
+                r = reverse;
+                if (r == null) {
+                    int n = vertices.length;
+                    int[] reverseOffsets = new int[n + 1];
+                    for (int target : targets) {
+                        reverseOffsets[target + 1]++;
+                    }
+                    for (int i = 0; i < n; i++) {
+                        reverseOffsets[i + 1] += reverseOffsets[i];
+                    }
+                    int[] next = Arrays.copyOf(reverseOffsets, n);
+                    int[] reverseTargets = new int[targets.length];
+                    for (int v = 0; v < n; v++) {
+                        for (int k = offsets[v]; k < offsets[v + 1]; k++) {
+                            reverseTargets[next[targets[k]]++] = v;
+                        }
+                    }
+                    r = new int[][] {reverseOffsets, reverseTargets};
+                    reverse = r;
+                }
+            }
+        }
+        return r;
+    }
+
+    /**
+     * Obtiene el conjunto de vértices adyacentes a ‘v‘.
+     * @param v vértice del que se obtienen los adyacentes.
+     * @return lista inmodificable de vértices adyacentes.
+     * @throws Exception si el vértice no está en la vista.
+     */
+    public List<V> obtainAdjacents(V v) throws Exception {
+        int id = idOf(v);
+        if (id < 0) {
+            throw new Exception("El vértice no está en el grafo");
+        }
+        List<V> adjacents = new ArrayList<>(outDegree(id));
+        for (int k = offsets[id]; k < offsets[id + 1]; k++) {
+            adjacents.add(vertex(targets[k]));
+        }
+        return Collections.unmodifiableList(adjacents);
+    }
+
+    /**
+     * Comprueba si la vista contiene el vértice dado.
+     * @param v vértice para el que se realiza la comprobación.
+     * @return ‘true‘ si ‘v‘ es un vértice de la vista.
+     */
+    public boolean containsVertex(V v) {
+        return ids.containsKey(v);
+    }
+
+    /**
+     * Obtiene, en caso de que exista, un camino entre ‘v1‘ y ‘v2‘ usando búsqueda en profundidad (DFS).
+     * Recorre los adyacentes en el mismo orden que {@link Graph#onePath(Object, Object)} sobre el grafo del
+     * que se tomó la vista, por lo que devuelve el mismo camino, pero usando una pila de enteros, un array de
+     * predecesores y un array de marcas de visitado, que cada hilo reutiliza entre consultas.
+     * @param v1 el vértice origen.
+     * @param v2 el vértice destino.
+     * @return lista con la secuencia de vértices desde ‘v1‘ hasta ‘v2‘, o null si no hay camino.
+     */
+    public List<V> onePath(V v1, V v2) {
+        int origin = idOf(v1);
+        int target = idOf(v2);
+        if (origin < 0 || target < 0) {
+            return null;
+        }
+        int[] path = onePathIds(origin, target);
+        return path == null ? null : toVertices(path);
+    }
+
+    /**
+     * Versión con identificadores de {@link #onePath(Object, Object)}. Tiene otro nombre para que no se
+     * confunda con ella cuando los vértices son enteros.
+     * @param origin identificador del vértice origen.
+     * @param target identificador del vértice destino.
+     * @return identificadores del camino desde ‘origin‘ hasta ‘target‘, o null si no hay camino.
+     */
+    public int[] onePathIds(int origin, int target) {
+        PathScratch scratch = pathScratch.get();
+        int[] parent = scratch.parent;
+        int[] stack = scratch.stack;
+        int[] traced = scratch.traced;
+        int mark = scratch.nextMark();
+        int top = 0;
+        stack[top++] = origin;
+        traced[origin] = mark;
+        parent[origin] = -1;
+
+        while (top > 0) {
+            int current = stack[--top];
+            if (current == target) {
+                return reconstructPath(parent, target);
+            }
+            for (int k = offsets[current]; k < offsets[current + 1]; k++) {
+                int neighbor = targets[k];
+                if (traced[neighbor] != mark) {
+                    // Cada vértice se apila como mucho una vez, así que la pila nunca supera n.
+                    stack[top++] = neighbor;
+                    traced[neighbor] = mark;
+                    parent[neighbor] = current;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reconstruye el camino hasta ‘end‘ siguiendo los predecesores.
+     */
+    static int[] reconstructPath(int[] parent, int end) {
+        int length = 0;
+        for (int at = end; at != -1; at = parent[at]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int at = end; at != -1; at = parent[at]) {
+            path[--length] = at;
+        }
+        return path;
+    }
+
+    /**
+     * Traduce una secuencia de identificadores a vértices.
+     */
+    List<V> toVertices(int[] path) {
+        List<V> result = new ArrayList<>(path.length);
+        for (int id : path) {
+            result.add(vertex(id));
+        }
+        return result;
+    }
+
+    /**
+     * Arrays de trabajo de una búsqueda de camino. Un vértice está visitado en la consulta actual si su
+     * entrada en 'traced' es igual a la marca de la consulta, de modo que empezar una consulta nueva no
+     * obliga a limpiar los arrays; solo se leen las entradas de 'parent' de los vértices visitados.
+     */
+    private static final class PathScratch {
+        final int[] parent;
+        final int[] stack;
+        final int[] traced;
+        private int mark;
+
+        PathScratch(int n) {
+            parent = new int[n];
+            stack = new int[Math.max(1, n)];
+            traced = new int[n];
+        }
+
+        int nextMark() {
+            if (++mark == 0) {
+                // Tras 2^32 consultas las marcas vuelven a empezar: se limpian las antiguas.
+                Arrays.fill(traced, 0);
+                mark = 1;
+            }
+            return mark;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+/*
+Copyright 2025 Pablo Lozano Hernández
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+either express or implied. See the License for the specific
+language governing permissions and limitations under the
+License.
+*/
+
+package com.aplicacion.pr2;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Guarda un {@link Graph} en un formato binario versionado que se puede abrir con {@link MappedGraph}.
+ * <p>
+ * Estructura del fichero (enteros en big-endian):
+ * <ol>
+ *     <li>Cabecera de {@value #HEADER_SIZE} bytes: número mágico, versión del formato, número de vértices,
+ *     tamaño de la tabla hash, número de arcos y posiciones de las tres tablas siguientes.</li>
+ *     <li>Diccionario: para cada vértice, su longitud en varint y sus bytes según el {@link VertexCodec}.</li>
+ *     <li>Índice del diccionario: posición de cada vértice en el diccionario (un {@code long} por vértice).</li>
+ *     <li>Tabla hash de direccionamiento abierto de bytes del vértice a identificador más uno (0 si vacía).</li>
+ *     <li>Adyacencia: para cada vértice, su grado en varint y los identificadores de sus adyacentes en orden
+ *     creciente, codificados como diferencias en varint.</li>
+ *     <li>Índice de adyacencia: posición de la lista de cada vértice (un {@code long} por vértice).</li>
+ * </ol>
+ * La escritura es en flujo, con un único buffer reutilizado; la cabecera se completa al final.
+ * </p>
+ */
+public final class GraphWriter {
+
+    static final int MAGIC = 0x47524146;
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 48;
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private GraphWriter() {
+    }
+
+    /**
+     * Guarda el grafo en un fichero.
+     * @param graph grafo que se guarda.
+     * @param codec códec de los vértices.
+     * @param file  ruta del fichero; se sobrescribe si existe.
+     * @throws IOException si no se puede escribir el fichero.
+     */
+    public static <V> void write(Graph<V> graph, VertexCodec<? super V> codec, Path file) throws IOException {
+        GraphSnapshot<V> snapshot = graph.snapshot();
+        int n = snapshot.vertexCount();
+        int[] offsets = snapshot.offsets();
+        int[] targets = snapshot.targets();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            Output out = new Output(channel, HEADER_SIZE);
+
+            long[] dictionary = new long[n];
+            int[] hashes = new int[n];
+            for (int id = 0; id < n; id++) {
+                byte[] bytes = codec.encode(snapshot.vertex(id));
+                dictionary[id] = out.position();
+                hashes[id] = hash(bytes);
+                out.putVarint(bytes.length);
+                out.putBytes(bytes);
+            }
+            long dictionaryIndex = out.position();
+            for (long position : dictionary) {
+                out.putLong(position);
+            }
+
+            int tableSize = tableSize(n);
+            int[] table = new int[tableSize];
+            for (int id = 0; id < n; id++) {
+                int slot = hashes[id] & (tableSize - 1);
+                while (table[slot] != 0) {
+                    slot = (slot + 1) & (tableSize - 1);
+                }
+                table[slot] = id + 1;
+            }
+            long hashTable = out.position();
+            for (int entry : table) {
+                out.putInt(entry);
+            }
+
+            long[] adjacency = dictionary;
+            int[] sorted = new int[16];
+            for (int id = 0; id < n; id++) {
+                int degree = offsets[id + 1] - offsets[id];
+                if (sorted.length < degree) {
+                    sorted = new int[Math.max(degree, sorted.length * 2)];
+                }
+                System.arraycopy(targets, offsets[id], sorted, 0, degree);
+                Arrays.sort(sorted, 0, degree);
+                adjacency[id] = out.position();
+                out.putVarint(degree);
+                int previous = 0;
+                for (int k = 0; k < degree; k++) {
+                    out.putVarint(sorted[k] - previous);
+                    previous = sorted[k];
+                }
+            }
+            long adjacencyIndex = out.position();
+            for (long position : adjacency) {
+                out.putLong(position);
+            }
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(n).putInt(tableSize).putLong(targets.length)
+                    .putLong(dictionaryIndex).putLong(hashTable).putLong(adjacencyIndex).flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        }
+    }
+
+    /**
+     * Tamaño de la tabla hash: la menor potencia de dos que deja la tabla llena como mucho a la mitad.
+     */
+    static int tableSize(int vertices) {
+        return Integer.highestOneBit(Math.max(1, vertices) * 2 - 1) << 1;
+    }
+
+    /**
+     * Hash FNV-1a de 32 bits de los bytes de un vértice. Forma parte del formato, así que no puede cambiar
+     * sin cambiar también {@link #FORMAT_VERSION}.
+     */
+    static int hash(byte[] bytes) {
+        int h = 0x811c9dc5;
+        for (byte b : bytes) {
+            h ^= b & 0xff;
+            h *= 0x01000193;
+        }
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Salida a un canal a través de un buffer que se vuelca cada vez que se llena.
+     */
+    private static final class Output {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private long flushed;
+
+        Output(FileChannel channel, long start) throws IOException {
+            this.channel = channel;
+            this.flushed = start;
+            channel.position(start);
+        }
+
+        long position() {
+            return flushed + buffer.position();
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(4);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) throws IOException {
+            ensure(8);
+            buffer.putLong(value);
+        }
+
+        void putVarint(int value) throws IOException {
+            ensure(5);
+            while ((value & ~0x7f) != 0) {
+                buffer.put((byte) ((value & 0x7f) | 0x80));
+                value >>>= 7;
+            }
+            buffer.put((byte) value);
+        }
+
+        void putBytes(byte[] bytes) throws IOException {
+            int pos = 0;
+            while (pos < bytes.length) {
+                ensure(1);
+                int length = Math.min(buffer.remaining(), bytes.length - pos);
+                buffer.put(bytes, pos, length);
+                pos += length;
+            }
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                flushed += channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
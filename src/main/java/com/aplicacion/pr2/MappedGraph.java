@@ -0,0 +1,339 @@
+/*
+Copyright 2025 Pablo Lozano Hernández
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+either express or implied. See the License for the specific
+language governing permissions and limitations under the
+License.
+*/
+
+package com.aplicacion.pr2;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Grafo de solo lectura sobre un fichero guardado con {@link GraphWriter}, proyectado en memoria.
+ * <p>
+ * Abrirlo solo lee la cabecera: los vértices y las listas de adyacencia se decodifican del fichero cuando
+ * se consultan, así que un proceso puede responder consultas nada más arrancar, sin construir ningún
+ * {@link HashSet}. {@link #toGraph()} construye el {@link Graph} completo cuando hace falta.
+ * </p>
+ * <p>
+ * El fichero se proyecta por segmentos de 1 GB, de modo que puede ocupar más de 2 GB.
+ * </p>
+ * @param <V> tipo de los vértices.
+ */
+public class MappedGraph<V> implements Closeable {
+
+    private static final int SEGMENT_BITS = 30;
+    private static final long SEGMENT_SIZE = 1L << SEGMENT_BITS;
+
+    private final VertexCodec<V> codec;
+    private final int vertexCount;
+    private final int tableSize;
+    private final long edgeCount;
+    private final long dictionaryIndex;
+    private final long hashTable;
+    private final long adjacencyIndex;
+    private MappedByteBuffer[] segments;
+
+    private MappedGraph(MappedByteBuffer[] segments, long size, VertexCodec<V> codec) throws IOException {
+        this.segments = segments;
+        this.codec = codec;
+        if (segments.length == 0 || segments[0].limit() < GraphWriter.HEADER_SIZE
+                || segments[0].getInt(0) != GraphWriter.MAGIC) {
+            throw new IOException("El fichero no tiene formato de grafo binario");
+        }
+        int version = segments[0].getInt(4);
+        if (version != GraphWriter.FORMAT_VERSION) {
+            throw new IOException("Versión de formato no soportada: " + version);
+        }
+        vertexCount = segments[0].getInt(8);
+        tableSize = segments[0].getInt(12);
+        edgeCount = segments[0].getLong(16);
+        dictionaryIndex = segments[0].getLong(24);
+        hashTable = segments[0].getLong(32);
+        adjacencyIndex = segments[0].getLong(40);
+        // Las tablas van en el orden en que las escribe GraphWriter y tienen que caber en el fichero; la tabla
+        // hash necesita al menos un hueco libre para que las búsquedas terminen
+        if (vertexCount < 0 || edgeCount < 0 || tableSize <= vertexCount || Integer.bitCount(tableSize) != 1
+                || dictionaryIndex < GraphWriter.HEADER_SIZE || hashTable < dictionaryIndex + 8L * vertexCount
+                || adjacencyIndex < hashTable + 4L * tableSize || adjacencyIndex + 8L * vertexCount > size) {
+            throw new IOException("La cabecera del grafo binario no es válida o el fichero está truncado");
+        }
+    }
+
+    /**
+     * Abre un fichero guardado con {@link GraphWriter}.
+     * @param file  ruta del fichero.
+     * @param codec códec con el que se guardaron los vértices.
+     * @return el grafo proyectado.
+     * @throws IOException si el fichero no se puede leer o no tiene el formato esperado.
+     */
+    public static <V> MappedGraph<V> open(Path file, VertexCodec<V> codec) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((size + SEGMENT_SIZE - 1) / SEGMENT_SIZE)];
+            for (int i = 0; i < segments.length; i++) {
+                long start = i * SEGMENT_SIZE;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(SEGMENT_SIZE, size - start));
+            }
+            return new MappedGraph<>(segments, size, codec);
+        }
+    }
+
+    /**
+     * @return número de vértices.
+     */
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * @return número de arcos.
+     */
+    public long edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Busca un vértice en la tabla hash del fichero.
+     * @param v vértice.
+     * @return su identificador, o -1 si no está en el grafo.
+     */
+    public int idOf(V v) {
+        checkOpen();
+        byte[] bytes = codec.encode(v);
+        int mask = tableSize - 1;
+        int slot = GraphWriter.hash(bytes) & mask;
+        while (true) {
+            int id = getInt(hashTable + 4L * slot) - 1;
+            if (id < 0) {
+                return -1;
+            }
+            if (matches(id, bytes)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private boolean matches(int id, byte[] bytes) {
+        long[] position = {getLong(dictionaryIndex + 8L * id)};
+        if (readVarint(position) != bytes.length) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (get(position[0] + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decodifica el vértice con el identificador dado.
+     * @param id identificador en [0, vertexCount()).
+     * @return el vértice.
+     */
+    public V vertex(int id) {
+        checkOpen();
+        long[] position = {getLong(dictionaryIndex + 8L * id)};
+        byte[] bytes = new byte[readVarint(position)];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = get(position[0] + i);
+        }
+        return codec.decode(bytes);
+    }
+
+    /**
+     * @param id identificador del vértice.
+     * @return número de arcos que salen del vértice.
+     */
+    public int outDegree(int id) {
+        checkOpen();
+        return readVarint(new long[] {getLong(adjacencyIndex + 8L * id)});
+    }
+
+    /**
+     * @param id identificador del vértice.
+     * @return identificadores de los adyacentes del vértice, en orden creciente.
+     */
+    public int[] adjacentIds(int id) {
+        checkOpen();
+        long[] position = {getLong(adjacencyIndex + 8L * id)};
+        int[] adjacents = new int[readVarint(position)];
+        int previous = 0;
+        for (int k = 0; k < adjacents.length; k++) {
+            previous += readVarint(position);
+            adjacents[k] = previous;
+        }
+        return adjacents;
+    }
+
+    /**
+     * Obtiene los vértices adyacentes a ‘v‘.
+     * @param v vértice del que se obtienen los adyacentes.
+     * @return lista inmodificable de vértices adyacentes.
+     * @throws Exception si el vértice no está en el grafo.
+     */
+    public List<V> obtainAdjacents(V v) throws Exception {
+        int id = idOf(v);
+        if (id < 0) {
+            throw new Exception("El vértice no está en el grafo");
+        }
+        int[] ids = adjacentIds(id);
+        List<V> adjacents = new ArrayList<>(ids.length);
+        for (int w : ids) {
+            adjacents.add(vertex(w));
+        }
+        return Collections.unmodifiableList(adjacents);
+    }
+
+    /**
+     * Comprueba si el grafo contiene el vértice dado.
+     * @param v vértice para el que se realiza la comprobación.
+     * @return ‘true‘ si ‘v‘ es un vértice del grafo.
+     */
+    public boolean containsVertex(V v) {
+        return idOf(v) >= 0;
+    }
+
+    /**
+     * Obtiene, en caso de que exista, un camino entre ‘v1‘ y ‘v2‘ usando búsqueda en profundidad (DFS)
+     * directamente sobre el fichero. Los adyacentes se recorren en orden de identificador, así que el camino
+     * puede no coincidir con el de {@link Graph#onePath(Object, Object)}.
+     * @param v1 el vértice origen.
+     * @param v2 el vértice destino.
+     * @return lista con la secuencia de vértices desde ‘v1‘ hasta ‘v2‘, o null si no hay camino.
+     */
+    public List<V> onePath(V v1, V v2) {
+        int origin = idOf(v1);
+        int target = idOf(v2);
+        if (origin < 0 || target < 0) {
+            return null;
+        }
+        int[] parent = new int[vertexCount];
+        int[] stack = new int[vertexCount];
+        BitSet traced = new BitSet(vertexCount);
+        int top = 0;
+        stack[top++] = origin;
+        traced.set(origin);
+        parent[origin] = -1;
+        long[] position = new long[1];
+        while (top > 0) {
+            int current = stack[--top];
+            if (current == target) {
+                List<V> path = new ArrayList<>();
+                for (int id : GraphSnapshot.reconstructPath(parent, target)) {
+                    path.add(vertex(id));
+                }
+                return path;
+            }
+            position[0] = getLong(adjacencyIndex + 8L * current);
+            int degree = readVarint(position);
+            int neighbor = 0;
+            for (int k = 0; k < degree; k++) {
+                neighbor += readVarint(position);
+                if (!traced.get(neighbor)) {
+                    stack[top++] = neighbor;
+                    traced.set(neighbor);
+                    parent[neighbor] = current;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Construye un {@link Graph} con todos los vértices y arcos del fichero, con cada conjunto de adyacentes
+     * creado ya con su tamaño final.
+     * @return el grafo materializado.
+     */
+    public Graph<V> toGraph() {
+        Graph<V> graph = new Graph<>();
+        List<V> vertices = new ArrayList<>(vertexCount);
+        for (int id = 0; id < vertexCount; id++) {
+            vertices.add(vertex(id));
+        }
+        graph.reserveVertices(vertexCount);
+        long added = 0;
+        for (int id = 0; id < vertexCount; id++) {
+            int[] adjacents = adjacentIds(id);
+            Set<V> set = graph.reserveVertex(vertices.get(id), adjacents.length);
+            for (int w : adjacents) {
+                set.add(vertices.get(w));
+            }
+            added += adjacents.length;
+        }
+        graph.added(added);
+        return graph;
+    }
+
+    /**
+     * Suelta las proyecciones del fichero. Después, las consultas lanzan {@link IllegalStateException}.
+     */
+    @Override
+    public void close() {
+        segments = null;
+    }
+
+    private void checkOpen() {
+        if (segments == null) {
+            throw new IllegalStateException("El grafo proyectado está cerrado");
+        }
+    }
+
+    private byte get(long position) {
+        return segments[(int) (position >>> SEGMENT_BITS)].get((int) (position & (SEGMENT_SIZE - 1)));
+    }
+
+    private int getInt(long position) {
+        int offset = (int) (position & (SEGMENT_SIZE - 1));
+        if (offset <= SEGMENT_SIZE - 4) {
+            return segments[(int) (position >>> SEGMENT_BITS)].getInt(offset);
+        }
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            value = (value << 8) | (get(position + i) & 0xff);
+        }
+        return value;
+    }
+
+    private long getLong(long position) {
+        int offset = (int) (position & (SEGMENT_SIZE - 1));
+        if (offset <= SEGMENT_SIZE - 8) {
+            return segments[(int) (position >>> SEGMENT_BITS)].getLong(offset);
+        }
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (get(position + i) & 0xff);
+        }
+        return value;
+    }
+
+    /**
+     * Lee un varint en ‘position[0]‘ y avanza la posición.
+     */
+    private int readVarint(long[] position) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = get(position[0]++);
+            value |= (b & 0x7f) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+}
@@ -0,0 +1,417 @@
+/*
+Copyright 2025 Pablo Lozano Hernández
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+either express or implied. See the License for the specific
+language governing permissions and limitations under the
+License.
+*/
+
+package com.aplicacion.pr2;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+
+/**
+ * Búsqueda en anchura paralela, por niveles, sobre una {@link GraphSnapshot}.
+ * <p>
+ * Cada nivel se reparte entre los hilos de un {@link ForkJoinPool} y los vértices visitados se marcan en un
+ * mapa de bits atómico, de forma que cada vértice lo reclama un único hilo. La búsqueda cambia de dirección
+ * según el tamaño de la frontera: mientras es pequeña, se expanden los arcos de salida de la frontera
+ * (descendente); cuando los arcos de la frontera superan una fracción de los que quedan por explorar, cada
+ * vértice no visitado busca entre sus predecesores alguno de la frontera y para en el primero (ascendente),
+ * lo que evita recorrer la mayoría de los arcos en los niveles anchos.
+ * </p>
+ * <p>
+ * Las distancias no dependen del número de hilos ni del orden en que se procesa cada nivel, así que el
+ * resultado es el mismo que el de una búsqueda en anchura secuencial.
+ * </p>
+ */
+public final class ParallelBfs {
+
+    // Se pasa a ascendente cuando los arcos de la frontera superan 1/ALPHA de los que faltan por explorar
+    private static final int ALPHA = 14;
+    // Se vuelve a descendente cuando la frontera baja de 1/BETA de los vértices
+    private static final int BETA = 24;
+    // Vértices de la frontera por tarea en el paso descendente
+    private static final int CHUNK = 1024;
+    // Palabras del mapa de bits por tarea en el paso ascendente
+    private static final int CHUNK_WORDS = 64;
+
+    private ParallelBfs() {
+    }
+
+    /**
+     * Resultado de la búsqueda: distancia en saltos de cada vértice al conjunto de partida.
+     * @param <V> tipo de los vértices.
+     */
+    public static final class Result<V> {
+        private final GraphSnapshot<V> graph;
+        private final int[] distances;
+        private final int reached;
+        private final int depth;
+        private final int topDownSteps;
+        private final int bottomUpSteps;
+
+        Result(GraphSnapshot<V> graph, int[] distances, int reached, int depth, int topDownSteps,
+               int bottomUpSteps) {
+            this.graph = graph;
+            this.distances = distances;
+            this.reached = reached;
+            this.depth = depth;
+            this.topDownSteps = topDownSteps;
+            this.bottomUpSteps = bottomUpSteps;
+        }
+
+        /**
+         * @param v vértice.
+         * @return número mínimo de arcos desde el conjunto de partida hasta ‘v‘, o -1 si no es alcanzable.
+         */
+        public int distance(V v) {
+            int id = graph.idOf(v);
+            return id < 0 ? -1 : distances[id];
+        }
+
+        /**
+         * @param id identificador del vértice en la vista.
+         * @return la distancia del vértice, o -1 si no es alcanzable.
+         */
+        public int distanceOf(int id) {
+            return distances[id];
+        }
+
+        /**
+         * @return los vértices alcanzables, ordenados de menor a mayor distancia.
+         */
+        public List<V> reachable() {
+            List<V> result = new ArrayList<>(reached);
+            for (int id : idsByDistance()) {
+                result.add(graph.vertex(id));
+            }
+            return result;
+        }
+
+        /**
+         * @return la distancia de cada vértice alcanzable, en orden de menor a mayor distancia.
+         */
+        public Map<V, Integer> distances() {
+            Map<V, Integer> result = new LinkedHashMap<>(Math.max(16, (int) (reached / 0.75f) + 1));
+            for (int id : idsByDistance()) {
+                result.put(graph.vertex(id), distances[id]);
+            }
+            return result;
+        }
+
+        private int[] idsByDistance() {
+            int[] start = new int[depth + 2];
+            for (int d : distances) {
+                if (d >= 0) {
+                    start[d + 1]++;
+                }
+            }
+            for (int d = 0; d <= depth; d++) {
+                start[d + 1] += start[d];
+            }
+            int[] ids = new int[reached];
+            for (int id = 0; id < distances.length; id++) {
+                if (distances[id] >= 0) {
+                    ids[start[distances[id]]++] = id;
+                }
+            }
+            return ids;
+        }
+
+        /**
+         * @return número de vértices alcanzables, incluidos los de partida.
+         */
+        public int getReachedCount() {
+            return reached;
+        }
+
+        /**
+         * @return la mayor distancia alcanzada, o -1 si no se alcanzó ningún vértice.
+         */
+        public int getDepth() {
+            return depth;
+        }
+
+        /**
+         * @return número de niveles expandidos en modo descendente.
+         */
+        public int getTopDownSteps() {
+            return topDownSteps;
+        }
+
+        /**
+         * @return número de niveles expandidos en modo ascendente.
+         */
+        public int getBottomUpSteps() {
+            return bottomUpSteps;
+        }
+    }
+
+    /**
+     * Busca en anchura desde un conjunto de vértices usando el pool común.
+     * @see #search(GraphSnapshot, Collection, ForkJoinPool)
+     */
+    public static <V> Result<V> search(GraphSnapshot<V> graph, Collection<? extends V> seeds) {
+        return search(graph, seeds, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Busca en anchura desde un conjunto de vértices.
+     * @param graph vista del grafo.
+     * @param seeds vértices de partida, a distancia 0; se ignoran los que no están en la vista.
+     * @param pool  pool en el que se reparte cada nivel.
+     * @return la distancia de cada vértice alcanzable.
+     */
+    public static <V> Result<V> search(GraphSnapshot<V> graph, Collection<? extends V> seeds, ForkJoinPool pool) {
+        return new Run<>(graph, pool).run(seeds);
+    }
+
+    /**
+     * Estado de una búsqueda.
+     */
+    private static final class Run<V> {
+        final GraphSnapshot<V> graph;
+        final ForkJoinPool pool;
+        final int n;
+        final int words;
+        final int[] offsets;
+        final int[] targets;
+        final int[] distances;
+        final AtomicLongArray visited;
+
+        Run(GraphSnapshot<V> graph, ForkJoinPool pool) {
+            this.graph = graph;
+            this.pool = pool;
+            this.n = graph.vertexCount();
+            this.words = (n + 63) >>> 6;
+            this.offsets = graph.offsets();
+            this.targets = graph.targets();
+            this.distances = new int[n];
+            this.visited = new AtomicLongArray(words);
+            Arrays.fill(distances, -1);
+        }
+
+        Result<V> run(Collection<? extends V> seeds) {
+            int[] frontier = new int[seeds.size()];
+            int size = 0;
+            for (V seed : seeds) {
+                int id = graph.idOf(seed);
+                if (id >= 0 && claim(id)) {
+                    distances[id] = 0;
+                    frontier[size++] = id;
+                }
+            }
+            frontier = Arrays.copyOf(frontier, size);
+            int reached = size;
+            int level = 0;
+            int topDownSteps = 0;
+            int bottomUpSteps = 0;
+            long unexploredEdges = targets.length;
+            long[] frontierBits = null;
+            int frontierSize = size;
+
+            while (frontierSize > 0) {
+                long frontierEdges = 0;
+                if (frontierBits == null) {
+                    for (int v : frontier) {
+                        frontierEdges += offsets[v + 1] - offsets[v];
+                    }
+                } else {
+                    for (int w = 0; w < words; w++) {
+                        for (long bits = frontierBits[w]; bits != 0; bits &= bits - 1) {
+                            int v = (w << 6) + Long.numberOfTrailingZeros(bits);
+                            frontierEdges += offsets[v + 1] - offsets[v];
+                        }
+                    }
+                }
+                unexploredEdges -= frontierEdges;
+
+                boolean bottomUp = frontierBits == null
+                        ? frontierEdges > unexploredEdges / ALPHA
+                        : frontierSize >= n / BETA;
+                if (bottomUp) {
+                    if (frontierBits == null) {
+                        frontierBits = toBits(frontier);
+                        frontier = null;
+                    }
+                    frontierBits = bottomUpStep(frontierBits, level);
+                    frontierSize = 0;
+                    for (long bits : frontierBits) {
+                        frontierSize += Long.bitCount(bits);
+                    }
+                    bottomUpSteps++;
+                } else {
+                    if (frontier == null) {
+                        frontier = toList(frontierBits, frontierSize);
+                        frontierBits = null;
+                    }
+                    frontier = topDownStep(frontier, level);
+                    frontierSize = frontier.length;
+                    topDownSteps++;
+                }
+                reached += frontierSize;
+                if (frontierSize > 0) {
+                    level++;
+                }
+            }
+            return new Result<>(graph, distances, reached, reached == 0 ? -1 : level, topDownSteps, bottomUpSteps);
+        }
+
+        /**
+         * Marca un vértice como visitado.
+         * @return ‘true‘ si este hilo es el que lo ha marcado.
+         */
+        private boolean claim(int v) {
+            int w = v >>> 6;
+            long bit = 1L << v;
+            long old = visited.get(w);
+            while ((old & bit) == 0) {
+                if (visited.compareAndSet(w, old, old | bit)) {
+                    return true;
+                }
+                old = visited.get(w);
+            }
+            return false;
+        }
+
+        /**
+         * Expande los arcos de salida de la frontera.
+         */
+        private int[] topDownStep(int[] frontier, int level) {
+            int chunks = (frontier.length + CHUNK - 1) / CHUNK;
+            int[][] parts = new int[chunks][];
+            forEachChunk(chunks, c -> {
+                int from = c * CHUNK;
+                int to = Math.min(frontier.length, from + CHUNK);
+                int[] next = new int[16];
+                int size = 0;
+                for (int i = from; i < to; i++) {
+                    int v = frontier[i];
+                    for (int k = offsets[v]; k < offsets[v + 1]; k++) {
+                        int u = targets[k];
+                        if ((visited.get(u >>> 6) & (1L << u)) == 0 && claim(u)) {
+                            distances[u] = level + 1;
+                            if (size == next.length) {
+                                next = Arrays.copyOf(next, size * 2);
+                            }
+                            next[size++] = u;
+                        }
+                    }
+                }
+                parts[c] = Arrays.copyOf(next, size);
+            });
+            int total = 0;
+            for (int[] part : parts) {
+                total += part.length;
+            }
+            int[] next = new int[total];
+            int pos = 0;
+            for (int[] part : parts) {
+                System.arraycopy(part, 0, next, pos, part.length);
+                pos += part.length;
+            }
+            return next;
+        }
+
+        /**
+         * Cada vértice no visitado busca un predecesor en la frontera. Cada tarea escribe solo sus propias
+         * palabras del mapa de bits.
+         */
+        private long[] bottomUpStep(long[] frontier, int level) {
+            int[] reverseOffsets = graph.reverseOffsets();
+            int[] reverseTargets = graph.reverseTargets();
+            long[] next = new long[words];
+            int chunks = (words + CHUNK_WORDS - 1) / CHUNK_WORDS;
+            forEachChunk(chunks, c -> {
+                int to = Math.min(words, (c + 1) * CHUNK_WORDS);
+                for (int w = c * CHUNK_WORDS; w < to; w++) {
+                    long pending = ~visited.get(w);
+                    if (w == words - 1 && (n & 63) != 0) {
+                        pending &= (1L << (n & 63)) - 1;
+                    }
+                    long found = 0;
+                    for (; pending != 0; pending &= pending - 1) {
+                        int v = (w << 6) + Long.numberOfTrailingZeros(pending);
+                        for (int k = reverseOffsets[v]; k < reverseOffsets[v + 1]; k++) {
+                            int u = reverseTargets[k];
+                            if ((frontier[u >>> 6] & (1L << u)) != 0) {
+                                distances[v] = level + 1;
+                                found |= 1L << v;
+                                break;
+                            }
+                        }
+                    }
+                    if (found != 0) {
+                        visited.set(w, visited.get(w) | found);
+                        next[w] = found;
+                    }
+                }
+            });
+            return next;
+        }
+
+        private long[] toBits(int[] frontier) {
+            long[] bits = new long[words];
+            for (int v : frontier) {
+                bits[v >>> 6] |= 1L << v;
+            }
+            return bits;
+        }
+
+        private int[] toList(long[] frontier, int size) {
+            int[] list = new int[size];
+            int pos = 0;
+            for (int w = 0; w < words; w++) {
+                for (long bits = frontier[w]; bits != 0; bits &= bits - 1) {
+                    list[pos++] = (w << 6) + Long.numberOfTrailingZeros(bits);
+                }
+            }
+            return list;
+        }
+
+        private void forEachChunk(int chunks, IntConsumer body) {
+            if (chunks <= 1) {
+                for (int c = 0; c < chunks; c++) {
+                    body.accept(c);
+                }
+                return;
+            }
+            pool.invoke(new Chunks(0, chunks, body));
+        }
+    }
+
+    /**
+     * Reparte un rango de trozos por mitades entre los hilos del pool.
+     */
+    private static final class Chunks extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final IntConsumer body;
+
+        Chunks(int from, int to, IntConsumer body) {
+            this.from = from;
+            this.to = to;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                body.accept(from);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Chunks(from, mid, body), new Chunks(mid, to, body));
+        }
+    }
+}
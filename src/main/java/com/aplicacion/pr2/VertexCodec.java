@@ -0,0 +1,88 @@
+/*
+Copyright 2025 Pablo Lozano Hernández
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+either express or implied. See the License for the specific
+language governing permissions and limitations under the
+License.
+*/
+
+package com.aplicacion.pr2;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Conversión de vértices a bytes y viceversa, para guardarlos en el diccionario del formato binario de
+ * {@link GraphWriter}. Dos vértices iguales deben codificarse siempre con los mismos bytes.
+ * @param <V> tipo de los vértices.
+ */
+public interface VertexCodec<V> {
+
+    /**
+     * @param v vértice.
+     * @return su representación en bytes.
+     */
+    byte[] encode(V v);
+
+    /**
+     * @param bytes representación en bytes de un vértice.
+     * @return el vértice.
+     */
+    V decode(byte[] bytes);
+
+    /**
+     * @return códec de cadenas en UTF-8.
+     */
+    static VertexCodec<String> strings() {
+        return new VertexCodec<String>() {
+            @Override
+            public byte[] encode(String v) {
+                return v.getBytes(StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public String decode(byte[] bytes) {
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+        };
+    }
+
+    /**
+     * @return códec de enteros de 32 bits.
+     */
+    static VertexCodec<Integer> integers() {
+        return new VertexCodec<Integer>() {
+            @Override
+            public byte[] encode(Integer v) {
+                return ByteBuffer.allocate(4).putInt(v).array();
+            }
+
+            @Override
+            public Integer decode(byte[] bytes) {
+                return ByteBuffer.wrap(bytes).getInt();
+            }
+        };
+    }
+
+    /**
+     * @return códec de enteros de 64 bits.
+     */
+    static VertexCodec<Long> longs() {
+        return new VertexCodec<Long>() {
+            @Override
+            public byte[] encode(Long v) {
+                return ByteBuffer.allocate(8).putLong(v).array();
+            }
+
+            @Override
+            public Long decode(byte[] bytes) {
+                return ByteBuffer.wrap(bytes).getLong();
+            }
+        };
+    }
+}
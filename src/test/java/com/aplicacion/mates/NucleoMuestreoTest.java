@@ -0,0 +1,32 @@
+package com.aplicacion.mates;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.*;
+
+/**
+ * Clase de pruebas unitarias para los núcleos de muestreo. Está en el paquete de los núcleos porque
+ * estos no son públicos.
+ */
+public class NucleoMuestreoTest {
+
+    /**
+     * Este test comprueba que el núcleo vectorial y el escalar cuentan los mismos aciertos con la misma
+     * semilla, también cuando el número de puntos no es múltiplo del número de carriles ni del bloque.
+     */
+    @Test
+    public void nucleoVectorialCoincideConElEscalar() {
+        NucleoMuestreo vectorial = NucleoMuestreo.crear();
+        assertTrue(vectorial.nombre(), vectorial instanceof NucleoVectorial);
+        NucleoMuestreo escalar = new NucleoEscalar();
+        long[] tamanos = {1, 3, 7, NucleoMuestreo.TAMANO_BLOQUE - 1, NucleoMuestreo.TAMANO_BLOQUE + 5, 100_003};
+        for (long puntos : tamanos) {
+            long semilla = 42L + puntos;
+            assertEquals("puntos = " + puntos,
+                    escalar.contarAciertos(new SplittableRandom(semilla), puntos),
+                    vectorial.contarAciertos(new SplittableRandom(semilla), puntos));
+        }
+    }
+}
@@ -0,0 +1,624 @@
+package com.dominio;
+
+import com.aplicacion.dominio.EscritorTablero;
+import com.aplicacion.dominio.ExperimentoVida;
+import com.aplicacion.dominio.FormatoTablero;
+import com.aplicacion.dominio.HashLife;
+import com.aplicacion.dominio.LectorTablero;
+import com.aplicacion.dominio.MatrizBits;
+import com.aplicacion.dominio.ReglaVida;
+import com.aplicacion.dominio.RenderizadorAsincrono;
+import com.aplicacion.dominio.Tablero;
+import com.aplicacion.dominio.Topologia;
+import com.aplicacion.metricas.Metricas;
+import com.aplicacion.metricas.RegistroEnMemoria;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Clase de pruebas unitarias para la clase Tablero.
+ */
+public class TableroTest {
+
+    /**
+     * Implementación de referencia con matrices de enteros, equivalente a la original.
+     */
+    static int[][] siguienteReferencia(int[][] estado) {
+        int alto = estado.length;
+        int ancho = estado[0].length;
+        int[][] nuevo = new int[alto][ancho];
+        for (int i = 0; i < alto; i++) {
+            for (int j = 0; j < ancho; j++) {
+                int vecinos = 0;
+                for (int f = i - 1; f <= i + 1; f++) {
+                    for (int c = j - 1; c <= j + 1; c++) {
+                        if ((f != i || c != j) && f >= 0 && f < alto && c >= 0 && c < ancho) {
+                            vecinos += estado[f][c];
+                        }
+                    }
+                }
+                nuevo[i][j] = estado[i][j] == 1
+                        ? (vecinos == 2 || vecinos == 3 ? 1 : 0)
+                        : (vecinos == 3 ? 1 : 0);
+            }
+        }
+        return nuevo;
+    }
+
+    static int[][] aEnteros(Tablero tablero) {
+        int[][] estado = new int[tablero.getAlto()][tablero.getAncho()];
+        for (int i = 0; i < tablero.getAlto(); i++) {
+            for (int j = 0; j < tablero.getAncho(); j++) {
+                estado[i][j] = tablero.estaViva(i, j) ? 1 : 0;
+            }
+        }
+        return estado;
+    }
+
+    static MatrizBits aleatoria(int ancho, int alto, long semilla) {
+        Random random = new Random(semilla);
+        MatrizBits matriz = new MatrizBits(ancho, alto);
+        for (int i = 0; i < alto; i++) {
+            for (int j = 0; j < ancho; j++) {
+                matriz.set(i, j, random.nextBoolean());
+            }
+        }
+        return matriz;
+    }
+
+    /**
+     * Este test comprueba que el tablero empaquetado en bits evoluciona igual que
+     * la implementación original con matrices de enteros, incluidos anchos que no son múltiplo de 64.
+     */
+    @Test
+    public void coincideConLaImplementacionDeReferencia() {
+        int[][] dimensiones = {{30, 30}, {64, 5}, {130, 70}, {1, 1}, {65, 3}};
+        for (int[] d : dimensiones) {
+            Tablero tablero = new Tablero(d[0], d[1]);
+            tablero.cargarEstado(aleatoria(d[0], d[1], 42));
+            int[][] referencia = aEnteros(tablero);
+            for (int generacion = 0; generacion < 20; generacion++) {
+                tablero.transitarAlEstadoSiguiente();
+                referencia = siguienteReferencia(referencia);
+                assertArrayEquals(referencia, aEnteros(tablero));
+            }
+        }
+    }
+
+    /**
+     * Este test comprueba que un parpadeador oscila con periodo 2.
+     */
+    @Test
+    public void parpadeadorOscila() {
+        Tablero tablero = new Tablero(5, 5);
+        MatrizBits estado = new MatrizBits(5, 5);
+        estado.set(2, 1, true);
+        estado.set(2, 2, true);
+        estado.set(2, 3, true);
+        tablero.cargarEstado(estado);
+        tablero.transitarAlEstadoSiguiente();
+        assertTrue(tablero.estaViva(1, 2));
+        assertTrue(tablero.estaViva(3, 2));
+        assertFalse(tablero.estaViva(2, 1));
+        tablero.transitarAlEstadoSiguiente();
+        assertEquals(estado, tablero.obtenerEstadoActual());
+    }
+
+    /**
+     * Este test comprueba que el cálculo por franjas en paralelo da las mismas generaciones
+     * que el cálculo secuencial.
+     */
+    @Test
+    public void pasoParaleloCoincideConElSecuencial() {
+        MatrizBits inicial = aleatoria(4100, 300, 7);
+        Tablero secuencial = new Tablero(4100, 300);
+        Tablero paralelo = new Tablero(4100, 300);
+        paralelo.configurarParalelismo(4);
+        secuencial.cargarEstado(inicial);
+        paralelo.cargarEstado(inicial);
+        for (int generacion = 0; generacion < 10; generacion++) {
+            secuencial.transitarAlEstadoSiguiente();
+            paralelo.transitarAlEstadoSiguiente();
+            assertEquals(secuencial.obtenerEstadoActual(), paralelo.obtenerEstadoActual());
+        }
+        paralelo.configurarParalelismo(1);
+    }
+
+    /**
+     * Este test comprueba que HashLife, importando y exportando el tablero, da el mismo resultado que avanzar
+     * el tablero generación a generación mientras el patrón no llega a los bordes.
+     */
+    @Test
+    public void hashLifeCoincideConElTablero() {
+        MatrizBits sopa = aleatoria(20, 20, 3);
+        MatrizBits inicial = new MatrizBits(300, 300);
+        for (int i = 0; i < 20; i++) {
+            for (int j = 0; j < 20; j++) {
+                inicial.set(140 + i, 140 + j, sopa.get(i, j));
+            }
+        }
+        Tablero tablero = new Tablero(300, 300);
+        tablero.cargarEstado(inicial);
+        HashLife hashLife = new HashLife();
+        hashLife.importar(tablero);
+
+        hashLife.avanzarPotencia(5);
+        for (int generacion = 0; generacion < 32; generacion++) {
+            tablero.transitarAlEstadoSiguiente();
+        }
+        Tablero exportado = new Tablero(300, 300);
+        hashLife.exportar(exportado);
+        assertEquals(tablero.obtenerEstadoActual(), exportado.obtenerEstadoActual());
+
+        hashLife.avanzar(45);
+        for (int generacion = 0; generacion < 45; generacion++) {
+            tablero.transitarAlEstadoSiguiente();
+        }
+        hashLife.exportar(exportado);
+        assertEquals(77, hashLife.getGeneracion());
+        assertEquals(tablero.obtenerEstadoActual(), exportado.obtenerEstadoActual());
+
+        // Con una tabla pequeña se recolecta a menudo, pero el resultado no cambia.
+        HashLife acotado = new HashLife(1024);
+        acotado.importar(inicial);
+        acotado.avanzar(77);
+        assertTrue(acotado.getRecolecciones() > 0);
+        acotado.exportar(exportado);
+        assertEquals(tablero.obtenerEstadoActual(), exportado.obtenerEstadoActual());
+    }
+
+    /**
+     * Este test comprueba que HashLife respeta el límite de nodos también dentro de un único salto grande
+     * y que alternar tamaños de salto da el mismo resultado que el salto equivalente.
+     */
+    @Test
+    public void hashLifeAcotaLosNodosDentroDeUnSalto() {
+        MatrizBits sopa = aleatoria(64, 64, 11);
+        HashLife libre = new HashLife();
+        libre.importar(sopa);
+        libre.avanzarPotencia(9);
+
+        HashLife acotado = new HashLife(4096);
+        acotado.importar(sopa);
+        acotado.avanzarPotencia(9);
+        assertTrue(acotado.getRecolecciones() > 0);
+        assertTrue(libre.getPicoNodos() + " / " + acotado.getPicoNodos(),
+                acotado.getPicoNodos() < libre.getPicoNodos() / 4);
+        assertEquals(libre.getPoblacion(), acotado.getPoblacion());
+
+        HashLife alterno = new HashLife();
+        alterno.importar(sopa);
+        alterno.avanzarPotencia(8);
+        alterno.avanzar(255);
+        alterno.avanzarPotencia(0);
+        assertEquals(512, alterno.getGeneracion());
+        for (int y = -300; y < 364; y += 3) {
+            for (int x = -300; x < 364; x += 3) {
+                assertEquals(libre.estaViva(x, y), alterno.estaViva(x, y));
+                assertEquals(libre.estaViva(x, y), acotado.estaViva(x, y));
+            }
+        }
+    }
+
+    /**
+     * Este test comprueba que el avance por teselas da las mismas generaciones que el avance completo
+     * y que omite las teselas en las que no hay actividad.
+     */
+    @Test
+    public void seguimientoDeActividadCoincideYOmiteTeselas() {
+        MatrizBits inicial = new MatrizBits(640, 640);
+        MatrizBits sopa = aleatoria(100, 100, 11);
+        for (int i = 0; i < 100; i++) {
+            for (int j = 0; j < 100; j++) {
+                inicial.set(60 + i, 60 + j, sopa.get(i, j));
+            }
+        }
+        Tablero completo = new Tablero(640, 640);
+        Tablero teselas = new Tablero(640, 640);
+        teselas.configurarSeguimientoDeActividad(true);
+        completo.cargarEstado(inicial);
+        teselas.cargarEstado(inicial);
+        for (int generacion = 0; generacion < 150; generacion++) {
+            completo.transitarAlEstadoSiguiente();
+            teselas.transitarAlEstadoSiguiente();
+            assertEquals(completo.obtenerEstadoActual(), teselas.obtenerEstadoActual());
+        }
+        assertTrue(teselas.getTeselasOmitidas() > 0);
+        assertEquals(100, teselas.getTeselasEvaluadas() + teselas.getTeselasOmitidas());
+        assertEquals(-1, completo.getTeselasEvaluadas());
+    }
+
+    /**
+     * Este test comprueba que un tablero guardado en cada formato se lee de nuevo sin cambios.
+     */
+    @Test
+    public void guardarYLeerEnTodosLosFormatos(@TempDir Path directorio) throws IOException {
+        MatrizBits original = aleatoria(150, 37, 5);
+        original.set(36, 149, true);
+        for (FormatoTablero formato : FormatoTablero.values()) {
+            Path ruta = directorio.resolve("tablero-" + formato);
+            EscritorTablero.escribir(original, ruta, formato);
+            assertEquals(formato.toString(), original, LectorTablero.leer(ruta, formato));
+        }
+    }
+
+    /**
+     * Este test comprueba la lectura de un patrón RLE con comentarios y varias filas vacías seguidas.
+     */
+    @Test
+    public void leerPatronRle(@TempDir Path directorio) throws IOException {
+        Path ruta = directorio.resolve("planeador.rle");
+        Files.write(ruta, "#N Planeador\nx = 3, y = 5, rule = B3/S23\nbo$2bo$3o2$3o!\n"
+                .getBytes(StandardCharsets.US_ASCII));
+        Tablero tablero = LectorTablero.leerTablero(ruta);
+        assertEquals(3, tablero.getAncho());
+        assertEquals(5, tablero.getAlto());
+        assertTrue(tablero.estaViva(0, 1));
+        assertTrue(tablero.estaViva(1, 2));
+        assertTrue(tablero.estaViva(2, 0));
+        assertFalse(tablero.estaViva(3, 0));
+        assertTrue(tablero.estaViva(4, 2));
+        assertEquals(8, tablero.obtenerEstadoActual().contarVivas());
+    }
+
+    /**
+     * Este test comprueba que un tablero guardado en RLE conserva su regla y su topología en la cabecera y que
+     * al leerlo se configura con ellas.
+     */
+    @Test
+    public void guardarYLeerReglaEnRle(@TempDir Path directorio) throws IOException {
+        Tablero original = new Tablero(70, 5);
+        original.cargarEstado(aleatoria(70, 5, 9));
+        original.configurarRegla(ReglaVida.analizar("B36/S23"), Topologia.TOROIDAL);
+        Path ruta = directorio.resolve("highlife.rle");
+        original.guardarEstadoActual(ruta);
+        String cabecera = Files.readAllLines(ruta, StandardCharsets.US_ASCII).get(0);
+        assertEquals("x = 70, y = 5, rule = B36/S23:T70,5", cabecera);
+
+        Tablero leido = LectorTablero.leerTablero(ruta);
+        assertEquals(ReglaVida.analizar("B36/S23"), leido.getRegla());
+        assertEquals(Topologia.TOROIDAL, leido.getTopologia());
+        assertEquals(original.obtenerEstadoActual(), leido.obtenerEstadoActual());
+        original.transitarAlEstadoSiguiente();
+        leido.transitarAlEstadoSiguiente();
+        assertEquals(original.obtenerEstadoActual(), leido.obtenerEstadoActual());
+
+        String[] cabecerasNoValidas = {"rule = B9/S23", "rule = B3/S23:K70,5", "rule = B3/S23:T10,5"};
+        for (String regla : cabecerasNoValidas) {
+            Files.write(ruta, ("x = 70, y = 5, " + regla + "\n!\n").getBytes(StandardCharsets.US_ASCII));
+            assertThrows(regla, IOException.class, () -> LectorTablero.leerTablero(ruta));
+        }
+    }
+
+    /**
+     * Este test comprueba que las repeticiones RLE que no caben en la cabecera, y las cabeceras que no caben en
+     * un entero, se rechazan en lugar de desbordar la cuenta o las coordenadas.
+     */
+    @Test
+    public void rechazarRepeticionesRleDesbordadas(@TempDir Path directorio) throws IOException {
+        Path ruta = directorio.resolve("desbordado.rle");
+        String[] patrones = {"4294967297o!", "99999999999b2o!", "o2147483647$o!", "o5$o!", "2b2o!"};
+        for (String patron : patrones) {
+            Files.write(ruta, ("x = 3, y = 5\n" + patron + "\n").getBytes(StandardCharsets.US_ASCII));
+            assertThrows(patron, IOException.class, () -> LectorTablero.leer(ruta, FormatoTablero.RLE));
+        }
+        Files.write(ruta, "x = 99999999999, y = 5\no!\n".getBytes(StandardCharsets.US_ASCII));
+        assertThrows(IOException.class, () -> LectorTablero.leer(ruta, FormatoTablero.RLE));
+        Files.write(ruta, "x = 3, y = 5\n3o4$3b!\n".getBytes(StandardCharsets.US_ASCII));
+        MatrizBits matriz = LectorTablero.leer(ruta, FormatoTablero.RLE);
+        assertEquals(3, matriz.contarVivas());
+    }
+
+    /**
+     * Este test comprueba que el fichero "matriz.txt" del proyecto se lee como una matriz de 30x30.
+     */
+    @Test
+    public void leerMatrizDelProyecto() throws IOException {
+        MatrizBits matriz = LectorTablero.leer(Paths.get("src/main/java/com/aplicacion/dominio/matriz.txt"));
+        assertEquals(30, matriz.getAncho());
+        assertEquals(30, matriz.getAlto());
+        Tablero tablero = new Tablero();
+        tablero.leerEstadoActual(Paths.get("src/main/java/com/aplicacion/dominio/matriz.txt"));
+        assertEquals(matriz, tablero.obtenerEstadoActual());
+    }
+
+    /**
+     * Este test comprueba que se detectan la vida estática y el oscilador con su inicio y periodo, y que el salto
+     * directo a una generación lejana da el mismo tablero que simularla paso a paso.
+     */
+    @Test
+    public void detectarCiclosYSaltarGeneraciones() {
+        // Un bloque (periodo 1) y un parpadeador (periodo 2): ciclo de periodo 2 desde la generación 0
+        Tablero oscilador = new Tablero(12, 12);
+        MatrizBits patron = new MatrizBits(12, 12);
+        patron.establecerRango(1, 1, 3);
+        patron.establecerRango(2, 1, 3);
+        patron.establecerRango(7, 6, 9);
+        oscilador.cargarEstado(patron);
+        oscilador.configurarDeteccionDeCiclos(8);
+        assertTrue(oscilador.avanzarHastaCiclo(10));
+        assertEquals(0, oscilador.getInicioCiclo());
+        assertEquals(2, oscilador.getPeriodoCiclo());
+        assertEquals(2, oscilador.getGeneracion());
+        oscilador.avanzarGeneraciones(1_000_000_001L);
+        assertEquals(1_000_000_003L, oscilador.getGeneracion());
+        assertFalse(oscilador.estaViva(7, 6));
+        assertTrue(oscilador.estaViva(6, 7));
+
+        // Un tablero aleatorio acaba en un ciclo; el salto coincide con la simulación completa
+        for (boolean teselas : new boolean[] {false, true}) {
+            Tablero tablero = new Tablero(48, 40);
+            Tablero referencia = new Tablero(48, 40);
+            tablero.configurarSeguimientoDeActividad(teselas);
+            tablero.configurarDeteccionDeCiclos(64);
+            tablero.generarEstadoActualPorMontecarlo(12345L, 0.4);
+            referencia.generarEstadoActualPorMontecarlo(12345L, 0.4);
+            assertTrue(tablero.avanzarHastaCiclo(20_000));
+            long inicio = tablero.getInicioCiclo();
+            int periodo = tablero.getPeriodoCiclo();
+            assertEquals(inicio + periodo, tablero.getGeneracion());
+
+            MatrizBits alInicio = null;
+            for (long g = 0; g <= inicio + periodo + 777; g++) {
+                if (g == inicio) {
+                    alInicio = referencia.obtenerEstadoActual();
+                }
+                if (g == inicio + periodo) {
+                    assertEquals(alInicio, referencia.obtenerEstadoActual());
+                    assertEquals(tablero.obtenerEstadoActual(), referencia.obtenerEstadoActual());
+                }
+                if (g < inicio + periodo + 777) {
+                    referencia.transitarAlEstadoSiguiente();
+                }
+            }
+            tablero.avanzarGeneraciones(777);
+            assertEquals(referencia.obtenerEstadoActual(), tablero.obtenerEstadoActual());
+            // Tras el salto el tablero sigue avanzando con normalidad
+            tablero.transitarAlEstadoSiguiente();
+            referencia.transitarAlEstadoSiguiente();
+            assertEquals(referencia.obtenerEstadoActual(), tablero.obtenerEstadoActual());
+        }
+
+        // Una fila de diez células da un pentadecatlón (periodo 15) que cruza teselas; con seguimiento de
+        // actividad se detecta igual, y los saltos que retroceden en el ciclo coinciden con la simulación
+        MatrizBits fila = new MatrizBits(200, 150);
+        fila.establecerRango(64, 60, 70);
+        Tablero pentadecatlon = new Tablero(200, 150);
+        Tablero referencia = new Tablero(200, 150);
+        pentadecatlon.configurarSeguimientoDeActividad(true);
+        pentadecatlon.configurarDeteccionDeCiclos(16);
+        pentadecatlon.cargarEstado(fila);
+        referencia.cargarEstado(fila);
+        assertTrue(pentadecatlon.avanzarHastaCiclo(200));
+        assertEquals(15, pentadecatlon.getPeriodoCiclo());
+        for (long g = 0; g < pentadecatlon.getGeneracion(); g++) {
+            referencia.transitarAlEstadoSiguiente();
+        }
+        for (int salto : new int[] {7, 7, 7, 2, 30, 1, 13}) {
+            pentadecatlon.avanzarGeneraciones(salto);
+            for (int g = 0; g < salto; g++) {
+                referencia.transitarAlEstadoSiguiente();
+            }
+            assertEquals(referencia.obtenerEstadoActual(), pentadecatlon.obtenerEstadoActual());
+        }
+    }
+
+    /**
+     * Este test comprueba que, con un registro de métricas instalado, cada paso anota su duración, las
+     * células vivas y las que cambian.
+     */
+    @Test
+    public void registrarMetricasDeCadaPaso() {
+        RegistroEnMemoria registro = new RegistroEnMemoria();
+        Metricas.configurar(registro);
+        try {
+            Tablero tablero = new Tablero(5, 5);
+            MatrizBits estado = new MatrizBits(5, 5);
+            estado.set(2, 1, true);
+            estado.set(2, 2, true);
+            estado.set(2, 3, true);
+            tablero.cargarEstado(estado);
+            tablero.transitarAlEstadoSiguiente();
+            tablero.transitarAlEstadoSiguiente();
+            assertEquals(2, registro.getContador(Metricas.TABLERO_GENERACIONES));
+            assertEquals(2, registro.getResumen(Metricas.TABLERO_PASO_NANOS).getObservaciones());
+            assertEquals(3.0, registro.getResumen(Metricas.TABLERO_VIVAS).getMedia(), 0.0);
+            assertEquals(4.0, registro.getResumen(Metricas.TABLERO_CAMBIADAS).getMaximo(), 0.0);
+        } finally {
+            Metricas.configurar(null);
+        }
+        new Tablero(5, 5).transitarAlEstadoSiguiente();
+        assertEquals(2, registro.getContador(Metricas.TABLERO_GENERACIONES));
+    }
+
+    /**
+     * Implementación de referencia de cualquier regla, con bordes fijos o toroidales.
+     */
+    static MatrizBits siguienteConRegla(MatrizBits estado, ReglaVida regla, boolean toroidal) {
+        int alto = estado.getAlto();
+        int ancho = estado.getAncho();
+        MatrizBits nuevo = new MatrizBits(ancho, alto);
+        for (int i = 0; i < alto; i++) {
+            for (int j = 0; j < ancho; j++) {
+                int vecinos = 0;
+                for (int f = i - 1; f <= i + 1; f++) {
+                    for (int c = j - 1; c <= j + 1; c++) {
+                        if (f == i && c == j) {
+                            continue;
+                        }
+                        if (toroidal) {
+                            vecinos += estado.get(Math.floorMod(f, alto), Math.floorMod(c, ancho)) ? 1 : 0;
+                        } else if (f >= 0 && f < alto && c >= 0 && c < ancho) {
+                            vecinos += estado.get(f, c) ? 1 : 0;
+                        }
+                    }
+                }
+                nuevo.set(i, j, estado.get(i, j) ? regla.sobrevive(vecinos) : regla.nace(vecinos));
+            }
+        }
+        return nuevo;
+    }
+
+    /**
+     * Este test comprueba que la tabla compilada de B3/S23 da las mismas generaciones que el núcleo por
+     * defecto, también con dimensiones impares y con filas de más de una palabra.
+     */
+    @Test
+    public void tablaDeConwayCoincideConElNucleo() {
+        int[][] dimensiones = {{30, 30}, {64, 5}, {130, 71}, {1, 1}, {65, 3}, {63, 2}, {127, 9}};
+        for (int[] d : dimensiones) {
+            MatrizBits inicial = aleatoria(d[0], d[1], 17);
+            Tablero nucleo = new Tablero(d[0], d[1]);
+            Tablero tabla = new Tablero(d[0], d[1]);
+            tabla.configurarRegla(ReglaVida.analizar("B3/S23"), Topologia.FIJA);
+            nucleo.cargarEstado(inicial);
+            tabla.cargarEstado(inicial);
+            for (int g = 0; g < 20; g++) {
+                nucleo.transitarAlEstadoSiguiente();
+                tabla.transitarAlEstadoSiguiente();
+                assertEquals(nucleo.obtenerEstadoActual(), tabla.obtenerEstadoActual());
+            }
+        }
+    }
+
+    /**
+     * Este test comprueba otras reglas en las dos topologías frente a la implementación de referencia, y el
+     * análisis del texto de las reglas.
+     */
+    @Test
+    public void otrasReglasYTopologias() {
+        assertEquals("B36/S23", ReglaVida.analizar("b63/s32").toString());
+        assertEquals(ReglaVida.CONWAY, ReglaVida.analizar("23/3"));
+        assertEquals("B2/S", ReglaVida.analizar("B2/S").toString());
+        assertThrows(IllegalArgumentException.class, () -> ReglaVida.analizar("B9/S23"));
+        assertThrows(IllegalArgumentException.class, () -> ReglaVida.analizar("B3S23"));
+
+        String[] reglas = {"B36/S23", "B2/S", "B3678/S34678", "B1357/S02468", "B3/S23"};
+        int[][] dimensiones = {{40, 40}, {65, 7}, {3, 3}, {129, 64}};
+        for (String texto : reglas) {
+            ReglaVida regla = ReglaVida.analizar(texto);
+            for (Topologia topologia : Topologia.values()) {
+                for (int[] d : dimensiones) {
+                    MatrizBits esperado = aleatoria(d[0], d[1], 23);
+                    Tablero tablero = new Tablero(d[0], d[1]);
+                    tablero.configurarRegla(regla, topologia);
+                    tablero.cargarEstado(esperado);
+                    for (int g = 0; g < 6; g++) {
+                        esperado = siguienteConRegla(esperado, regla, topologia == Topologia.TOROIDAL);
+                        tablero.transitarAlEstadoSiguiente();
+                        assertEquals(texto + " " + topologia + " " + d[0] + "x" + d[1], esperado,
+                                tablero.obtenerEstadoActual());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Este test comprueba que los ensayos de un experimento dependen solo de su semilla y no del número de
+     * hilos, y que cada ensayo coincide con el mismo tablero simulado por separado.
+     */
+    @Test
+    public void experimentoReproducible() {
+        ExperimentoVida.Resumen[] resumenes = new ExperimentoVida.Resumen[2];
+        long[] poblacionEnsayo7 = new long[1];
+        int[] hilos = {1, 4};
+        for (int k = 0; k < hilos.length; k++) {
+            ExperimentoVida experimento = new ExperimentoVida(24, 24, 60);
+            experimento.configurarSemilla(99);
+            experimento.configurarDensidad(0.35);
+            experimento.configurarHilos(hilos[k]);
+            experimento.configurarGeneracionesMaximas(2000);
+            long[] entregados = new long[1];
+            resumenes[k] = experimento.ejecutar((ensayo, parcial) -> {
+                entregados[0]++;
+                assertEquals(entregados[0], parcial.getEnsayos());
+                if (ensayo.getIndice() == 7) {
+                    poblacionEnsayo7[0] = ensayo.getPoblacionFinal();
+                }
+            });
+            assertEquals(60, entregados[0]);
+        }
+        assertEquals(60, resumenes[0].getEnsayos());
+        assertEquals(resumenes[0].getEstabilizados(), resumenes[1].getEstabilizados());
+        assertEquals(resumenes[0].getPoblacionFinal().getMedia(), resumenes[1].getPoblacionFinal().getMedia(),
+                1e-9);
+        assertEquals(resumenes[0].getPoblacionFinal().getVarianza(),
+                resumenes[1].getPoblacionFinal().getVarianza(), 1e-6);
+        assertEquals(resumenes[0].getTiempoEstabilizacion().getMedia(),
+                resumenes[1].getTiempoEstabilizacion().getMedia(), 1e-9);
+
+        Tablero tablero = new Tablero(24, 24);
+        tablero.configurarDeteccionDeCiclos(16);
+        tablero.generarEstadoActualPorMontecarlo(ExperimentoVida.semillaEnsayo(99, 7), 0.35);
+        tablero.avanzarHastaCiclo(2000);
+        assertEquals(tablero.contarVivas(), poblacionEnsayo7[0]);
+    }
+
+    /**
+     * Este test comprueba que el renderizador escribe los tableros con el mismo texto que toString y, con
+     * una salida lenta, descarta fotogramas intermedios pero nunca el último.
+     */
+    @Test
+    public void renderizadorAsincrono() throws IOException {
+        Tablero tablero = new Tablero(70, 5);
+        tablero.cargarEstado(aleatoria(70, 5, 8));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        String esperado;
+        try (RenderizadorAsincrono renderizador = new RenderizadorAsincrono(Channels.newChannel(bytes), 8)) {
+            esperado = "Generación 0\n" + tablero + "\n";
+            renderizador.publicar(tablero, 0);
+            tablero.transitarAlEstadoSiguiente();
+            esperado += "Generación 1 (final)\n" + tablero + "\n";
+            renderizador.publicarFinal(tablero, 1);
+        }
+        assertEquals(esperado, bytes.toString(StandardCharsets.UTF_8));
+
+        ByteArrayOutputStream lenta = new ByteArrayOutputStream();
+        WritableByteChannel canalLento = new WritableByteChannel() {
+            private final WritableByteChannel canal = Channels.newChannel(lenta);
+
+            @Override
+            public int write(ByteBuffer src) throws IOException {
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return canal.write(src);
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        RenderizadorAsincrono renderizador = new RenderizadorAsincrono(canalLento, 1);
+        for (int g = 0; g < 200; g++) {
+            renderizador.publicar(tablero, g);
+        }
+        renderizador.publicarFinal(tablero, 200);
+        renderizador.close();
+        assertEquals(201, renderizador.getPublicados());
+        assertEquals(renderizador.getPublicados(), renderizador.getMostrados() + renderizador.getDescartados());
+        assertTrue(renderizador.getDescartados() > 0);
+        assertTrue(lenta.toString(StandardCharsets.UTF_8).endsWith("Generación 200 (final)\n" + tablero + "\n"));
+    }
+}
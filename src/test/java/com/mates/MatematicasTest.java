@@ -0,0 +1,85 @@
+package com.mates;
+
+import com.aplicacion.mates.EstimadorPi;
+import com.aplicacion.mates.Matematicas;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Clase de pruebas unitarias para la clase Matematicas.
+ */
+public class MatematicasTest {
+
+    /**
+     * Este test comprueba que la versión paralela devuelve siempre la misma aproximación
+     * con la misma semilla y el mismo número de hilos, y que esta se acerca a PI.
+     */
+    @Test
+    public void generarNumeroPiParaleloEsReproducible() {
+        double primera = Matematicas.generarNumeroPiParalelo(2_000_000, 1234L, 4);
+        double segunda = Matematicas.generarNumeroPiParalelo(2_000_000, 1234L, 4);
+        assertEquals(primera, segunda, 0.0);
+        assertEquals(Math.PI, primera, 0.01);
+    }
+
+    /**
+     * Este test comprueba que la versión paralela rechaza un número de pasos no positivo.
+     */
+    @Test
+    public void generarNumeroPiParaleloRechazaPasosNoPositivos() {
+        assertThrows(IllegalArgumentException.class, () -> Matematicas.generarNumeroPiParalelo(0, 1L, 2));
+    }
+
+    /**
+     * Este test comprueba que el estimador incremental se detiene al alcanzar la precisión pedida
+     * y que el intervalo de confianza contiene la estimación.
+     */
+    @Test
+    public void estimadorSeDetieneAlAlcanzarLaPrecision() {
+        EstimadorPi estimador = EstimadorPi.pseudoaleatorio(99L);
+        assertTrue(estimador.muestrearHastaPrecision(0.005, 10_000, 10_000_000));
+        assertTrue(estimador.getErrorEstandar() <= 0.005);
+        assertTrue(estimador.getMuestras() < 10_000_000);
+        double[] intervalo = estimador.intervaloConfianza(0.95);
+        assertTrue(intervalo[0] < estimador.getEstimacion() && estimador.getEstimacion() < intervalo[1]);
+    }
+
+    /**
+     * Este test comprueba que con Halton la parada por precisión usa la varianza de las réplicas desplazadas:
+     * se detiene con muchas menos muestras de las que exigiría la fórmula binomial y el error real queda
+     * dentro del intervalo de confianza.
+     */
+    @Test
+    public void estimadorHaltonUsaLaVarianzaDeLasReplicas() {
+        EstimadorPi estimador = EstimadorPi.halton(0, 7L);
+        assertTrue(estimador.muestrearHastaPrecision(0.0005, 50_000, 20_000_000));
+        // La fórmula binomial necesitaría unos 10 millones de puntos para ese error.
+        assertTrue(estimador.getMuestras() + " muestras", estimador.getMuestras() <= 1_000_000);
+        assertEquals(Math.PI, estimador.getEstimacion(), 4 * estimador.getErrorEstandar());
+        double[] intervalo = estimador.intervaloConfianza(0.999);
+        assertTrue(intervalo[0] < Math.PI && Math.PI < intervalo[1]);
+    }
+
+    /**
+     * Este test comprueba que combinar dos estimadores de Halton con tramos consecutivos equivale
+     * a un único estimador que recorre ambos tramos.
+     */
+    @Test
+    public void combinarEstimadoresHalton() {
+        EstimadorPi primero = EstimadorPi.halton(1);
+        EstimadorPi segundo = EstimadorPi.halton(1 + 50_000);
+        primero.muestrear(50_000);
+        segundo.muestrear(50_000);
+        primero.combinar(segundo);
+
+        EstimadorPi unico = EstimadorPi.halton(1);
+        unico.muestrear(100_000);
+        assertEquals(unico.getAciertos(), primero.getAciertos());
+        assertEquals(unico.getErrorEstandar(), primero.getErrorEstandar(), 0.0);
+        // Las réplicas desplazadas pierden parte de la ventaja de Halton, pero el error sigue muy por debajo
+        // del error binomial de 100.000 puntos (0,005).
+        assertEquals(Math.PI, unico.getEstimacion(), 4 * unico.getErrorEstandar());
+        assertTrue(unico.getErrorEstandar() < 0.002);
+    }
+}
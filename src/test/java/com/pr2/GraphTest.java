@@ -1,11 +1,39 @@
 package com.pr2;
 
+import com.aplicacion.pr2.ConcurrentGraph;
+import com.aplicacion.pr2.EdgeListLoader;
 import com.aplicacion.pr2.Graph;
+import com.aplicacion.pr2.GraphEditDistance;
+import com.aplicacion.pr2.GraphQueryCache;
+import com.aplicacion.pr2.GraphSnapshot;
+import com.aplicacion.pr2.GraphWriter;
+import com.aplicacion.pr2.MappedGraph;
+import com.aplicacion.pr2.ParallelBfs;
+import com.aplicacion.pr2.VertexCodec;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.time.Duration;
+import java.io.ByteArrayInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.BufferedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import static org.junit.Assert.*;
 
 /**
@@ -145,4 +173,462 @@ public class GraphTest {
         Graph<Integer> g = new Graph<>();
         assertFalse(g.containsVertex(1));
     }
-}
\ No newline at end of file
+
+    /**
+     * Este test comprueba que la vista CSR conserva vértices y arcos y que su metodo
+     * `onePath(V v1, V v2)` devuelve el mismo camino que el del grafo.
+     */
+    @Test
+    public void snapshotOnePathMatchesGraph() throws Exception {
+        Graph<Integer> g = new Graph<>();
+        Random random = new Random(1);
+        for (int i = 0; i < 2000; i++) {
+            g.addEdge(random.nextInt(500), random.nextInt(500));
+        }
+        GraphSnapshot<Integer> snapshot = g.snapshot();
+        int edges = 0;
+        for (int v = 0; v < 500; v++) {
+            if (g.containsVertex(v)) {
+                assertEquals(g.obtainAdjacents(v).size(), snapshot.obtainAdjacents(v).size());
+                edges += g.obtainAdjacents(v).size();
+            }
+        }
+        assertEquals(edges, snapshot.edgeCount());
+        for (int i = 0; i < 200; i++) {
+            int v1 = random.nextInt(500);
+            int v2 = random.nextInt(500);
+            assertEquals(g.onePath(v1, v2), snapshot.onePath(v1, v2));
+        }
+    }
+
+    /**
+     * Este test comprueba que `shortestPath` y `bidirectionalPath` devuelven caminos válidos
+     * con el mínimo número de arcos.
+     */
+    @Test
+    public void shortestAndBidirectionalPathsHaveMinimumLength() throws Exception {
+        Graph<Integer> g = new Graph<>();
+        Random random = new Random(3);
+        for (int i = 0; i < 1500; i++) {
+            g.addEdge(random.nextInt(600), random.nextInt(600));
+        }
+        for (int i = 0; i < 300; i++) {
+            int v1 = random.nextInt(600);
+            int v2 = random.nextInt(600);
+            List<Integer> bfs = g.shortestPath(v1, v2);
+            List<Integer> bidirectional = g.bidirectionalPath(v1, v2);
+            if (bfs == null) {
+                assertNull(bidirectional);
+                assertNull(g.onePath(v1, v2));
+                continue;
+            }
+            assertEquals(bfs.size(), bidirectional.size());
+            assertTrue(bfs.size() <= g.onePath(v1, v2).size());
+            for (List<Integer> path : List.of(bfs, bidirectional)) {
+                assertEquals(Integer.valueOf(v1), path.get(0));
+                assertEquals(Integer.valueOf(v2), path.get(path.size() - 1));
+                for (int k = 0; k + 1 < path.size(); k++) {
+                    assertTrue(g.obtainAdjacents(path.get(k)).contains(path.get(k + 1)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Este test comprueba que el límite de arcos y el filtro de vértices se respetan.
+     */
+    @Test
+    public void shortestPathHonoursHopLimitAndFilter() {
+        Graph<Integer> g = new Graph<>();
+        g.addEdge(1, 2);
+        g.addEdge(2, 3);
+        g.addEdge(3, 4);
+        g.addEdge(1, 5);
+        g.addEdge(5, 6);
+        g.addEdge(6, 7);
+        g.addEdge(7, 4);
+        assertEquals(List.of(1, 2, 3, 4), g.shortestPath(1, 4));
+        assertNull(g.shortestPath(1, 4, 2, null));
+        assertNull(g.bidirectionalPath(1, 4, 2, null));
+        assertEquals(List.of(1, 2, 3, 4), g.bidirectionalPath(1, 4, 3, null));
+        assertEquals(List.of(1, 5, 6, 7, 4), g.shortestPath(1, 4, 10, v -> v != 3));
+        assertEquals(List.of(1, 5, 6, 7, 4), g.bidirectionalPath(1, 4, 10, v -> v != 3));
+    }
+
+    /**
+     * Este test comprueba que `ConcurrentGraph` no pierde arcos cuando varios hilos escriben a la vez
+     * mientras otros buscan caminos, y que su copia coincide con la lista de arcos añadida.
+     */
+    @Test
+    public void concurrentGraphKeepsAllEdgesUnderConcurrentWrites() throws Exception {
+        ConcurrentGraph<Integer> g = new ConcurrentGraph<>();
+        int writers = 4;
+        int edgesPerWriter = 5000;
+        ExecutorService pool = Executors.newFixedThreadPool(writers + 2);
+        List<Future<?>> tasks = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int writer = w;
+            tasks.add(pool.submit(() -> {
+                for (int i = 0; i < edgesPerWriter; i++) {
+                    // Cada escritor añade una cadena disjunta: writer*100000 + i -> writer*100000 + i + 1
+                    g.addEdge(writer * 100000 + i, writer * 100000 + i + 1);
+                }
+            }));
+        }
+        for (int r = 0; r < 2; r++) {
+            tasks.add(pool.submit(() -> {
+                for (int i = 0; i < 200; i++) {
+                    List<Integer> path = g.onePath(0, i);
+                    if (path != null) {
+                        assertEquals(i + 1, path.size());
+                    }
+                    g.snapshot();
+                }
+            }));
+        }
+        for (Future<?> task : tasks) {
+            task.get();
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        Graph<Integer> copy = g.toGraph();
+        assertEquals(writers * edgesPerWriter, g.snapshot().edgeCount());
+        for (int w = 0; w < writers; w++) {
+            assertEquals(edgesPerWriter + 1, copy.shortestPath(w * 100000, w * 100000 + edgesPerWriter).size());
+        }
+        assertThrows(UnsupportedOperationException.class, () -> g.obtainAdjacents(0).add(7));
+    }
+
+    /**
+     * Este test comprueba la distancia de edición exacta en casos conocidos, que las operaciones devueltas son tantas
+     * como la distancia y que con presupuesto agotado el resultado se marca como cota.
+     */
+    @Test
+    public void editDistanceIsExactOnSmallGraphs() {
+        Graph<Integer> cycle = new Graph<>();
+        Graph<Integer> path = new Graph<>();
+        for (int i = 0; i < 6; i++) {
+            cycle.addEdge(i, (i + 1) % 6);
+            if (i < 5) {
+                path.addEdge(i + 10, i + 11);
+            }
+        }
+        // Ignorando etiquetas, un ciclo y un camino del mismo tamaño se diferencian en un arco
+        GraphEditDistance.Result<Integer> structural = new GraphEditDistance<Integer>()
+                .withLabels(v -> 0).compute(cycle, path);
+        assertTrue(structural.isExact());
+        assertEquals(1, structural.getDistance());
+        assertEquals(1, structural.getScript().size());
+        assertEquals(GraphEditDistance.Operation.DELETE_EDGE, structural.getScript().get(0).getOperation());
+
+        // Con los vértices como etiquetas: 6 reetiquetados + 1 arco borrado
+        GraphEditDistance.Result<Integer> labelled = cycle.editDistance(path);
+        assertEquals(7, labelled.getDistance());
+        assertEquals(0, cycle.editDistance(cycle).getDistance());
+
+        Graph<Integer> empty = new Graph<>();
+        GraphEditDistance.Result<Integer> fromEmpty = empty.editDistance(cycle);
+        assertEquals(12, fromEmpty.getDistance());
+
+        // Grafos aleatorios: la búsqueda exacta nunca empeora la cota del método húngaro ni baja de la inferior
+        Random random = new Random(5);
+        for (int t = 0; t < 5; t++) {
+            Graph<Integer> a = new Graph<>();
+            Graph<Integer> b = new Graph<>();
+            for (int e = 0; e < 12; e++) {
+                a.addEdge(random.nextInt(7), random.nextInt(7));
+                b.addEdge(random.nextInt(7), random.nextInt(7));
+            }
+            GraphEditDistance.Result<Integer> exact = new GraphEditDistance<Integer>().withLabels(v -> 0)
+                    .compute(a, b);
+            GraphEditDistance.Result<Integer> bounded = new GraphEditDistance<Integer>().withLabels(v -> 0)
+                    .withNodeBudget(1).withTimeBudget(Duration.ofSeconds(1)).compute(a, b);
+            assertTrue(exact.isExact());
+            assertEquals(exact.getDistance(), exact.getScript().size());
+            assertEquals(exact.getDistance(), new GraphEditDistance<Integer>().withLabels(v -> 0)
+                    .withParallelism(1).compute(a, b).getDistance());
+            assertTrue(bounded.getLowerBound() <= exact.getDistance());
+            assertTrue(bounded.getDistance() >= exact.getDistance());
+            assertEquals(bounded.getDistance(), bounded.getScript().size());
+        }
+    }
+
+    /**
+     * Este test comprueba que en grafos medianos, donde la búsqueda exacta es inabordable, el presupuesto de
+     * tiempo detiene la búsqueda, que devuelve una cota no exacta con sus operaciones, también en un pool propio.
+     */
+    @Test
+    public void editDistanceRespectsTimeBudget() {
+        Random random = new Random(17);
+        for (int n : new int[] {300, 800}) {
+            Graph<Integer> a = new Graph<>();
+            Graph<Integer> b = new Graph<>();
+            for (int v = 0; v < n; v++) {
+                a.addVertex(v);
+                b.addVertex(v);
+            }
+            for (int e = 0; e < 3 * n; e++) {
+                a.addEdge(random.nextInt(n), random.nextInt(n));
+                b.addEdge(random.nextInt(n), random.nextInt(n));
+            }
+            GraphEditDistance<Integer> distance = new GraphEditDistance<Integer>().withLabels(v -> 0)
+                    .withTimeBudget(Duration.ofMillis(300));
+            GraphEditDistance.Result<Integer> result = n == 300 ? distance.compute(a, b)
+                    : distance.compute(a, b, ForkJoinPool.commonPool());
+            assertFalse(result.isExact());
+            assertTrue(result.getLowerBound() <= result.getDistance());
+            assertEquals(result.getDistance(), result.getScript().size());
+        }
+    }
+
+    /**
+     * Este test comprueba que la búsqueda en anchura paralela da las mismas distancias que una secuencial, tanto en un
+     * grafo de ley de potencias (que pasa a modo ascendente) como en una cadena larga (solo descendente).
+     */
+    @Test
+    public void parallelBfsMatchesSequentialBfs() {
+        Random random = new Random(11);
+        Graph<Integer> dense = new Graph<>();
+        int n = 20000;
+        for (int i = 0; i < n; i++) {
+            dense.addVertex(i);
+        }
+        for (int e = 0; e < 8 * n; e++) {
+            // Destinos sesgados hacia los primeros vértices, para que haya niveles muy anchos
+            int target = (int) (n * Math.pow(random.nextDouble(), 3));
+            dense.addEdge(random.nextInt(n), target);
+        }
+        Graph<Integer> chain = new Graph<>();
+        for (int i = 0; i < 5000; i++) {
+            chain.addEdge(i, i + 1);
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (Graph<Integer> g : List.of(dense, chain)) {
+                GraphSnapshot<Integer> snapshot = g.snapshot();
+                List<Integer> seeds = List.of(0, 1, 3);
+                ParallelBfs.Result<Integer> result = ParallelBfs.search(snapshot, seeds, pool);
+                int[] expected = sequentialBfs(snapshot, seeds);
+                int reached = 0;
+                for (int id = 0; id < expected.length; id++) {
+                    assertEquals(expected[id], result.distanceOf(id));
+                    reached += expected[id] >= 0 ? 1 : 0;
+                }
+                assertEquals(reached, result.getReachedCount());
+                assertEquals(reached, g.reachableFrom(seeds).distances().size());
+                List<Integer> order = result.reachable();
+                for (int i = 1; i < order.size(); i++) {
+                    assertTrue(result.distance(order.get(i - 1)) <= result.distance(order.get(i)));
+                }
+            }
+            assertTrue(ParallelBfs.search(dense.snapshot(), List.of(0), pool).getBottomUpSteps() > 0);
+            assertEquals(5000, ParallelBfs.search(chain.snapshot(), List.of(0), pool).getDepth());
+            assertEquals(0, chain.reachableFrom(List.of(-1)).getReachedCount());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static int[] sequentialBfs(GraphSnapshot<Integer> g, List<Integer> seeds) {
+        int[] distances = new int[g.vertexCount()];
+        Arrays.fill(distances, -1);
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (Integer seed : seeds) {
+            int id = g.idOf(seed);
+            if (id >= 0 && distances[id] < 0) {
+                distances[id] = 0;
+                queue.add(id);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int v = queue.poll();
+            for (int k = 0; k < g.outDegree(v); k++) {
+                int u = g.adjacent(v, k);
+                if (distances[u] < 0) {
+                    distances[u] = distances[v] + 1;
+                    queue.add(u);
+                }
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * Este test comprueba que la carga masiva en texto, CSV y binario (secuencial y en paralelo) produce el mismo grafo
+     * que añadir los arcos uno a uno, descartando repetidos, comentarios y columnas extra, y que rechaza los
+     * identificadores que no caben en un {@code long}.
+     */
+    @Test
+    public void edgeListLoaderMatchesAddEdge(@TempDir Path dir) throws Exception {
+        String text = "# comentario\n1\t2\n1 2\n2\t3\t0.5\n\n% otro\n-4\t1\r\n3\t3";
+        Graph<Long> loaded = new Graph<>();
+        EdgeListLoader.Report report = new EdgeListLoader().load(
+                new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII)), EdgeListLoader.Format.TSV, loaded);
+        assertEquals(5, report.getEdgesRead());
+        assertEquals(4, report.getEdgesAdded());
+        assertEquals(4, report.getVertices());
+        assertEquals(Set.of(2L), loaded.obtainAdjacents(1L));
+        assertEquals(Set.of(1L), loaded.obtainAdjacents(-4L));
+        assertEquals(Set.of(3L), loaded.obtainAdjacents(3L));
+
+        Graph<Long> csv = new Graph<>();
+        new EdgeListLoader().load(new ByteArrayInputStream("5,6\n6,5\n".getBytes(StandardCharsets.US_ASCII)),
+                EdgeListLoader.Format.CSV, csv);
+        assertEquals(Set.of(5L), csv.obtainAdjacents(6L));
+        assertThrows(IOException.class, () -> new EdgeListLoader().load(
+                new ByteArrayInputStream("1\tx\n".getBytes(StandardCharsets.US_ASCII)),
+                EdgeListLoader.Format.TSV, new Graph<>()));
+        assertThrows(IOException.class, () -> new EdgeListLoader().load(
+                new ByteArrayInputStream("99999999999999999999\t1\n".getBytes(StandardCharsets.US_ASCII)),
+                EdgeListLoader.Format.TSV, new Graph<>()));
+
+        // Fichero de unos cientos de KB, que con trozos de 16 KB se reparte entre varios hilos
+        Random random = new Random(3);
+        Graph<Long> expected = new Graph<>();
+        Path tsv = dir.resolve("arcos.tsv");
+        Path bin = dir.resolve("arcos.bin");
+        int edges = 20_000;
+        try (OutputStream textOut = new BufferedOutputStream(Files.newOutputStream(tsv));
+             DataOutputStream binOut = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(bin)))) {
+            for (int i = 0; i < edges; i++) {
+                long a = random.nextInt(5_000);
+                long b = random.nextInt(5_000);
+                expected.addEdge(a, b);
+                textOut.write((a + "\t" + b + "\n").getBytes(StandardCharsets.US_ASCII));
+                binOut.writeLong(a);
+                binOut.writeLong(b);
+            }
+        }
+        for (Path file : List.of(tsv, bin)) {
+            for (int threads : new int[] {1, 4}) {
+                Graph<Long> g = new Graph<>();
+                EdgeListLoader.Report r = new EdgeListLoader().withParallelism(threads).withMinChunkSize(1 << 14)
+                        .load(file, g);
+                assertEquals(edges, r.getEdgesRead());
+                assertEquals(expected.snapshot().edgeCount(), r.getEdgesAdded());
+                assertTrue(r.getEdgesPerSecond() > 0);
+                for (long v = 0; v < 5_000; v++) {
+                    if (expected.containsVertex(v)) {
+                        assertEquals(expected.obtainAdjacents(v), g.obtainAdjacents(v));
+                    }
+                }
+            }
+        }
+        // Cargar de nuevo sobre el mismo grafo no añade nada
+        Graph<Long> twice = new Graph<>();
+        new EdgeListLoader().load(bin, twice);
+        assertEquals(0, new EdgeListLoader().load(tsv, twice).getEdgesAdded());
+    }
+
+    /**
+     * Este test comprueba que la caché de consultas responde lo mismo que el grafo, cuenta aciertos, fallos y
+     * descartes, y se vacía cuando el grafo cambia, con y sin condensación en componentes.
+     */
+    @Test
+    public void queryCacheMatchesGraphAndInvalidatesOnChange() {
+        Random random = new Random(17);
+        Graph<Integer> g = new Graph<>();
+        for (int e = 0; e < 300; e++) {
+            g.addEdge(random.nextInt(200), random.nextInt(200));
+        }
+        // Una cadena de más de 8192 componentes obliga a recorrer la condensación en lugar del cierre
+        Graph<Integer> chain = new Graph<>();
+        for (int i = 0; i < 10000; i++) {
+            chain.addEdge(i, i + 1);
+        }
+        for (Graph<Integer> graph : List.of(g, chain)) {
+            int n = graph == g ? 200 : 10001;
+            GraphQueryCache<Integer> plain = new GraphQueryCache<>(graph, 64);
+            GraphQueryCache<Integer> condensed = new GraphQueryCache<>(graph, 64, 100_000, true);
+            for (int q = 0; q < 300; q++) {
+                int a = random.nextInt(n);
+                int b = random.nextInt(n);
+                boolean expected = graph.onePath(a, b) != null;
+                assertEquals(expected, plain.isReachable(a, b));
+                assertEquals(expected, condensed.isReachable(a, b));
+                assertEquals(expected, condensed.onePath(a, b) != null);
+            }
+        }
+
+        GraphQueryCache<Integer> cache = new GraphQueryCache<>(chain, 2);
+        List<Integer> path = cache.onePath(0, 50);
+        assertEquals(51, path.size());
+        assertSame(path, cache.onePath(0, 50));
+        assertTrue(cache.isReachable(0, 50));
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertNull(cache.onePath(50, 0));
+        assertNull(cache.onePath(7, 3));
+        assertEquals(1, cache.getEvictions());
+        assertEquals(2, cache.size());
+
+        chain.addEdge(50, 0);
+        assertEquals(List.of(50, 0), cache.onePath(50, 0));
+        assertEquals(1, cache.getInvalidations());
+        assertEquals(1, cache.size());
+        GraphQueryCache<Integer> condensed = new GraphQueryCache<>(chain, 16, 16, true);
+        assertEquals(10001 - 50, condensed.getComponentCount());
+        condensed.onePath(0, 40);
+        assertEquals(1, condensed.getEvictions());
+    }
+
+    /**
+     * Este test comprueba que un grafo guardado en formato binario se puede consultar proyectado en memoria y
+     * materializar de nuevo sin perder vértices ni arcos, y que se rechazan los ficheros truncados y las consultas
+     * después de cerrarlo.
+     */
+    @Test
+    public void binaryFormatRoundTripsThroughMappedGraph(@TempDir Path dir) throws Exception {
+        Random random = new Random(23);
+        Graph<String> g = new Graph<>();
+        for (int e = 0; e < 5000; e++) {
+            g.addEdge("v" + random.nextInt(1500), "v" + random.nextInt(1500));
+        }
+        g.addVertex("aislado");
+        g.addVertex("ñandú");
+        Path file = dir.resolve("grafo.bin");
+        GraphWriter.write(g, VertexCodec.strings(), file);
+
+        MappedGraph<String> closed;
+        try (MappedGraph<String> mapped = MappedGraph.open(file, VertexCodec.strings())) {
+            closed = mapped;
+            GraphSnapshot<String> snapshot = g.snapshot();
+            assertEquals(snapshot.vertexCount(), mapped.vertexCount());
+            assertEquals(snapshot.edgeCount(), mapped.edgeCount());
+            assertTrue(mapped.containsVertex("ñandú"));
+            assertFalse(mapped.containsVertex("v1500"));
+            assertTrue(mapped.obtainAdjacents("aislado").isEmpty());
+            for (int id = 0; id < snapshot.vertexCount(); id++) {
+                String v = snapshot.vertex(id);
+                assertEquals(g.obtainAdjacents(v), new HashSet<>(mapped.obtainAdjacents(v)));
+            }
+            for (int q = 0; q < 50; q++) {
+                String a = "v" + random.nextInt(1500);
+                String b = "v" + random.nextInt(1500);
+                List<String> path = mapped.onePath(a, b);
+                assertEquals(g.onePath(a, b) == null, path == null);
+                if (path != null) {
+                    assertEquals(a, path.get(0));
+                    assertEquals(b, path.get(path.size() - 1));
+                    for (int i = 1; i < path.size(); i++) {
+                        assertTrue(g.obtainAdjacents(path.get(i - 1)).contains(path.get(i)));
+                    }
+                }
+            }
+            Graph<String> copy = mapped.toGraph();
+            assertEquals(snapshot.edgeCount(), copy.snapshot().edgeCount());
+            assertEquals(g.obtainAdjacents("v7"), copy.obtainAdjacents("v7"));
+        }
+
+        assertThrows(IllegalStateException.class, () -> closed.containsVertex("v7"));
+
+        // Un fichero truncado se rechaza al abrirlo, no en la primera consulta
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+        assertThrows(IOException.class, () -> MappedGraph.open(file, VertexCodec.strings()));
+        Files.write(file, new byte[64]);
+        assertThrows(IOException.class, () -> MappedGraph.open(file, VertexCodec.strings()));
+    }
+}